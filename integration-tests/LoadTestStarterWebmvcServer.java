@@ -0,0 +1,593 @@
+///usr/bin/env jbang "$0" "$@" ; exit $?
+//DEPS com.fasterxml.jackson.core:jackson-databind:2.17.1
+//DEPS io.modelcontextprotocol.sdk:mcp:0.10.0
+//DEPS org.slf4j:slf4j-simple:2.0.16
+//JAVA 21
+
+/*
+ * GPU 없이 돌리는 end-to-end 부하 테스트.
+ * 1) Ollama chat API를 흉내 내는 stub 서버를 띄우고 (지연, 토큰 속도, 병렬 슬롯, 실패율 설정 가능)
+ * 2) 임시 git 저장소(변경 크기별)를 만들어 GIT_WORK_DIR로 지정한 뒤 서버 JAR을 stub에 연결해 실행하고
+ * 3) REST(/commit, /statusCheck)와 MCP(generateCommitMessage) 클라이언트를 동시에 돌려
+ *    p50/p95/p99 지연과 초당 요청 수를 출력하고 JSON으로 저장한다.
+ *
+ * 사용 예 (먼저 ./gradlew bootJar):
+ *   jbang integration-tests/LoadTestStarterWebmvcServer.java --rest-clients=8 --mcp-clients=4 --duration=60s
+ *   jbang integration-tests/LoadTestStarterWebmvcServer.java --cache=false --stub-tokens-per-sec=30 --stub-failure-rate=0.05
+ *
+ * 옵션 (기본값):
+ *   --jar=build/libs/*.jar          서버 JAR
+ *   --repo-sizes=8KB,256KB          저장소 변경 크기, 크기마다 서버를 새로 띄워 따로 측정
+ *   --repo-files=20                 변경 파일 수
+ *   --rest-clients=4 --status-clients=2 --mcp-clients=2
+ *   --duration=30s --warmup=5s
+ *   --cache=true                    false면 mcp.cache.enabled=false (매 요청 LLM 경로)
+ *   --stub-latency=200ms            요청마다 고정 지연 (네트워크 + 스케줄링)
+ *   --stub-prompt-tokens-per-sec=2000 --stub-tokens-per-sec=50
+ *   --stub-slots=4                  동시에 처리하는 요청 수 (OLLAMA_NUM_PARALLEL)
+ *   --stub-failure-rate=0           이 비율의 요청을 HTTP 500으로 실패
+ *   --seed=42 --out=build/loadtest/report.json
+ *   --app-args="..."                서버에 추가로 넘길 인자 (공백 구분)
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class LoadTestStarterWebmvcServer {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String MODEL = "gemma3:12b-it-qat";
+
+    public static void main(String... args) throws Exception {
+        Options o = Options.parse(args);
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+
+        try (StubOllama stub = StubOllama.start(o)) {
+            System.out.printf("stub Ollama: http://127.0.0.1:%d (latency=%s, %d tok/s, slots=%d, failure=%.2f)%n",
+                    stub.port(), o.duration("stub-latency", "200ms"), o.integer("stub-tokens-per-sec", 50),
+                    o.integer("stub-slots", 4), o.decimal("stub-failure-rate", 0));
+
+            for (String size : o.string("repo-sizes", "8KB,256KB").split(",")) {
+                long bytes = parseBytes(size.trim());
+                try (ScratchRepo repo = ScratchRepo.create(o.integer("repo-files", 20), bytes);
+                     App app = App.start(o, stub.port(), repo.dir())) {
+                    System.out.printf("%n=== 변경 %s, 파일 %d개 (서버 :%d) ===%n", size.trim(), o.integer("repo-files", 20), app.port());
+                    Map<String, Object> scenario = new LinkedHashMap<>();
+                    scenario.put("repoSize", size.trim());
+                    scenario.put("results", runLoad(o, app.port()));
+                    scenario.put("stubRequests", stub.requests());
+                    scenario.put("stubFailures", stub.failures());
+                    scenarios.add(scenario);
+                }
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("options", o.values);
+        report.put("scenarios", scenarios);
+        Path out = Path.of(o.string("out", "build/loadtest/report.json"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        JSON.writeValue(out.toFile(), report);
+        System.out.println("\n결과 저장: " + out.toAbsolutePath());
+    }
+
+    // ------------------------------------------------------------------ 부하
+
+    private static List<Map<String, Object>> runLoad(Options o, int port) throws Exception {
+        Duration warmup = o.duration("warmup", "5s");
+        Duration duration = o.duration("duration", "30s");
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String base = "http://127.0.0.1:" + port;
+
+        List<Target> targets = new ArrayList<>();
+        targets.add(new Target("rest /commit", o.integer("rest-clients", 4), () -> () -> rest(http, base + "/commit")));
+        targets.add(new Target("rest /statusCheck", o.integer("status-clients", 2), () -> () -> rest(http, base + "/statusCheck")));
+        targets.add(new Target("mcp generateCommitMessage", o.integer("mcp-clients", 2), () -> mcpCaller(base)));
+
+        int threads = targets.stream().mapToInt(Target::clients).sum();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        System.out.printf("클라이언트 %d개, 예열 %ds + 측정 %ds%n", threads, warmup.toSeconds(), duration.toSeconds());
+
+        for (Target target : targets) {
+            for (int i = 0; i < target.clients(); i++) {
+                pool.execute(() -> {
+                    Call call;
+                    try {
+                        call = target.factory().create();
+                    } catch (Exception e) {
+                        target.errors.incrementAndGet();
+                        System.err.println(target.name() + " 클라이언트 생성 실패: " + e);
+                        return;
+                    }
+                    try {
+                        // closed loop: 응답을 받으면 바로 다음 요청
+                        while (System.nanoTime() < stopAt) {
+                            long t0 = System.nanoTime();
+                            boolean ok;
+                            try {
+                                ok = call.run();
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            long t1 = System.nanoTime();
+                            if (t0 < measureFrom) continue;
+                            if (ok) target.latencies.add(t1 - t0);
+                            else target.errors.incrementAndGet();
+                        }
+                    } finally {
+                        call.close();
+                    }
+                });
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.plus(warmup).plusMinutes(10).toSeconds(), TimeUnit.SECONDS);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        System.out.printf("%-28s %8s %7s %9s %9s %9s %9s %9s%n", "대상", "요청", "오류", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Target target : targets) {
+            if (target.clients() == 0) continue;
+            Map<String, Object> r = target.summarize(duration);
+            results.add(r);
+            System.out.printf("%-28s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f%n", target.name(), r.get("requests"), r.get("errors"),
+                    r.get("rps"), r.get("p50Millis"), r.get("p95Millis"), r.get("p99Millis"), r.get("maxMillis"));
+        }
+        return results;
+    }
+
+    private static boolean rest(HttpClient http, String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMinutes(5)).GET().build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        // 생성 실패도 200으로 오므로 본문의 오류 메시지로 구분
+        return response.statusCode() == 200 && !response.body().contains("LLM 호출 실패");
+    }
+
+    private static Call mcpCaller(String base) {
+        McpSyncClient client = McpClient.sync(HttpClientSseClientTransport.builder(base).build())
+                .requestTimeout(Duration.ofMinutes(5))
+                .build();
+        client.initialize();
+        McpSchema.CallToolRequest request = new McpSchema.CallToolRequest("generateCommitMessage",
+                Map.of("request", Map.of("maxSuggestions", 9, "stagedFirst", true)));
+        return new Call() {
+            @Override
+            public boolean run() {
+                McpSchema.CallToolResult result = client.callTool(request);
+                return !Boolean.TRUE.equals(result.isError()) && !String.valueOf(result.content()).contains("LLM 호출 실패");
+            }
+
+            @Override
+            public void close() {
+                client.closeGracefully();
+            }
+        };
+    }
+
+    interface Call extends AutoCloseable {
+        boolean run() throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    interface CallFactory {
+        Call create() throws Exception;
+    }
+
+    record Target(String name, int clients, CallFactory factory, ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        Target(String name, int clients, CallFactory factory) {
+            this(name, clients, factory, new ConcurrentLinkedQueue<>(), new AtomicLong());
+        }
+
+        Map<String, Object> summarize(Duration duration) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("target", name);
+            r.put("clients", clients);
+            r.put("requests", (long) sorted.length);
+            r.put("errors", errors.get());
+            r.put("rps", sorted.length / (double) duration.toSeconds());
+            r.put("p50Millis", percentile(sorted, 0.50));
+            r.put("p95Millis", percentile(sorted, 0.95));
+            r.put("p99Millis", percentile(sorted, 0.99));
+            r.put("maxMillis", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return r;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.max(0, (int) Math.ceil(sorted.length * p) - 1)] / 1e6;
+        }
+    }
+
+    // ------------------------------------------------------------------ stub Ollama
+
+    /**
+     * Ollama /api/chat (stream / non-stream), /api/version, /api/tags, /api/ps 흉내.
+     * 응답 시간 = 고정 지연 + 슬롯 대기 + prompt 토큰 / prompt 속도 + 출력 토큰 / 생성 속도
+     */
+    static final class StubOllama implements AutoCloseable {
+        private final HttpServer server;
+        private final Semaphore slots;
+        private final Duration latency;
+        private final int promptTokensPerSec;
+        private final int tokensPerSec;
+        private final double failureRate;
+        private final Random random;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        private StubOllama(Options o) throws IOException {
+            this.slots = new Semaphore(o.integer("stub-slots", 4), true);
+            this.latency = o.duration("stub-latency", "200ms");
+            this.promptTokensPerSec = o.integer("stub-prompt-tokens-per-sec", 2000);
+            this.tokensPerSec = o.integer("stub-tokens-per-sec", 50);
+            this.failureRate = o.decimal("stub-failure-rate", 0);
+            this.random = new Random(o.integer("seed", 42));
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/version", ex -> json(ex, 200, Map.of("version", "0.0.0-stub")));
+            server.createContext("/api/tags", ex -> json(ex, 200, Map.of("models", List.of(Map.of("name", MODEL, "model", MODEL)))));
+            server.createContext("/api/ps", ex -> json(ex, 200, Map.of("models", List.of(Map.of("name", MODEL, "model", MODEL)))));
+            server.createContext("/api/chat", this::chat);
+        }
+
+        static StubOllama start(Options o) throws IOException {
+            StubOllama stub = new StubOllama(o);
+            stub.server.start();
+            return stub;
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        long requests() {
+            return requests.get();
+        }
+
+        long failures() {
+            return failures.get();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void chat(HttpExchange ex) throws IOException {
+            Map<String, Object> body = JSON.readValue(ex.getRequestBody(), Map.class);
+            List<Map<String, Object>> messages = (List<Map<String, Object>>) body.getOrDefault("messages", List.of());
+            boolean stream = !Boolean.FALSE.equals(body.get("stream"));
+            // 빈 messages는 예열(모델 로딩) 요청
+            if (messages.isEmpty()) {
+                json(ex, 200, done("", 0, 0, 0, 0));
+                return;
+            }
+            requests.incrementAndGet();
+            boolean fail;
+            synchronized (random) {
+                fail = random.nextDouble() < failureRate;
+            }
+            try {
+                slots.acquire();
+                try {
+                    sleep(latency.toNanos());
+                    if (fail) {
+                        failures.incrementAndGet();
+                        json(ex, 500, Map.of("error", "injected failure"));
+                        return;
+                    }
+                    int promptChars = messages.stream().mapToInt(m -> String.valueOf(m.get("content")).length()).sum();
+                    long promptTokens = Math.max(1, promptChars / 4);
+                    long promptNanos = promptTokens * 1_000_000_000L / promptTokensPerSec;
+                    sleep(promptNanos);
+                    List<String> tokens = tokens(answer(String.valueOf(messages.get(messages.size() - 1).get("content"))));
+                    long tokenNanos = 1_000_000_000L / tokensPerSec;
+                    if (stream) {
+                        ex.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+                        ex.sendResponseHeaders(200, 0);
+                        try (OutputStream out = ex.getResponseBody()) {
+                            for (String token : tokens) {
+                                sleep(tokenNanos);
+                                out.write(JSON.writeValueAsBytes(chunk(token)));
+                                out.write('\n');
+                                out.flush();
+                            }
+                            out.write(JSON.writeValueAsBytes(done("", promptTokens, promptNanos, tokens.size(), tokenNanos * tokens.size())));
+                            out.write('\n');
+                        }
+                    } else {
+                        sleep(tokenNanos * tokens.size());
+                        json(ex, 200, done(String.join("", tokens), promptTokens, promptNanos, tokens.size(), tokenNanos * tokens.size()));
+                    }
+                } finally {
+                    slots.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 프롬프트가 요구한 개수만큼 한국어 번호 목록 (map 단계 요약 요청은 기본 9줄)
+        private static String answer(String prompt) {
+            int count = 9;
+            var m = java.util.regex.Pattern.compile("정확히 (\\d+)개").matcher(prompt);
+            if (m.find()) count = Math.min(20, Integer.parseInt(m.group(1)));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 1; i <= count; i++) {
+                sb.append(i).append(". feat(core): 부하 테스트용 변경 사항 반영 ").append(i).append('\n');
+            }
+            return sb.toString();
+        }
+
+        // Ollama 토큰 크기와 비슷하게 3자 단위로 자름
+        private static List<String> tokens(String text) {
+            List<String> tokens = new ArrayList<>();
+            for (int i = 0; i < text.length(); i += 3) tokens.add(text.substring(i, Math.min(text.length(), i + 3)));
+            return tokens;
+        }
+
+        private static Map<String, Object> chunk(String content) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("model", MODEL);
+            m.put("created_at", Instant.now().toString());
+            m.put("message", Map.of("role", "assistant", "content", content));
+            m.put("done", false);
+            return m;
+        }
+
+        private static Map<String, Object> done(String content, long promptTokens, long promptNanos, long evalTokens, long evalNanos) {
+            Map<String, Object> m = chunk(content);
+            m.put("done", true);
+            m.put("done_reason", "stop");
+            m.put("total_duration", promptNanos + evalNanos);
+            m.put("load_duration", 0);
+            m.put("prompt_eval_count", promptTokens);
+            m.put("prompt_eval_duration", promptNanos);
+            m.put("eval_count", evalTokens);
+            m.put("eval_duration", evalNanos);
+            return m;
+        }
+
+        private static void json(HttpExchange ex, int status, Object body) throws IOException {
+            byte[] bytes = JSON.writeValueAsBytes(body);
+            ex.getResponseHeaders().set("Content-Type", "application/json");
+            ex.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private static void sleep(long nanos) throws InterruptedException {
+            if (nanos > 0) TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+
+    // ------------------------------------------------------------------ 서버 프로세스
+
+    static final class App implements AutoCloseable {
+        private final Process process;
+        private final int port;
+
+        private App(Process process, int port) {
+            this.process = process;
+            this.port = port;
+        }
+
+        static App start(Options o, int stubPort, Path repo) throws Exception {
+            File jar = findJar(o.string("jar", ""));
+            int port = freePort();
+            List<String> cmd = new ArrayList<>(List.of(
+                    javaBin(), "-jar", jar.getAbsolutePath(),
+                    "--server.port=" + port,
+                    "--spring.ai.ollama.base-url=http://127.0.0.1:" + stubPort,
+                    "--mcp.cache.enabled=" + o.string("cache", "true"),
+                    "--logging.level.org.springframework.ai=INFO",
+                    "--logging.level.org.springframework.boot.autoconfigure=INFO"));
+            String extra = o.string("app-args", "");
+            if (!extra.isBlank()) cmd.addAll(Arrays.asList(extra.trim().split("\\s+")));
+
+            Path log = Path.of("build/loadtest/app-" + port + ".log");
+            Files.createDirectories(log.toAbsolutePath().getParent());
+            ProcessBuilder pb = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(log.toFile());
+            pb.environment().put("GIT_WORK_DIR", repo.toString());
+            App app = new App(pb.start(), port);
+            app.awaitReady(log);
+            return app;
+        }
+
+        int port() {
+            return port;
+        }
+
+        private void awaitReady(Path log) throws Exception {
+            HttpClient http = HttpClient.newHttpClient();
+            long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) throw new IllegalStateException("서버 종료됨, 로그: " + log.toAbsolutePath());
+                try {
+                    HttpResponse<Void> r = http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/statusCheck")).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (r.statusCode() == 200) return;
+                } catch (IOException notYet) {
+                    // 아직 기동 중
+                }
+                Thread.sleep(500);
+            }
+            throw new IllegalStateException("서버 기동 시간 초과, 로그: " + log.toAbsolutePath());
+        }
+
+        private static File findJar(String configured) throws IOException {
+            if (!configured.isBlank()) return new File(configured);
+            for (Path dir : List.of(Path.of("build/libs"), Path.of("../build/libs"))) {
+                if (!Files.isDirectory(dir)) continue;
+                try (Stream<Path> files = Files.list(dir)) {
+                    var jar = files.filter(p -> p.toString().endsWith(".jar") && !p.toString().endsWith("-plain.jar")).findFirst();
+                    if (jar.isPresent()) return jar.get().toFile();
+                }
+            }
+            throw new IllegalStateException("서버 JAR이 없습니다. ./gradlew bootJar 후 다시 실행하거나 --jar= 로 지정하세요.");
+        }
+
+        private static String javaBin() {
+            return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        }
+
+        private static int freePort() throws IOException {
+            try (ServerSocket s = new ServerSocket(0)) {
+                return s.getLocalPort();
+            }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly();
+        }
+    }
+
+    // ------------------------------------------------------------------ 임시 git 저장소
+
+    /**
+     * files개 파일을 커밋한 뒤 합계 약 bytes만큼 고쳐서 stage (커밋 메시지 생성 대상)
+     */
+    static final class ScratchRepo implements AutoCloseable {
+        private final Path dir;
+
+        private ScratchRepo(Path dir) {
+            this.dir = dir;
+        }
+
+        static ScratchRepo create(int files, long bytes) throws IOException, InterruptedException {
+            ScratchRepo repo = new ScratchRepo(Files.createTempDirectory("loadtest-git-"));
+            repo.git("init", "-q");
+            repo.git("config", "user.email", "loadtest@example.com");
+            repo.git("config", "user.name", "loadtest");
+            long lines = Math.max(4, bytes / files / 64);
+            for (int f = 0; f < files; f++) repo.write(f, lines, false);
+            repo.git("add", "-A");
+            repo.git("commit", "-q", "-m", "initial");
+            for (int f = 0; f < files; f++) repo.write(f, lines, true);
+            repo.git("add", "-A");
+            return repo;
+        }
+
+        Path dir() {
+            return dir;
+        }
+
+        private void write(int file, long lines, boolean modified) throws IOException {
+            Path path = dir.resolve("src/main/java/com/example/module" + (file % 5) + "/Service" + file + ".java");
+            Files.createDirectories(path.getParent());
+            try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                w.write("public class Service" + file + " {\n");
+                for (long i = 0; i < lines; i++) {
+                    w.write(modified && i % 4 == 0
+                            ? "    long changed" + i + " = " + (i * 31 % 997) + "L; // 부하 테스트\n"
+                            : "    int value" + i + " = " + (i * 31 % 997) + ";\n");
+                }
+                w.write("}\n");
+            }
+        }
+
+        private void git(String... args) throws IOException, InterruptedException {
+            List<String> cmd = new ArrayList<>(List.of("git"));
+            cmd.addAll(List.of(args));
+            int exit = new ProcessBuilder(cmd).directory(dir.toFile()).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start().waitFor();
+            if (exit != 0) throw new IOException("git " + String.join(" ", args) + " 실패 (exit=" + exit + ")");
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ 옵션
+
+    record Options(Map<String, String> values) {
+        static Options parse(String... args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) throw new IllegalArgumentException("알 수 없는 인자: " + arg);
+                int eq = arg.indexOf('=');
+                values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+            }
+            return new Options(values);
+        }
+
+        String string(String key, String def) {
+            return values.getOrDefault(key, def);
+        }
+
+        int integer(String key, int def) {
+            return Integer.parseInt(string(key, String.valueOf(def)));
+        }
+
+        double decimal(String key, double def) {
+            return Double.parseDouble(string(key, String.valueOf(def)));
+        }
+
+        // "200ms", "30s", "2m"
+        Duration duration(String key, String def) {
+            String v = string(key, def).trim();
+            if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            return Duration.ofMillis(Long.parseLong(v));
+        }
+    }
+
+    // "8KB", "1MB", "512"
+    private static long parseBytes(String s) {
+        String v = s.toUpperCase();
+        if (v.endsWith("MB")) return Long.parseLong(v.substring(0, v.length() - 2)) * 1024 * 1024;
+        if (v.endsWith("KB")) return Long.parseLong(v.substring(0, v.length() - 2)) * 1024;
+        return Long.parseLong(v);
+    }
+}
@@ -0,0 +1,134 @@
+///usr/bin/env jbang "$0" "$@" ; exit $?
+//JAVA 21
+
+/*
+ * STDIO 실행 시 첫 도구 응답까지의 시간 측정 (./gradlew startupBenchmark).
+ * 변형마다 서버를 runs번 새로 띄워 MCP initialize → tools/call(기본 getTokenStats, Ollama 불필요)을 보내고
+ * 프로세스 시작부터 initialize 응답 / 첫 도구 응답까지의 시간을 잰다.
+ *
+ * 사용법 (java 소스 실행, 의존성 없음):
+ *   java integration-tests/StartupBenchmark.java --java=<java> [--runs=5] [--tool=getTokenStats] [--out=build/startup/report.json] \
+ *       -- <이름> <JVM/앱 인자...> -- <이름> <인자...>
+ *   예: ... -- baseline -jar build/libs/app.jar --spring.ai.mcp.server.stdio=true \
+ *           -- fast-start -XX:SharedArchiveFile=build/fast-start/app.jsa -jar build/fast-start/app.jar --spring.profiles.active=fast-start
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+public class StartupBenchmark {
+    private static final Pattern INIT_RESPONSE = Pattern.compile("\"id\"\\s*:\\s*1\\s*[,}]");
+    private static final Pattern TOOL_RESPONSE = Pattern.compile("\"id\"\\s*:\\s*2\\s*[,}]");
+    private static final long RUN_TIMEOUT_MS = 60_000;
+
+    record Variant(String name, List<String> args) {}
+
+    record Run(long initMillis, long firstToolMillis) {}
+
+    public static void main(String... args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<Variant> variants = new ArrayList<>();
+        List<String> current = null;
+        for (String arg : args) {
+            if (arg.equals("--")) {
+                current = new ArrayList<>();
+                variants.add(new Variant(null, current));
+            } else if (current == null) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                current.add(arg);
+            }
+        }
+        String java = options.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        String tool = options.getOrDefault("tool", "getTokenStats");
+        Path out = Path.of(options.getOrDefault("out", "build/startup/report.json"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+
+        StringBuilder json = new StringBuilder("{\n  \"tool\": \"" + tool + "\",\n  \"runs\": " + runs + ",\n  \"variants\": [");
+        System.out.printf("%-24s %10s %10s %10s %10s%n", "variant", "init p50", "tool p50", "tool min", "tool max");
+        String separator = "\n";
+        for (Variant raw : variants) {
+            Variant v = new Variant(raw.args().get(0), raw.args().subList(1, raw.args().size()));
+            List<Run> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                results.add(run(java, v, tool, out.toAbsolutePath().getParent().resolve(v.name() + "-" + i + ".log")));
+            }
+            long[] init = results.stream().mapToLong(Run::initMillis).sorted().toArray();
+            long[] first = results.stream().mapToLong(Run::firstToolMillis).sorted().toArray();
+            System.out.printf("%-24s %8d ms %8d ms %8d ms %8d ms%n", v.name(), init[init.length / 2], first[first.length / 2], first[0], first[first.length - 1]);
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "    {\"name\": \"%s\", \"initP50Millis\": %d, \"firstToolP50Millis\": %d, \"firstToolMinMillis\": %d, \"firstToolMaxMillis\": %d}",
+                    v.name(), init[init.length / 2], first[first.length / 2], first[0], first[first.length - 1]));
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+        Files.writeString(out, json);
+        System.out.println("보고서: " + out);
+    }
+
+    private static Run run(String java, Variant v, String tool, Path log) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        cmd.addAll(v.args());
+        long t0 = System.nanoTime();
+        Process p = new ProcessBuilder(cmd).redirectError(log.toFile()).start();
+        try (OutputStream stdin = p.getOutputStream();
+             BufferedReader stdout = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            // 서버가 뜨기 전에 보내도 파이프에 쌓였다가 transport가 읽는다
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":{\"protocolVersion\":\"2024-11-05\","
+                    + "\"capabilities\":{},\"clientInfo\":{\"name\":\"startup-benchmark\",\"version\":\"1.0\"}}}");
+            long init = awaitResponse(stdout, INIT_RESPONSE, p, v) - t0;
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}");
+            send(stdin, "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/call\",\"params\":{\"name\":\"" + tool + "\",\"arguments\":{}}}");
+            long first = awaitResponse(stdout, TOOL_RESPONSE, p, v) - t0;
+            return new Run(TimeUnit.NANOSECONDS.toMillis(init), TimeUnit.NANOSECONDS.toMillis(first));
+        } finally {
+            p.descendants().forEach(ProcessHandle::destroyForcibly);
+            p.destroyForcibly();
+            p.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void send(OutputStream stdin, String message) throws IOException {
+        stdin.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+    }
+
+    // JSON-RPC 외의 줄(로그 등)은 건너뛴다
+    private static long awaitResponse(BufferedReader stdout, Pattern response, Process p, Variant v) throws IOException {
+        Thread watchdog = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(RUN_TIMEOUT_MS);
+                p.destroyForcibly();
+            } catch (InterruptedException ignored) {
+                // 응답 도착
+            }
+        });
+        try {
+            String line;
+            while ((line = stdout.readLine()) != null) {
+                if (response.matcher(line).find()) {
+                    if (line.contains("\"error\"")) throw new IOException(v.name() + ": 오류 응답 " + line);
+                    return System.nanoTime();
+                }
+            }
+            throw new IOException(v.name() + ": 응답 전에 서버 종료 (exit=" + (p.isAlive() ? "?" : p.exitValue()) + ")");
+        } finally {
+            watchdog.interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.springframework.ai.mcp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.mcp.util.GitDiffParser;
+import org.springframework.ai.mcp.util.LineSplitter;
+import org.springframework.ai.mcp.util.SyntheticDiffs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 실행되는 diff 처리 경로: 바이트 → 줄(LineSplitter) → 스냅샷(SnapshotCollector, 기본 budget) → 프롬프트.
+ * bytes는 합성 diff 크기 (1KB ~ 100MB), layout은 파일 1개(single) 또는 최대 2000개(many).
+ * 100MB 입력은 -Xmx가 충분해야 함 (build.gradle jmh.jvmArgs).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitPipelineBenchmark {
+    // application.yml 기본값과 같은 budget
+    private static final DiffBudget BUDGET = new DiffBudget(262144, 6000, 800, 2000);
+
+    @Param({"1024", "1048576", "104857600"})
+    public long bytes;
+
+    @Param({"single", "many"})
+    public String layout;
+
+    private byte[] raw;
+    private String diff;
+    private RepositorySnapshot snapshot;
+    private CommitPromptBuilder hybrid;
+    private CommitPromptBuilder summary;
+
+    @Setup
+    public void setUp() {
+        diff = SyntheticDiffs.ofSize(bytes, SyntheticDiffs.fileCount(layout, bytes));
+        raw = diff.getBytes(StandardCharsets.UTF_8);
+        snapshot = collect();
+        GitDiffParser parser = new GitDiffParser();
+        hybrid = new CommitPromptBuilder(parser, "hybrid", 16384, 200);
+        summary = new CommitPromptBuilder(parser, "summary", 16384, 200);
+    }
+
+    @Benchmark
+    public long splitLines() {
+        long[] lines = {0};
+        try (LineSplitter out = new LineSplitter(line -> lines[0]++, BUDGET.maxLineBytes())) {
+            out.write(raw, 0, raw.length);
+        }
+        return lines[0];
+    }
+
+    @Benchmark
+    public RepositorySnapshot collectSnapshot() {
+        return collect();
+    }
+
+    @Benchmark
+    public List<String> summarizeFullDiff() {
+        return new GitDiffParser().summarize(diff);
+    }
+
+    @Benchmark
+    public String buildPromptHybrid() {
+        return hybrid.build(snapshot, 9);
+    }
+
+    @Benchmark
+    public String buildPromptSummary() {
+        return summary.build(snapshot, 9);
+    }
+
+    private RepositorySnapshot collect() {
+        SnapshotCollector collector = new SnapshotCollector(BUDGET, false);
+        try (LineSplitter out = new LineSplitter(collector, BUDGET.maxLineBytes())) {
+            out.write(raw, 0, raw.length);
+        }
+        return collector.build();
+    }
+}
@@ -0,0 +1,76 @@
+package org.springframework.ai.mcp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인스턴스 하나가 동시에 붙잡고 있을 수 있는 생성 요청 수: 플랫폼 스레드 풀 vs 가상 스레드.
+ * 요청 하나는 holdMillis 동안 블로킹(Ollama 응답 / git 프로세스 대기를 흉내)되고, inFlight개를 한꺼번에 넣어 모두 끝날 때까지 잰다.
+ * platform은 Tomcat 기본 max-threads(200)와 같은 고정 풀이라 inFlight가 200을 넘으면 대기 줄이 생겨 시간이 배수로 늘고,
+ * virtual은 요청마다 가상 스레드라 inFlight와 무관하게 holdMillis 근처에 머문다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InFlightCapacityBenchmark {
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"200", "1000", "5000"})
+    public int inFlight;
+
+    @Param({"500"})
+    public long holdMillis;
+
+    private ExecutorService pool;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = "virtual".equals(executor)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bench-", 0).factory())
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public void holdRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            pool.execute(() -> {
+                try {
+                    Thread.sleep(holdMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
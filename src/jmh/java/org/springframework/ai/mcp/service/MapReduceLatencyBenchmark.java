@@ -0,0 +1,71 @@
+package org.springframework.ai.mcp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.util.GitDiffParser;
+import org.springframework.ai.mcp.util.SyntheticDiffs;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커밋 메시지 생성 end-to-end 지연: 단일 프롬프트(raw diff 전체) vs map-reduce.
+ * LLM은 SimulatedChatModel(prompt-eval 2000 tok/s, 생성 50 tok/s, num_ctx 8192)로 대체하고
+ * timeScale 0.1로 실제 시간의 1/10로 축소해 실행한다. slots는 Ollama 병렬 슬롯 수이자 map 동시성.
+ * 단일 프롬프트가 num_ctx를 넘으면 잘린 입력으로 계산되므로 큰 diff에서는 지연이 아니라 품질 손실이 비용이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapReduceLatencyBenchmark {
+
+    @Param({"12", "48"})
+    public int files;
+
+    @Param({"1", "4"})
+    public int slots;
+
+    private RepositorySnapshot snapshot;
+    private CommitPromptBuilder promptBuilder;
+    private MapReduceSummarizer mapReduce;
+    private SimulatedChatModel chatModel;
+
+    @Setup
+    public void setUp() {
+        GitDiffParser parser = new GitDiffParser();
+        snapshot = RepositorySnapshot.fromUnifiedDiff(SyntheticDiffs.javaDiff(files, 4), true);
+        chatModel = new SimulatedChatModel(slots, 2000, 50, 8192, 0.1);
+        promptBuilder = new CommitPromptBuilder(parser, "raw", 16384, 200);
+        mapReduce = new MapReduceSummarizer(chatModel, parser, true, 0, 0, 12288, slots, Duration.ofMinutes(5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapReduce.shutdown();
+    }
+
+    @Benchmark
+    public String singlePrompt() {
+        return chatModel.call(new Prompt(promptBuilder.build(snapshot, 9))).getResult().getOutput().getText();
+    }
+
+    @Benchmark
+    public String mapReduce() {
+        String prompt = promptBuilder.buildReduce(snapshot, mapReduce.summarize(snapshot), 9);
+        return chatModel.call(new Prompt(prompt)).getResult().getOutput().getText();
+    }
+}
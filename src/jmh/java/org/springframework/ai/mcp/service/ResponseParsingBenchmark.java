@@ -0,0 +1,73 @@
+package org.springframework.ai.mcp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 응답 후처리: 번호 목록 파싱(한 번에 / 스트리밍 조각 단위)과 영어 응답 판별.
+ * suggestions는 응답 줄 수, lang은 한국어(ko) / 영어(en) 응답.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"3", "9", "50"})
+    public int suggestions;
+
+    @Param({"ko", "en"})
+    public String lang;
+
+    private String response;
+    private List<String> chunks;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("다음은 제안입니다:\n\n");
+        for (int i = 1; i <= suggestions; i++) {
+            sb.append(i).append(". ").append("ko".equals(lang)
+                    ? "feat(service): 커밋 메시지 생성 단계별 지연 측정 추가 " + i
+                    : "feat(service): add per-phase latency metrics for commit generation " + i).append('\n');
+        }
+        response = sb.toString();
+        // Ollama 스트리밍은 대략 토큰(2~6자) 단위 조각
+        chunks = new ArrayList<>();
+        for (int i = 0; i < response.length(); i += 4) {
+            chunks.add(response.substring(i, Math.min(response.length(), i + 4)));
+        }
+    }
+
+    @Benchmark
+    public List<String> parseNumbered() {
+        return LLMCommitMessageService.parseNumbered(response);
+    }
+
+    @Benchmark
+    public int parseStreaming() {
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+        int n = 0;
+        for (String chunk : chunks) n += parser.accept(chunk).size();
+        return n + parser.finish().size();
+    }
+
+    @Benchmark
+    public boolean looksEnglishDominant() {
+        return LLMCommitMessageService.looksEnglishDominant(response);
+    }
+}
@@ -0,0 +1,65 @@
+package org.springframework.ai.mcp.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 벤치마크용 Ollama 지연 모델.
+ * 응답 시간 = prompt-eval(입력 토큰 / evalTokensPerSec) + 생성(출력 토큰 / genTokensPerSec),
+ * 동시에 처리되는 요청은 slots개(OLLAMA_NUM_PARALLEL)로 제한되고 나머지는 대기한다.
+ * 입력이 numCtx 토큰을 넘으면 Ollama처럼 앞부분을 버린 것으로 보고 numCtx만큼만 계산한다.
+ */
+final class SimulatedChatModel implements ChatModel {
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final Semaphore slots;
+    private final double evalTokensPerSec;
+    private final double genTokensPerSec;
+    private final int numCtx;
+    private final double timeScale;
+
+    SimulatedChatModel(int slots, double evalTokensPerSec, double genTokensPerSec, int numCtx, double timeScale) {
+        this.slots = new Semaphore(slots, true);
+        this.evalTokensPerSec = evalTokensPerSec;
+        this.genTokensPerSec = genTokensPerSec;
+        this.numCtx = numCtx;
+        this.timeScale = timeScale;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String input = prompt.getContents();
+        // reduce/단일 프롬프트는 번호 목록, map 요약은 짧은 문장
+        boolean suggestions = input.contains("### 최종 출력 템플릿");
+        String output = suggestions ? suggestions(input) : "관련 서비스의 핸들러 메서드를 추가하고 사용하지 않는 메서드를 제거함";
+
+        int inTokens = Math.min(input.length() / CHARS_PER_TOKEN, numCtx);
+        int outTokens = suggestions ? 180 : 60;
+        double seconds = inTokens / evalTokensPerSec + outTokens / genTokensPerSec;
+
+        slots.acquireUninterruptibly();
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (seconds * timeScale * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            slots.release();
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(output))));
+    }
+
+    private static String suggestions(String input) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; input.contains(i + ". [커밋메시지]"); i++) {
+            sb.append(i).append(". feat(service): 핸들러 메서드 추가 및 정리\n");
+        }
+        return sb.toString();
+    }
+}
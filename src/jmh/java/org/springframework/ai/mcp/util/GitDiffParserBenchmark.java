@@ -0,0 +1,53 @@
+package org.springframework.ai.mcp.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GitDiffParser.summarize: 기존 구현(LegacyGitDiffParser) 대비 단일 패스 lexer 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitDiffParserBenchmark {
+
+    @Param({"1", "50", "1000"})
+    public int files;
+
+    @Param({"4"})
+    public int hunksPerFile;
+
+    private String diff;
+    private final GitDiffParser parser = new GitDiffParser();
+    private final LegacyGitDiffParser legacy = new LegacyGitDiffParser();
+
+    @Setup
+    public void setUp() {
+        diff = SyntheticDiffs.javaDiff(files, hunksPerFile);
+    }
+
+    @Benchmark
+    public List<String> legacySummarize() {
+        return legacy.summarize(diff);
+    }
+
+    @Benchmark
+    public List<String> summarize() {
+        return parser.summarize(diff);
+    }
+}
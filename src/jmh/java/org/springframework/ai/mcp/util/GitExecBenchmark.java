@@ -0,0 +1,81 @@
+package org.springframework.ai.mcp.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 임시 git 저장소에서 unstaged diff 수집: git 프로세스(execCapture / execStream) vs JGit in-process.
+ * bytes는 저장소 파일의 전체 크기, layout은 파일 1개(single) 또는 최대 2000개(many),
+ * modifiedShare는 그중 고친 파일의 비율 (0.01: 큰 저장소에서 몇 개 파일만 바뀐 흔한 경우, 변경 없는 파일은 stat만 비교).
+ * 저장소 생성은 trial마다 한 번 (100MB는 수 초 걸림).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitExecBenchmark {
+    private static final List<String> DIFF = List.of("diff");
+
+    @Param({"1024", "1048576", "104857600"})
+    public long bytes;
+
+    @Param({"single", "many"})
+    public String layout;
+
+    @Param({"1.0", "0.01"})
+    public double modifiedShare;
+
+    private ScratchGitRepo repo;
+    private AutoGitExecutor process;
+    private JGitDiffEngine jgit;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        repo = ScratchGitRepo.create(SyntheticDiffs.fileCount(layout, bytes), bytes, modifiedShare);
+        process = new AutoGitExecutor(repo.workTree());
+        jgit = new JGitDiffEngine(repo.workTree());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jgit.close();
+        repo.close();
+    }
+
+    @Benchmark
+    public String processCapture() throws IOException, InterruptedException {
+        return process.execCapture(DIFF);
+    }
+
+    @Benchmark
+    public long processStream() throws IOException, InterruptedException {
+        long[] lines = {0};
+        process.execStream(DIFF, 2000, line -> lines[0]++);
+        return lines[0];
+    }
+
+    @Benchmark
+    public long jgitStream() throws IOException {
+        long[] lines = {0};
+        try (LineSplitter out = new LineSplitter(line -> lines[0]++, 2000)) {
+            jgit.diff(false, out);
+        }
+        return lines[0];
+    }
+}
@@ -0,0 +1,485 @@
+package org.springframework.ai.mcp.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 단일 패스 lexer로 바꾸기 전의 GitDiffParser.summarize 구현 (벤치마크 비교 기준, 수정 금지)
+ */
+public class LegacyGitDiffParser {
+
+    private static final List<String> STRUCTURAL_EXTENSIONS = List.of(".java", ".kt", ".groovy", ".scala");
+
+    /**
+     * unified diff를 구조적 변경 목록으로 요약
+     * 예: "Foo.java: 메서드 추가 getName(String) (Foo)", "Foo.java: @Tool 추가 → method baz"
+     * 코드 파일이 아니면 파일별 +/- 줄 수만 남긴다.
+     */
+    public List<String> summarize(String diff) {
+        List<String> summary = new ArrayList<>();
+        if (diff == null || diff.isBlank()) return summary;
+
+        String[] lines = diff.split("\n", -1);
+        FileSummary file = null;
+        boolean inHunk = false;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.startsWith("diff --git")) {
+                if (file != null) file.appendTo(summary);
+                file = new FileSummary(extractFilePath(line));
+                inHunk = false;
+                continue;
+            }
+            if (file == null) continue;
+            if (line.startsWith("@@")) {
+                inHunk = true;
+                // hunk 헤더 뒤의 함수/클래스 문맥
+                int close = line.indexOf("@@", 2);
+                String header = close > 0 ? line.substring(close + 2) : "";
+                file.startHunk(header.contains("class ") ? extractClassName(header) : null);
+                continue;
+            }
+            if (!inHunk || line.isEmpty()) continue;
+
+            char sign = line.charAt(0);
+            if (sign != ' ' && sign != '+' && sign != '-') continue;
+            String code = line.substring(1);
+            String trimmed = code.trim();
+            boolean classDecl = trimmed.matches("(\\w+\\s+)*(class|interface|enum|record)\\s+\\w+.*");
+            String className = classDecl ? extractClassName(trimmed.replace("record ", "class ")) : null;
+            // 삭제된 줄은 새 파일의 중첩 구조에 영향을 주지 않음
+            if (sign != '-') file.track(className, code);
+            if (sign == ' ') continue;
+
+            boolean added = sign == '+';
+            if (added) file.added++;
+            else file.deleted++;
+            if (!file.structural) continue;
+
+            if (trimmed.isEmpty() || trimmed.startsWith("//") || trimmed.startsWith("*") || trimmed.startsWith("/*")) {
+                continue;
+            }
+            if (trimmed.startsWith("import ")) {
+                file.record(added, "import", extractImportName(trimmed));
+            } else if (trimmed.startsWith("@")) {
+                // 같은 줄에 코드가 이어지면(매개변수 어노테이션 등) 그 코드가 대상
+                String rest = annotationRemainder(trimmed);
+                String target = findAnnotationTarget(rest.isEmpty() ? followingCode(lines, i, 5) : List.of(rest));
+                if (!target.equals("unknown")) {
+                    file.record(added, "annotation", extractAnnotation(trimmed) + " → " + target);
+                }
+            } else if (classDecl) {
+                file.record(added, "class", className);
+            } else if (isDeclaration(trimmed) && isMethodSignature(trimmed)) {
+                String params = extractParameters(trimmed);
+                file.record(added, "method", extractMethodName(trimmed) + "(" + ("없음".equals(params) ? "" : params) + ")");
+            } else if (trimmed.matches("(private|public|protected)\\s+.*") && isFieldDeclaration(trimmed)) {
+                String field = extractFieldName(trimmed);
+                if (!field.isBlank() && !field.equals("unknown")) {
+                    file.record(added, "field", field);
+                }
+            }
+        }
+        if (file != null) file.appendTo(summary);
+        return summary;
+    }
+
+    /**
+     * 메서드 호출/제어문이 아닌 선언 형태인지 판단 (isMethodSignature 보조)
+     */
+    private boolean isDeclaration(String trimmed) {
+        if (trimmed.matches("(return|if|for|while|switch|catch|new|else|throw|synchronized|try|this|super)\\b.*")) {
+            return false;
+        }
+        if (trimmed.endsWith(";")) {
+            // 인터페이스/추상 메서드 선언은 ';'로 끝나지만 대입/호출이 아닌 경우만 허용
+            return !trimmed.contains("=") && !trimmed.contains(".") && trimmed.matches("[\\w<>\\[\\],?\\s]+\\s+\\w+\\s*\\(.*\\)\\s*;");
+        }
+        return trimmed.matches("[\\w<>\\[\\],?@.\\s]+\\s+\\w+\\s*\\(.*");
+    }
+
+    /**
+     * "@Name(args) 나머지" → "나머지"
+     */
+    private String annotationRemainder(String trimmed) {
+        int i = 1;
+        while (i < trimmed.length() && (Character.isJavaIdentifierPart(trimmed.charAt(i)) || trimmed.charAt(i) == '.')) i++;
+        if (i < trimmed.length() && trimmed.charAt(i) == '(') {
+            int depth = 0;
+            for (; i < trimmed.length(); i++) {
+                char c = trimmed.charAt(i);
+                if (c == '(') depth++;
+                else if (c == ')' && --depth == 0) {
+                    i++;
+                    break;
+                }
+            }
+        }
+        return i >= trimmed.length() ? "" : trimmed.substring(i).trim();
+    }
+
+    /**
+     * i번째 줄 이후의 코드 줄(diff 부호 제거) 최대 n개
+     */
+    private List<String> followingCode(String[] lines, int index, int n) {
+        List<String> result = new ArrayList<>();
+        for (int i = index + 1; i < lines.length && result.size() < n; i++) {
+            String line = lines[i];
+            if (line.startsWith("diff --git") || line.startsWith("@@")) break;
+            if (line.startsWith("-") || line.isEmpty() || line.substring(1).trim().startsWith("@")) continue;
+            result.add(line.substring(1));
+        }
+        return result;
+    }
+
+    /**
+     * 파일 하나의 구조적 변경 누적 (같은 이름이 추가/삭제 양쪽에 있으면 "변경"으로 합침)
+     */
+    private static final class FileSummary {
+        private static final Map<String, String> KIND_LABELS = Map.of(
+                "import", "import", "annotation", "어노테이션", "class", "클래스",
+                "method", "메서드", "field", "필드");
+
+        final String path;
+        final boolean structural;
+        final Map<String, Set<String>> addedByKind = new LinkedHashMap<>();
+        final Map<String, Set<String>> removedByKind = new LinkedHashMap<>();
+        // 현재 위치를 감싸는 클래스들 (이름, 선언 시점의 중괄호 깊이)
+        final Deque<Map.Entry<String, Integer>> scopes = new ArrayDeque<>();
+        String hunkClass;
+        int depth;
+        int added;
+        int deleted;
+
+        FileSummary(String path) {
+            this.path = path;
+            this.structural = STRUCTURAL_EXTENSIONS.stream().anyMatch(path::endsWith);
+        }
+
+        void startHunk(String headerClass) {
+            scopes.clear();
+            depth = 0;
+            hunkClass = headerClass;
+        }
+
+        /**
+         * 새 파일 기준 줄(+, 문맥)로 클래스 중첩 깊이 추적
+         */
+        void track(String declaredClass, String code) {
+            if (declaredClass != null && !declaredClass.equals("unknown")) {
+                scopes.push(Map.entry(declaredClass, depth));
+            }
+            for (int i = 0; i < code.length(); i++) {
+                char c = code.charAt(i);
+                if (c == '{') depth++;
+                else if (c == '}') {
+                    depth--;
+                    while (!scopes.isEmpty() && depth <= scopes.peek().getValue()) scopes.pop();
+                }
+            }
+        }
+
+        String currentClass() {
+            return scopes.isEmpty() ? hunkClass : scopes.peek().getKey();
+        }
+
+        void record(boolean isAdded, String kind, String name) {
+            String currentClass = currentClass();
+            String qualified = currentClass != null && ("method".equals(kind) || "field".equals(kind))
+                    ? name + " (" + currentClass + ")"
+                    : name;
+            (isAdded ? addedByKind : removedByKind).computeIfAbsent(kind, k -> new LinkedHashSet<>()).add(qualified);
+        }
+
+        void appendTo(List<String> out) {
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            int before = out.size();
+            for (String kind : KIND_LABELS.keySet().stream().sorted().toList()) {
+                Set<String> plus = addedByKind.getOrDefault(kind, Set.of());
+                Set<String> minus = removedByKind.getOrDefault(kind, Set.of());
+                String label = KIND_LABELS.get(kind);
+                for (String name : plus) {
+                    String verb = minus.contains(name) ? "변경" : "추가";
+                    out.add(fileName + ": " + label + " " + verb + " " + name);
+                }
+                for (String name : minus) {
+                    if (!plus.contains(name)) out.add(fileName + ": " + label + " 삭제 " + name);
+                }
+            }
+            if (out.size() == before) {
+                out.add(path + ": +" + added + "/-" + deleted + "줄");
+            }
+        }
+    }
+
+    /**
+     * 필드 선언인지 판단
+     */
+    private boolean isFieldDeclaration(String line) {
+        String trimmed = line.trim();
+        // 간단한 휴리스틱: 접근제어자 + 타입 + 변수명; 패턴
+        return trimmed.matches(".*(private|public|protected)\\s+\\w+\\s+\\w+.*;.*") ||
+                trimmed.matches(".*\\w+\\s+\\w+\\s*=.*;.*"); // 초기화 포함
+    }
+
+    /**
+     * 필드명 추출
+     */
+    private String extractFieldName(String line) {
+        // 정규식으로 필드명 추출
+        Pattern pattern = Pattern.compile("\\b(private|public|protected)?\\s*\\w+\\s+(\\w+)\\s*[=;]");
+        Matcher matcher = pattern.matcher(line.trim());
+
+        if (matcher.find()) {
+            return matcher.group(2);
+        }
+
+        // 단순 패턴으로 재시도
+        String[] parts = line.trim().split("\\s+");
+        for (int i = 0; i < parts.length - 1; i++) {
+            if (parts[i + 1].contains(";") || parts[i + 1].contains("=")) {
+                return parts[i + 1].replaceAll("[=;].*", "");
+            }
+        }
+
+        return "unknown";
+    }
+
+    /**
+     * 메서드 시그니처인지 판단
+     */
+    private boolean isMethodSignature(String line) {
+        // 간단한 휴리스틱: public/private + 메서드명 + 괄호
+        return line.matches(".*\\b(public|private|protected)\\s+.*\\w+\\s*\\([^)]*\\).*") ||
+                line.matches(".*\\w+\\s*\\([^)]*\\)\\s*\\{?.*"); // 접근제어자 없는 경우도
+    }
+
+    /**
+     * 메서드명 추출
+     */
+    private String extractMethodName(String line) {
+        // 정규식으로 메서드명 추출
+        Pattern pattern = Pattern.compile("\\b(\\w+)\\s*\\(");
+        Matcher matcher = pattern.matcher(line);
+
+        // 마지막으로 매칭되는 것이 메서드명 (반환타입이 앞에 있을 수 있음)
+        String methodName = "unknown";
+        while (matcher.find()) {
+            methodName = matcher.group(1);
+        }
+
+        return methodName;
+    }
+
+    /**
+     * 어노테이션 추출
+     */
+    private String extractAnnotation(String line) {
+        Pattern pattern = Pattern.compile("@(\\w+)");
+        Matcher matcher = pattern.matcher(line);
+
+        if (matcher.find()) {
+            return "@" + matcher.group(1);
+        }
+
+        return line.trim();
+    }
+
+    /**
+     * 컨텍스트에서 어노테이션들 추출
+     */
+    private List<String> extractAnnotationsFromContext(List<String> context) {
+        return context.stream()
+                .filter(line -> line.trim().startsWith("@"))
+                .map(this::extractAnnotation)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 어노테이션이 적용되는 대상 찾기 (다음 줄의 메서드나 클래스)
+     */
+    private String findAnnotationTarget(List<String> context) {
+        // 어노테이션 다음에 오는 첫 번째 의미있는 코드를 찾음
+        for (String line : context) {
+            if (isMethodSignature(line)) {
+                return "method " + extractMethodName(line);
+            }
+            if (line.contains("class ")) {
+                return "class " + extractClassName(line);
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * 특정 라인 주변의 컨텍스트 가져오기 (앞뒤 n줄)
+     */
+    private String getLineContext(String[] lines, int currentIndex, int contextSize) {
+        StringBuilder context = new StringBuilder();
+
+        int start = Math.max(0, currentIndex - contextSize);
+        int end = Math.min(lines.length, currentIndex + contextSize + 1);
+
+        for (int i = start; i < end; i++) {
+            if (i != currentIndex) {
+                context.append(lines[i]).append("\n");
+            }
+        }
+
+        return context.toString().trim();
+    }
+
+    /**
+     * Git diff에서 파일 경로 추출
+     * 예: "diff --git a/src/main/java/App.java b/src/main/java/App.java" → "src/main/java/App.java"
+     */
+    private String extractFilePath(String diffLine) {
+        // diff --git a/경로 b/경로 형식에서 파일 경로 추출
+        if (diffLine.startsWith("diff --git")) {
+            String[] parts = diffLine.split(" ");
+            if (parts.length >= 4) {
+                String bPath = parts[3]; // b/경로
+                return bPath.startsWith("b/") ? bPath.substring(2) : bPath;
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * 특정 라인 주변의 컨텍스트(앞뒤 라인들) 추출
+     */
+    private List<String> getContext(String[] lines, int currentIndex) {
+        List<String> context = new ArrayList<>();
+
+        // 현재 라인 기준으로 앞뒤 5줄씩 가져오기
+        int start = Math.max(0, currentIndex - 5);
+        int end = Math.min(lines.length, currentIndex + 6);
+
+        for (int i = start; i < end; i++) {
+            if (i != currentIndex) { // 현재 라인은 제외
+                context.add(lines[i]);
+            }
+        }
+
+        return context;
+    }
+
+    /**
+     * 메서드 상세 정보 생성
+     */
+    private List<String> createMethodDetails(String methodLine, List<String> annotations) {
+        List<String> details = new ArrayList<>();
+
+        // 메서드 시그니처 분석
+        String methodName = extractMethodName(methodLine);
+        details.add("메서드명: " + methodName);
+
+        // 접근 제어자 추출
+        if (methodLine.contains("public")) {
+            details.add("접근성: public");
+        } else if (methodLine.contains("private")) {
+            details.add("접근성: private");
+        } else if (methodLine.contains("protected")) {
+            details.add("접근성: protected");
+        }
+
+        // 반환 타입 추출
+        String returnType = extractReturnType(methodLine);
+        if (!returnType.equals("unknown")) {
+            details.add("반환타입: " + returnType);
+        }
+
+        // 매개변수 추출
+        String parameters = extractParameters(methodLine);
+        if (!parameters.isEmpty()) {
+            details.add("매개변수: " + parameters);
+        }
+
+        // 어노테이션 정보 추가
+        if (!annotations.isEmpty()) {
+            details.add("어노테이션: " + String.join(", ", annotations));
+        }
+
+        return details;
+    }
+
+    /**
+     * 메서드 시그니처에서 반환 타입 추출
+     */
+    private String extractReturnType(String methodLine) {
+        // 정규식으로 반환 타입 추출
+        // 예: "public String getName()" → "String"
+        Pattern pattern = Pattern.compile("\\b(public|private|protected)?\\s*(static)?\\s*([\\w<>\\[\\]]+)\\s+\\w+\\s*\\(");
+        Matcher matcher = pattern.matcher(methodLine.trim());
+
+        if (matcher.find()) {
+            String returnType = matcher.group(3);
+            // 생성자인 경우 제외
+            if (!returnType.equals("void") && !Character.isUpperCase(returnType.charAt(0))) {
+                return "unknown";
+            }
+            return returnType;
+        }
+
+        return "unknown";
+    }
+
+    /**
+     * 메서드 매개변수 추출
+     */
+    private String extractParameters(String methodLine) {
+        // 괄호 안의 매개변수 추출
+        int start = methodLine.indexOf('(');
+        int end = methodLine.lastIndexOf(')');
+
+        if (start != -1 && end != -1 && start < end) {
+            String params = methodLine.substring(start + 1, end).trim();
+            if (params.isEmpty()) {
+                return "없음";
+            }
+
+            // 매개변수 간단화 (타입만 추출)
+            return Arrays.stream(params.split(","))
+                    .map(param -> param.trim().split("\\s+")[0]) // 첫 번째 단어(타입)만
+                    .collect(Collectors.joining(", "));
+        }
+
+        return "";
+    }
+
+    // 기타 유틸리티 메서드들...
+    private String extractClassName(String line) {
+        Pattern pattern = Pattern.compile("\\b(class|interface|enum)\\s+(\\w+)");
+        Matcher matcher = pattern.matcher(line);
+        return matcher.find() ? matcher.group(2) : "unknown";
+    }
+
+    private String extractImportName(String line) {
+        return line.replace("import", "").replace(";", "").trim();
+    }
+
+    private String extractBeanType(String line, List<String> context) {
+        // Bean 반환 타입이나 ToolCallbackProvider 등을 추출
+        if (line.contains("ToolCallbackProvider")) return "ToolCallbackProvider";
+        if (line.contains("Provider")) return "Provider";
+
+        // 반환 타입에서 추출 시도
+        String returnType = extractReturnType(line);
+        if (!returnType.equals("unknown")) {
+            return returnType;
+        }
+
+        return "Bean";
+    }
+}
+
@@ -0,0 +1,96 @@
+package org.springframework.ai.mcp.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 벤치마크용 임시 git 저장소.
+ * files개 Java 파일(합계 약 bytes)을 커밋한 뒤 그중 modifiedShare 비율의 파일(최소 1개, 고르게 분산)에서
+ * 4줄 중 1줄을 고쳐 working tree에 unstaged 변경을 남긴다.
+ * close 시 디렉터리 전체 삭제.
+ */
+public final class ScratchGitRepo implements AutoCloseable {
+    private static final int LINE_BYTES = 64;
+
+    private final Path dir;
+
+    private ScratchGitRepo(Path dir) {
+        this.dir = dir;
+    }
+
+    public static ScratchGitRepo create(int files, long bytes) throws IOException, InterruptedException {
+        return create(files, bytes, 1.0);
+    }
+
+    public static ScratchGitRepo create(int files, long bytes, double modifiedShare) throws IOException, InterruptedException {
+        ScratchGitRepo repo = new ScratchGitRepo(Files.createTempDirectory("jmh-git-"));
+        long linesPerFile = Math.max(4, bytes / files / LINE_BYTES);
+        repo.git("init", "-q");
+        repo.git("config", "user.email", "bench@example.com");
+        repo.git("config", "user.name", "bench");
+        repo.git("config", "core.autocrlf", "false");
+        for (int f = 0; f < files; f++) repo.writeFile(f, linesPerFile, false);
+        // index가 파일보다 늦게 쓰여야 racy-clean으로 보고 안 바뀐 파일까지 내용 비교하지 않음
+        Thread.sleep(1100);
+        repo.git("add", "-A");
+        repo.git("commit", "-q", "-m", "initial");
+        int modified = (int) Math.min(files, Math.max(1, Math.ceil(files * modifiedShare)));
+        for (int i = 0; i < modified; i++) repo.writeFile((int) ((long) i * files / modified), linesPerFile, true);
+        return repo;
+    }
+
+    public File workTree() {
+        return dir.toFile();
+    }
+
+    private void writeFile(int file, long lines, boolean modified) throws IOException {
+        Path path = dir.resolve(SyntheticDiffs.path(file));
+        Files.createDirectories(path.getParent());
+        try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            w.write("public class Service" + file + " {\n");
+            for (long i = 0; i < lines; i++) {
+                // 한 줄 LINE_BYTES 바이트로 맞춤
+                String prefix = modified && i % 4 == 0 ? "    long changed" : "    int value";
+                String line = prefix + i + " = " + (i * 31 % 997) + ";";
+                w.write(line);
+                w.write(" ".repeat(Math.max(0, LINE_BYTES - 1 - line.length())));
+                w.write('\n');
+            }
+            w.write("}\n");
+        }
+    }
+
+    private void git(String... args) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add("git");
+        cmd.addAll(List.of(args));
+        Process p = new ProcessBuilder(cmd).directory(dir.toFile()).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        int exit = p.waitFor();
+        if (exit != 0) throw new IOException("git " + String.join(" ", args) + " 실패 (exit=" + exit + ")");
+    }
+
+    @Override
+    public void close() {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
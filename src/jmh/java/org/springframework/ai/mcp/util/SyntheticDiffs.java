@@ -0,0 +1,84 @@
+package org.springframework.ai.mcp.util;
+
+import java.util.Random;
+
+/**
+ * 벤치마크용 합성 unified diff 생성기 (seed 고정으로 항상 같은 입력)
+ */
+public final class SyntheticDiffs {
+
+    private SyntheticDiffs() {
+    }
+
+    /**
+     * files개 Java 파일, 파일당 hunks개 hunk로 이루어진 diff
+     */
+    public static String javaDiff(int files, int hunks) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int f = 0; f < files; f++) {
+            appendHeader(sb, f);
+            for (int h = 0; h < hunks; h++) {
+                appendHunk(sb, f, h, random);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 전체 크기가 약 bytes인 diff를 files개 파일에 고르게 나눔 (파일마다 hunk를 크기가 찰 때까지 추가)
+     */
+    public static String ofSize(long bytes, int files) {
+        Random random = new Random(42);
+        long perFile = Math.max(1, bytes / files);
+        StringBuilder sb = new StringBuilder((int) Math.min(bytes + 4096, Integer.MAX_VALUE - 16));
+        for (int f = 0; f < files; f++) {
+            int start = sb.length();
+            appendHeader(sb, f);
+            for (int h = 0; sb.length() - start < perFile; h++) {
+                appendHunk(sb, f, h, random);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 크기별 파일 수: "single"은 1개, "many"는 최대 2000개 (파일당 최소 512 bytes가 되도록 줄임)
+     */
+    public static int fileCount(String layout, long bytes) {
+        return "single".equals(layout) ? 1 : (int) Math.max(1, Math.min(2000, bytes / 512));
+    }
+
+    public static String path(int file) {
+        return "src/main/java/com/example/module" + (file % 17) + "/Service" + file + ".java";
+    }
+
+    private static void appendHeader(StringBuilder sb, int file) {
+        String path = path(file);
+        sb.append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+                .append("index 1234567..89abcde 100644\n")
+                .append("--- a/").append(path).append('\n')
+                .append("+++ b/").append(path).append('\n');
+    }
+
+    private static void appendHunk(StringBuilder sb, int file, int h, Random random) {
+        String cls = "Service" + file;
+        int line = 10 + h * 40;
+        sb.append("@@ -").append(line).append(",12 +").append(line).append(",14 @@ public class ")
+                .append(cls).append(" {\n")
+                .append("     private final Repository repository;\n")
+                .append("-    private int counter").append(h).append(";\n")
+                .append("+    private long counter").append(h).append(" = 0L;\n")
+                .append("+\n")
+                .append("+    @Tool(description = \"handler ").append(h).append("\")\n")
+                .append("+    public String handle").append(h).append("(String input, int retries) {\n")
+                .append("+        if (input == null) return \"\";\n")
+                .append("+        return repository.find(input).orElse(\"value").append(random.nextInt(1000)).append("\");\n")
+                .append("+    }\n")
+                .append("     \n")
+                .append("-    void legacy").append(h).append("() {\n")
+                .append("-        log.info(\"removed\");\n")
+                .append("-    }\n")
+                .append("     // unchanged context line ").append(h).append('\n');
+    }
+}
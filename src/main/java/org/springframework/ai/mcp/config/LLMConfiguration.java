@@ -1,56 +1,119 @@
 package org.springframework.ai.mcp.config;
 
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.mcp.service.LLMHealthMonitor;
+import org.springframework.ai.mcp.service.ModelWarmup;
+import org.springframework.ai.mcp.service.OllamaEndpointBalancer;
+import org.springframework.ai.mcp.service.RoutingChatModel;
+import org.springframework.ai.mcp.service.TokenTelemetry;
 import org.springframework.ai.ollama.OllamaChatModel;
 import org.springframework.ai.ollama.api.OllamaApi;
 import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.client.RestClient;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 public class LLMConfiguration {
-    @Value("${spring.ai.ollama.base-url}")
-    private String baseUrl;
-
     @Value("${spring.ai.ollama.chat.options.model}")
     private String model;
 
-    // Duration 형식으로 지정 가능: "120s", "5m" 등. 값이 없으면 합리적 기본값 사용
-    @Value("${spring.ai.ollama.http.connect-timeout:10s}")
-    private Duration connectTimeout;
+    // 보조 LLM (OpenAI 호환 API: llama.cpp server, vLLM, OpenAI 등)
+    @Value("${mcp.llm.secondary.enabled:false}")
+    private boolean secondaryEnabled;
+
+    @Value("${mcp.llm.secondary.base-url:http://localhost:8080}")
+    private String secondaryBaseUrl;
+
+    @Value("${mcp.llm.secondary.api-key:none}")
+    private String secondaryApiKey;
+
+    @Value("${mcp.llm.secondary.model:local-model}")
+    private String secondaryModel;
+
+    // 엔드포인트 부하 분산: 연속 실패 시 제외, 지연 EWMA
+    @Value("${mcp.balancer.eject-after:3}")
+    private int balancerEjectAfter;
+
+    @Value("${mcp.balancer.eject-duration:30s}")
+    private Duration balancerEjectDuration;
+
+    @Value("${mcp.balancer.ewma-alpha:0.3}")
+    private double balancerEwmaAlpha;
+
+    // 라우터: 전체 제한 시간, hedge, circuit breaker
+    @Value("${mcp.llm.deadline:120s}")
+    private Duration deadline;
+
+    @Value("${mcp.llm.stream-idle-timeout:90s}")
+    private Duration streamIdleTimeout;
+
+    @Value("${mcp.llm.hedge.enabled:true}")
+    private boolean hedgeEnabled;
 
-    @Value("${spring.ai.ollama.http.read-timeout:300s}")
-    private Duration readTimeout;
+    @Value("${mcp.llm.hedge.initial-delay:20s}")
+    private Duration hedgeInitialDelay;
 
-    @Value("${spring.ai.ollama.http.write-timeout:120s}")
-    private Duration writeTimeout;
+    @Value("${mcp.llm.hedge.min-delay:2s}")
+    private Duration hedgeMinDelay;
 
+    @Value("${mcp.llm.breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${mcp.llm.breaker.failure-rate:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${mcp.llm.breaker.min-calls:5}")
+    private int breakerMinCalls;
+
+    @Value("${mcp.llm.breaker.open-duration:30s}")
+    private Duration breakerOpenDuration;
+
+    /**
+     * Ollama 엔드포인트별 ChatModel을 묶은 부하 분산기 (base-url에 엔드포인트가 하나면 그대로 전달만 함)
+     */
     @Bean
-    public OllamaChatModel ollamaChatModel() {
+    public OllamaEndpointBalancer ollamaChatModel(OllamaEndpoints endpoints, OllamaHttpTransport transport,
+                                                  ModelWarmup modelWarmup, LLMHealthMonitor healthMonitor,
+                                                  TokenTelemetry telemetry) {
+        Map<OllamaEndpoints.Endpoint, ChatModel> models = new LinkedHashMap<>();
+        for (OllamaEndpoints.Endpoint endpoint : endpoints.list()) {
+            models.put(endpoint, ollamaChatModel(endpoint.url(), transport, modelWarmup));
+        }
+        OllamaEndpointBalancer.Settings settings = new OllamaEndpointBalancer.Settings(
+                balancerEjectAfter, balancerEjectDuration, balancerEwmaAlpha);
+        return new OllamaEndpointBalancer(models, healthMonitor, telemetry, model, settings);
+    }
+
+    private OllamaChatModel ollamaChatModel(String baseUrl, OllamaHttpTransport transport, ModelWarmup modelWarmup) {
         // 1) 요청 옵션(모델) 설정
         OllamaOptions ollamaOptions = new OllamaOptions();
         ollamaOptions.setModel(model);
         // 일관성 향상
         ollamaOptions.setTemperature(0.2);
+        // 요청마다 keep_alive를 보내야 Ollama 기본값(5m)으로 되돌아가지 않음
+        ollamaOptions.setKeepAlive(modelWarmup.keepAliveFor(model));
 
-        // 2) RestClient용 ClientHttpRequestFactory 구성 (블로킹)
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout((int) Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE));
-        factory.setReadTimeout((int) Math.min(readTimeout.toMillis(), Integer.MAX_VALUE));
-
+        // 2) RestClient(블로킹) / WebClient(스트리밍) 전송 계층 구성 (spring.ai.ollama.http.transport)
         RestClient.Builder builder = RestClient.builder();
         builder
                 .baseUrl(baseUrl)
-                .requestFactory(factory);
+                .requestFactory(transport.requestFactory());
 
-        // 3) OllamaApi에 커스텀 RestClient 주입
+        // 3) OllamaApi에 커스텀 RestClient/WebClient 주입
         OllamaApi ollamaApi = new OllamaApi.Builder()
                 .baseUrl(baseUrl)
                 .restClientBuilder( builder)
+                .webClientBuilder(transport.webClientBuilder())
                 .build();
 
         // 4) 최종 ChatModel 생성
@@ -61,4 +124,31 @@ public class LLMConfiguration {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * 서비스가 실제로 사용하는 ChatModel (Ollama + 선택적 보조 LLM, circuit breaker / hedging)
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public RoutingChatModel routingChatModel(OllamaEndpointBalancer ollamaChatModel) {
+        ChatModel secondary = null;
+        if (secondaryEnabled) {
+            OpenAiApi openAiApi = OpenAiApi.builder()
+                    .baseUrl(secondaryBaseUrl)
+                    .apiKey(secondaryApiKey)
+                    .build();
+            secondary = OpenAiChatModel.builder()
+                    .openAiApi(openAiApi)
+                    .defaultOptions(OpenAiChatOptions.builder()
+                            .model(secondaryModel)
+                            .temperature(0.2)
+                            .build())
+                    .build();
+        }
+
+        RoutingChatModel.Settings settings = new RoutingChatModel.Settings(
+                deadline, streamIdleTimeout, hedgeEnabled, hedgeInitialDelay, hedgeMinDelay,
+                breakerWindow, breakerFailureRate, breakerMinCalls, breakerOpenDuration);
+        return new RoutingChatModel("ollama", ollamaChatModel, "openai-compatible(" + secondaryModel + ")", secondary, settings);
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.springframework.ai.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * spring.ai.ollama.base-url에 지정된 Ollama 엔드포인트 목록.
+ * 쉼표로 여러 개를 지정할 수 있고 각 항목에 가중치와 제공 모델을 붙일 수 있다.
+ * <pre>
+ * base-url: http://gpu1:11434;weight=2, http://gpu2:11434;models=gemma3:12b-it-qat|llama3.1:8b
+ * </pre>
+ * models를 생략하면 /api/tags 결과(LLMHealthMonitor)로 모델 보유 여부를 판단한다.
+ */
+@Component
+public class OllamaEndpoints {
+
+    /**
+     * 엔드포인트 하나 (models가 비어 있으면 설정으로 제한하지 않음)
+     */
+    public record Endpoint(String url, int weight, Set<String> models) {
+        public boolean declares(String model) {
+            return models.isEmpty() || models.contains(model);
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+
+    public OllamaEndpoints(@Value("${spring.ai.ollama.base-url}") String baseUrl) {
+        this.endpoints = parse(baseUrl);
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("spring.ai.ollama.base-url에 엔드포인트가 없습니다");
+        }
+    }
+
+    public List<Endpoint> list() {
+        return endpoints;
+    }
+
+    public Endpoint first() {
+        return endpoints.get(0);
+    }
+
+    static List<Endpoint> parse(String spec) {
+        List<Endpoint> result = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(";");
+            String url = parts[0].trim().replaceAll("/+$", "");
+            if (url.isEmpty()) continue;
+            int weight = 1;
+            Set<String> models = new LinkedHashSet<>();
+            for (int i = 1; i < parts.length; i++) {
+                String option = parts[i].trim();
+                if (option.startsWith("weight=")) {
+                    weight = Math.max(1, Integer.parseInt(option.substring("weight=".length()).trim()));
+                } else if (option.startsWith("models=")) {
+                    for (String m : option.substring("models=".length()).split("\\|")) {
+                        if (!m.isBlank()) models.add(m.trim());
+                    }
+                } else if (!option.isEmpty()) {
+                    throw new IllegalArgumentException("알 수 없는 엔드포인트 옵션: " + option);
+                }
+            }
+            result.add(new Endpoint(url, weight, Set.copyOf(models)));
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,310 @@
+package org.springframework.ai.mcp.config;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Ollama API용 HTTP 전송 계층.
+ * pooled(기본값): 블로킹 호출은 Apache HttpClient 5 커넥션 풀, 스트리밍 호출은 Reactor Netty 커넥션 풀을 쓰며
+ * 두 풀 모두 엔드포인트당 최대 연결 수와 유휴 연결 정리 주기를 같은 설정으로 맞춘다.
+ * simple: 기존 HttpURLConnection 방식 (풀 제어/통계 없음)
+ * 시작 시 엔드포인트마다 prewarm-connections 개의 연결을 미리 열어 첫 도구 호출에서 TCP 연결 비용이 보이지 않게 한다.
+ * 풀에서 연결을 얻는 대기 한도(acquire-timeout)는 연결 수립 한도와 별개다. 풀이 꽉 차 있으면 앞선 생성이 끝나야
+ * 연결이 돌아오므로 기본값은 read-timeout이다.
+ * 연결 수립 시간: 블로킹 풀은 stats()의 connects/avgConnectMillis, 스트리밍 풀은 Reactor Netty 메트릭
+ * (reactor.netty.http.client.connect.time, Micrometer 전역 레지스트리)으로 남는다.
+ */
+@Slf4j
+@Component
+public class OllamaHttpTransport {
+
+    public enum Type { POOLED, SIMPLE }
+
+    private final Type type;
+    private final OllamaEndpoints endpoints;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration acquireTimeout;
+    private final int maxConnections;
+    private final Duration idleTimeout;
+    private final int prewarmConnections;
+
+    // 새 연결 수립 시간 (블로킹 풀 기준, https면 TLS 핸드셰이크 포함, 스트리밍 풀은 Reactor Netty 메트릭)
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong connectNanos = new AtomicLong();
+    private final AtomicLong maxConnectNanos = new AtomicLong();
+    // Reactor Netty 풀 상태 (원격 주소별)
+    private final Map<String, ConnectionPoolMetrics> streamingPools = new ConcurrentHashMap<>();
+
+    private PoolingHttpClientConnectionManager pool;
+    private IdleConnectionEvictor evictor;
+    private CloseableHttpClient httpClient;
+    private ConnectionProvider streamingProvider;
+
+    public OllamaHttpTransport(@Value("${spring.ai.ollama.http.transport:pooled}") String type,
+                               OllamaEndpoints endpoints,
+                               @Value("${spring.ai.ollama.http.connect-timeout:10s}") Duration connectTimeout,
+                               @Value("${spring.ai.ollama.http.read-timeout:300s}") Duration readTimeout,
+                               @Value("${spring.ai.ollama.http.acquire-timeout:${spring.ai.ollama.http.read-timeout:300s}}") Duration acquireTimeout,
+                               @Value("${spring.ai.ollama.http.max-connections:8}") int maxConnections,
+                               @Value("${spring.ai.ollama.http.idle-timeout:60s}") Duration idleTimeout,
+                               @Value("${spring.ai.ollama.http.prewarm-connections:2}") int prewarmConnections) {
+        this.type = Type.valueOf(type.trim().toUpperCase());
+        this.endpoints = endpoints;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.idleTimeout = idleTimeout;
+        this.prewarmConnections = Math.min(Math.max(0, prewarmConnections), this.maxConnections);
+    }
+
+    /**
+     * 풀 사용량 및 연결 수립 시간 통계
+     */
+    public record TransportStats(String transport,
+                                 int leased, int available, int pending, int maxConnections,
+                                 long connects, long connectFailures, double avgConnectMillis, double maxConnectMillis,
+                                 int streamingActive, int streamingIdle, int streamingPending) {}
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * RestClient용 (블로킹 호출: call, 상태 확인 등)
+     */
+    public synchronized ClientHttpRequestFactory requestFactory() {
+        if (type == Type.SIMPLE) {
+            SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+            factory.setConnectTimeout((int) Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE));
+            factory.setReadTimeout((int) Math.min(readTimeout.toMillis(), Integer.MAX_VALUE));
+            return factory;
+        }
+        return new HttpComponentsClientHttpRequestFactory(pooledClient());
+    }
+
+    /**
+     * WebClient용 (스트리밍 호출), simple이면 Spring 기본 커넥터 사용
+     */
+    public synchronized WebClient.Builder webClientBuilder() {
+        WebClient.Builder builder = WebClient.builder();
+        if (type == Type.SIMPLE) return builder;
+
+        if (streamingProvider == null) {
+            streamingProvider = ConnectionProvider.builder("ollama")
+                    .maxConnections(maxConnections)
+                    .maxIdleTime(idleTimeout)
+                    .evictInBackground(idleTimeout)
+                    .pendingAcquireTimeout(acquireTimeout)
+                    .metrics(true, () -> (poolName, id, remoteAddress, metrics) ->
+                            streamingPools.put(String.valueOf(remoteAddress), metrics))
+                    .build();
+        }
+        HttpClient nettyClient = HttpClient.create(streamingProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE))
+                // 연결 수립/TLS/응답 시간 메트릭 (Ollama API 경로는 몇 개뿐이라 uri 태그를 그대로 씀)
+                .metrics(true, Function.identity())
+                .keepAlive(true);
+        return builder.clientConnector(new ReactorClientHttpConnector(nettyClient));
+    }
+
+    private synchronized CloseableHttpClient pooledClient() {
+        if (httpClient != null) return httpClient;
+
+        pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(DefaultClientTlsStrategy.createDefault())
+                // 엔드포인트(route)마다 maxConnections, 전체는 엔드포인트 수만큼
+                .setMaxConnTotal(maxConnections * endpoints.list().size())
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoKeepAlive(true)
+                        .build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        // HttpClientBuilder.evictIdleConnections는 ConnPoolControl인 매니저에만 동작하므로 (TimedConnectionManager는 아님) 직접 실행
+        evictor = new IdleConnectionEvictor(pool, TimeValue.of(idleTimeout), TimeValue.of(idleTimeout));
+        evictor.start();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(new TimedConnectionManager(pool))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout)) // 풀이 꽉 찼을 때 대기 한도
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        return httpClient;
+    }
+
+    /**
+     * 시작 직후 연결을 미리 열어 둠 (Ollama가 아직 떠 있지 않으면 경고만 남김)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (type == Type.SIMPLE || prewarmConnections == 0) return;
+        Thread t = new Thread(this::doPrewarm, "ollama-prewarm");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void doPrewarm() {
+        for (OllamaEndpoints.Endpoint endpoint : endpoints.list()) {
+            prewarm(endpoint.url());
+        }
+    }
+
+    private void prewarm(String baseUrl) {
+        long t0 = System.nanoTime();
+        String url = baseUrl + "/api/version";
+        try {
+            // 동시에 요청해야 서로 다른 연결이 열림
+            CloseableHttpClient client = pooledClient();
+            Flux.range(0, prewarmConnections)
+                    .flatMap(i -> Mono.fromCallable(() ->
+                                    client.execute(new HttpGet(url), response -> {
+                                        EntityUtils.consume(response.getEntity());
+                                        return response.getCode();
+                                    }))
+                            .subscribeOn(Schedulers.boundedElastic()), prewarmConnections)
+                    .blockLast(connectTimeout.multipliedBy(2));
+            WebClient webClient = webClientBuilder().baseUrl(baseUrl).build();
+            Flux.range(0, prewarmConnections)
+                    .flatMap(i -> webClient.get().uri("/api/version").retrieve().toBodilessEntity(), prewarmConnections)
+                    .blockLast(connectTimeout.multipliedBy(2));
+            log.info("[OllamaHttpTransport] {} 연결 {}개 미리 열림 - 소요시간: {} ms, {}",
+                    baseUrl, prewarmConnections, Duration.ofNanos(System.nanoTime() - t0).toMillis(), stats());
+        } catch (Exception e) {
+            log.warn("[OllamaHttpTransport] 연결 미리 열기 실패 ({}): {}", url, e.toString());
+        }
+    }
+
+    public TransportStats stats() {
+        int leased = 0, available = 0, pending = 0;
+        PoolingHttpClientConnectionManager p = pool;
+        if (p != null) {
+            PoolStats total = p.getTotalStats();
+            leased = total.getLeased();
+            available = total.getAvailable();
+            pending = total.getPending();
+        }
+        int active = 0, idle = 0, waiting = 0;
+        for (ConnectionPoolMetrics m : streamingPools.values()) {
+            active += m.acquiredSize();
+            idle += m.idleSize();
+            waiting += m.pendingAcquireSize();
+        }
+        long n = connects.get();
+        return new TransportStats(type.name().toLowerCase(),
+                leased, available, pending, maxConnections,
+                n, connectFailures.get(),
+                n == 0 ? 0 : connectNanos.get() / (double) n / 1_000_000, maxConnectNanos.get() / 1_000_000.0,
+                active, idle, waiting);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (evictor != null) evictor.shutdown();
+        if (httpClient != null) httpClient.close();
+        if (streamingProvider != null) streamingProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * 풀이 새 연결을 맺을 때마다(connect) 연결 수립 시간을 기록하는 래퍼, 나머지는 그대로 위임
+     */
+    private final class TimedConnectionManager implements HttpClientConnectionManager {
+        private final HttpClientConnectionManager delegate;
+
+        TimedConnectionManager(HttpClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            return delegate.lease(id, route, requestTimeout, state);
+        }
+
+        @Override
+        public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+            long t0 = System.nanoTime();
+            try {
+                delegate.connect(endpoint, timeout, context);
+                long took = System.nanoTime() - t0;
+                connects.incrementAndGet();
+                connectNanos.addAndGet(took);
+                maxConnectNanos.accumulateAndGet(took, Math::max);
+            } catch (IOException e) {
+                connectFailures.incrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+            delegate.upgrade(endpoint, context);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
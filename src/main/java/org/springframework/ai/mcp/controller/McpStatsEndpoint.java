@@ -0,0 +1,65 @@
+package org.springframework.ai.mcp.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.mcp.config.OllamaHttpTransport;
+import org.springframework.ai.mcp.service.GitRepositories;
+import org.springframework.ai.mcp.service.ModelWarmup;
+import org.springframework.ai.mcp.service.OllamaEndpointBalancer;
+import org.springframework.ai.mcp.service.RoutingChatModel;
+import org.springframework.ai.mcp.service.TokenTelemetry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 서버 내부 상태 스냅샷 (actuator: GET /actuator/mcp, 항목 하나만은 /actuator/mcp/{section}).
+ * 시계열로 볼 값은 Micrometer 메트릭(/actuator/prometheus)에 있고, 여기는 breaker 상태나 활성 저장소 목록처럼
+ * 지금 이 순간의 상태를 보는 용도다.
+ */
+@Component
+@Endpoint(id = "mcp")
+@RequiredArgsConstructor
+public class McpStatsEndpoint {
+    private final OllamaHttpTransport ollamaHttpTransport;
+    private final ModelWarmup modelWarmup;
+    private final RoutingChatModel routingChatModel;
+    private final OllamaEndpointBalancer ollamaEndpointBalancer;
+    private final TokenTelemetry tokenTelemetry;
+    private final GitRepositories gitRepositories;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        sections().forEach((name, section) -> stats.put(name, section.get()));
+        return stats;
+    }
+
+    // 없는 항목이면 null → 404
+    @ReadOperation
+    public Object section(@Selector String section) {
+        Supplier<Object> supplier = sections().get(section);
+        return supplier == null ? null : supplier.get();
+    }
+
+    private Map<String, Supplier<Object>> sections() {
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        // Ollama 커넥션 풀 사용량 / 연결 수립 시간
+        sections.put("transport", ollamaHttpTransport::stats);
+        // 모델 예열/keep-alive 및 콜드/웜 생성 지연
+        sections.put("warmup", modelWarmup::stats);
+        // LLM 제공자별 circuit breaker 상태, p95, hedge 횟수
+        sections.put("router", routingChatModel::stats);
+        // Ollama 엔드포인트별 진행 중 요청 수, 지연 EWMA, 제외 여부
+        sections.put("endpoints", ollamaEndpointBalancer::stats);
+        // 모델별 토큰 수, 초당 생성 토큰, 첫 토큰 지연, 모델 재로딩
+        sections.put("tokens", tokenTelemetry::getTokenStats);
+        // 활성 저장소, 경로 해석 캐시, 정리(eviction) 횟수
+        sections.put("repositories", gitRepositories::stats);
+        return sections;
+    }
+}
@@ -1,26 +1,97 @@
 package org.springframework.ai.mcp.controller;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.mcp.service.LLMCommitMessageService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class controller {
     private final LLMCommitMessageService llmCommitMessageService;
 
+    // SSE 응답 생성용 (요청 스레드를 붙잡지 않도록 별도 스레드에서 LLM 호출)
+    private final ExecutorService streamPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("commit-stream-", 0).factory());
+
+    // full=true일 때만 실제 테스트 생성, 기본은 캐시된 상태 (로드밸런서/IDE 폴링용)
     @GetMapping("/statusCheck")
-    public ResponseEntity<String> statusCheck() {
-        String checked = llmCommitMessageService.checkLLMConnection();
+    public ResponseEntity<String> statusCheck(@RequestParam(defaultValue = "false") boolean full) {
+        String checked = full
+                ? llmCommitMessageService.checkLLMGeneration()
+                : llmCommitMessageService.checkLLMConnection();
         return ResponseEntity.ok(checked);
     }
 
+    // timings=true면 단계별 소요 시간(ms)을 응답에 포함, repositoryPath가 없으면 서버의 기본 저장소
     @GetMapping("/commit")
-    public ResponseEntity<LLMCommitMessageService.CommitSuggestionResponse> commit() {
+    public ResponseEntity<LLMCommitMessageService.CommitSuggestionResponse> commit(@RequestParam(required = false) Boolean timings,
+                                                                                  @RequestParam(required = false) String repositoryPath) {
         LLMCommitMessageService.CommitSuggestionRequest commitSuggestionRequest
-                = new LLMCommitMessageService.CommitSuggestionRequest(9, false);
+                = new LLMCommitMessageService.CommitSuggestionRequest(9, false, timings, repositoryPath);
         return ResponseEntity.ok(llmCommitMessageService.generateCommitMessage(commitSuggestionRequest));
     }
+
+    /**
+     * /commit 의 스트리밍 버전 (Server-Sent Events)
+     * suggestion: 제안 하나가 완성될 때마다 {index, message}
+     * reset     : 한국어 규칙 위반으로 다시 생성, 이전 suggestion 이벤트는 무시
+     * done      : 최종 CommitSuggestionResponse
+     */
+    @GetMapping(path = "/commit/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter commitStream(@RequestParam(required = false) Boolean timings,
+                                   @RequestParam(required = false) String repositoryPath) {
+        SseEmitter emitter = new SseEmitter(0L); // LLM 응답 시간은 예측 불가, 타임아웃 없음
+        LLMCommitMessageService.CommitSuggestionRequest commitSuggestionRequest
+                = new LLMCommitMessageService.CommitSuggestionRequest(9, false, timings, repositoryPath);
+
+        streamPool.execute(() -> {
+            try {
+                LLMCommitMessageService.CommitSuggestionResponse response =
+                        llmCommitMessageService.generateCommitMessage(commitSuggestionRequest, new LLMCommitMessageService.SuggestionListener() {
+                            @Override
+                            public void onSuggestion(int index, String message) {
+                                send(emitter, "suggestion", Map.of("index", index, "message", message));
+                            }
+
+                            @Override
+                            public void onReset() {
+                                send(emitter, "reset", Map.of());
+                            }
+                        });
+                send(emitter, "done", response);
+                emitter.complete();
+            } catch (Exception e) {
+                // 클라이언트 연결 끊김 등 → 생성 중단
+                log.debug("[controller] /commit/stream 중단: {}", e.toString());
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamPool.shutdownNow();
+    }
 }
@@ -1,7 +1,9 @@
 package org.springframework.ai.mcp.server;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
@@ -11,16 +13,39 @@ import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Optional;
 
 @SpringBootApplication
+@Slf4j
 @ComponentScan(basePackages = {"org.springframework.ai.mcp"})
 public class McpServerApplication {
     public static void main(String[] args) {
+        // MCP 동기 도구 호출은 Reactor boundedElastic에서 실행됨 → 가상 스레드로 (Reactor 3.6+, JDK 21)
+        if (System.getProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads") == null) {
+            System.setProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads", "true");
+        }
         SpringApplication.run(McpServerApplication.class, args);
     }
 
+    /**
+     * 도구 등록. 기본은 컴파일 시 생성된 목록(generated), 목록이 없거나 mcp.tools.registry=scan이면 빈 전체 스캔.
+     * 등록 소요 시간을 로그로 남긴다 (scan과 비교용).
+     */
     @Bean
-    public ToolCallbackProvider toolCallbacks(ApplicationContext ctx) {
+    public ToolCallbackProvider toolCallbacks(ApplicationContext ctx, @Value("${mcp.tools.registry:generated}") String registry) {
+        long start = System.nanoTime();
+        Optional<List<ToolRegistry.Entry>> generated = "scan".equalsIgnoreCase(registry) ? Optional.empty() : ToolRegistry.generated();
+        ToolCallbackProvider provider = generated
+                .map(entries -> ToolCallbackProvider.from(ToolRegistry.callbacks(entries, ctx)))
+                .orElseGet(() -> scanToolBeans(ctx));
+        // MethodToolCallbackProvider는 도구를 지연 생성하므로 여기서 만들어 시간에 포함
+        int count = provider.getToolCallbacks().length;
+        log.info("[McpServerApplication] 도구 {}개 등록 ({}) - {} ms", count, generated.isPresent() ? "generated" : "scan",
+                (System.nanoTime() - start) / 1_000_000);
+        return provider;
+    }
+
+    private ToolCallbackProvider scanToolBeans(ApplicationContext ctx) {
         // 모든 빈 중 @Tool 메서드를 1개 이상 가진 빈 자동 수집
         List<Object> toolBeans = ctx.getBeansOfType(Object.class).values().stream()
                 .filter(this::hasToolAnnotatedMethod)
@@ -0,0 +1,66 @@
+package org.springframework.ai.mcp.server;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.tool.method.MethodToolCallback;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 컴파일 시 ToolRegistryProcessor가 생성한 도구 목록(GeneratedToolRegistry)으로 ToolCallback을 만든다.
+ * 싱글턴 빈은 어차피 시작 시 모두 생성되므로, 줄어드는 것은 모든 빈을 getBeansOfType(Object.class)로 꺼내
+ * getMethods() reflection으로 @Tool을 찾는 과정이다. 도구 정의(이름, 설명, 입력 스키마)는
+ * MethodToolCallbackProvider와 같은 Spring AI 메서드로 만든다.
+ */
+final class ToolRegistry {
+    static final String GENERATED = "org.springframework.ai.mcp.server.GeneratedToolRegistry";
+
+    private ToolRegistry() {}
+
+    /**
+     * 생성된 도구 항목 (@Tool 메서드 위치)
+     */
+    record Entry(Class<?> beanType, String methodName, List<Class<?>> parameterTypes) {}
+
+    /**
+     * 생성된 목록. annotation processor 없이 컴파일된 경우(IDE 등) empty
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<List<Entry>> generated() {
+        try {
+            Class<?> registry = Class.forName(GENERATED, true, ToolRegistry.class.getClassLoader());
+            Method tools = registry.getDeclaredMethod("tools");
+            tools.setAccessible(true);
+            return Optional.of((List<Entry>) tools.invoke(null));
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("생성된 도구 목록을 읽을 수 없음: " + GENERATED, e);
+        }
+    }
+
+    static ToolCallback[] callbacks(List<Entry> entries, ApplicationContext ctx) {
+        return entries.stream().map(entry -> callback(entry, ctx)).toArray(ToolCallback[]::new);
+    }
+
+    private static ToolCallback callback(Entry entry, ApplicationContext ctx) {
+        Method method = ReflectionUtils.findMethod(entry.beanType(), entry.methodName(), entry.parameterTypes().toArray(Class<?>[]::new));
+        if (method == null) {
+            // 생성 후 소스가 바뀌었는데 다시 컴파일되지 않은 경우
+            throw new IllegalStateException("도구 메서드를 찾을 수 없음: " + entry.beanType().getName() + "." + entry.methodName());
+        }
+        return MethodToolCallback.builder()
+                .toolDefinition(ToolDefinitions.from(method))
+                .toolMetadata(ToolMetadata.from(method))
+                .toolMethod(method)
+                .toolObject(ctx.getBean(entry.beanType()))
+                .toolCallResultConverter(ToolUtils.getToolCallResultConverter(method))
+                .build();
+    }
+}
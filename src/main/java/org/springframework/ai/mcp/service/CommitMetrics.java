@@ -0,0 +1,125 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 커밋 메시지 생성 파이프라인 단계별 지연 / 결과 카운터 (Micrometer, /actuator/prometheus).
+ * - commit.phase{phase=snapshot|cache|map|context|prompt|llm|retry|parse}: 단계별 소요 시간 히스토그램
+ * - commit.request{outcome=llm|cache|joined|empty|fallback|error}: 요청 전체 소요 시간
+ * - commit.first_suggestion: 첫 제안까지 걸린 시간 (스트리밍이면 조기 전달 시점)
+ * - commit.retries{reason}, commit.fallbacks{reason}, commit.empty_diffs
+ */
+@Component
+public class CommitMetrics {
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(5);
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Timer firstSuggestion;
+    private final Counter emptyDiffs;
+
+    public CommitMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.firstSuggestion = histogram(Timer.builder("commit.first_suggestion")
+                .description("첫 커밋 메시지 제안까지 걸린 시간"));
+        this.emptyDiffs = Counter.builder("commit.empty_diffs")
+                .description("변경사항이 없어 생성하지 않은 요청 수")
+                .register(registry);
+    }
+
+    /**
+     * 요청 하나의 단계 측정 시작
+     */
+    public Phases start() {
+        return new Phases();
+    }
+
+    public void retry(String reason) {
+        registry.counter("commit.retries", "reason", reason).increment();
+    }
+
+    public void fallback(String reason) {
+        registry.counter("commit.fallbacks", "reason", reason).increment();
+    }
+
+    public void emptyDiff() {
+        emptyDiffs.increment();
+    }
+
+    public void firstSuggestion(Duration elapsed) {
+        firstSuggestion.record(elapsed);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return phaseTimers.computeIfAbsent(phase, p -> histogram(Timer.builder("commit.phase")
+                .description("커밋 메시지 생성 단계별 소요 시간")
+                .tag("phase", p)));
+    }
+
+    private Timer requestTimer(String outcome) {
+        return requestTimers.computeIfAbsent(outcome, o -> histogram(Timer.builder("commit.request")
+                .description("커밋 메시지 생성 요청 전체 소요 시간")
+                .tag("outcome", o)));
+    }
+
+    // SLO 설정용 Prometheus 히스토그램 버킷 + 주요 백분위수
+    private Timer histogram(Timer.Builder builder) {
+        return builder
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+    }
+
+    /**
+     * 요청 하나의 단계별 측정값. 같은 단계가 여러 번 실행되면 합산한다.
+     * 한 요청은 한 스레드에서 순서대로 진행되므로 동기화하지 않는다.
+     */
+    public final class Phases {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Long> nanos = new LinkedHashMap<>();
+
+        public long startNanos() {
+            return startNanos;
+        }
+
+        public <T> T time(String phase, Supplier<T> work) {
+            long t0 = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                record(phase, System.nanoTime() - t0);
+            }
+        }
+
+        public void record(String phase, long elapsedNanos) {
+            phaseTimer(phase).record(Duration.ofNanos(elapsedNanos));
+            nanos.merge(phase, elapsedNanos, Long::sum);
+        }
+
+        /**
+         * 요청 종료: 전체 시간을 outcome 태그로 기록하고 단계별 ms(마지막에 total)를 반환
+         */
+        public Map<String, Long> finish(String outcome) {
+            long total = System.nanoTime() - startNanos;
+            requestTimer(outcome).record(Duration.ofNanos(total));
+            Map<String, Long> millis = new LinkedHashMap<>();
+            nanos.forEach((phase, n) -> millis.put(phase, n / 1_000_000));
+            millis.put("total", total / 1_000_000);
+            return Collections.unmodifiableMap(millis);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.springframework.ai.mcp.service;
+
+import org.springframework.ai.mcp.util.GitDiffParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 커밋 메시지 생성용 프롬프트 구성.
+ * mode에 따라 raw diff, 구조적 요약(GitDiffParser.summarize), 또는 둘 다(hybrid)를 넣는다.
+ * 프롬프트 토큰 수가 곧 Ollama prompt-eval 시간이므로 기본값은 요약 + 짧은 raw diff(hybrid)이다.
+ */
+@Component
+public class CommitPromptBuilder {
+
+    public enum Mode { RAW, SUMMARY, HYBRID }
+
+    // 프롬프트 문구를 바꾸면 올려서 이전 템플릿으로 만든 캐시 항목이 재사용되지 않게 한다
+    private static final int TEMPLATE_VERSION = 1;
+
+    private final GitDiffParser diffParser;
+    private final Mode mode;
+    private final int hybridDiffBytes;
+    private final int maxSummaryLines;
+
+    public CommitPromptBuilder(GitDiffParser diffParser,
+                               @Value("${mcp.prompt.mode:hybrid}") String mode,
+                               @Value("${mcp.prompt.hybrid-diff-bytes:16384}") int hybridDiffBytes,
+                               @Value("${mcp.prompt.max-summary-lines:200}") int maxSummaryLines) {
+        this.diffParser = diffParser;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.hybridDiffBytes = hybridDiffBytes;
+        this.maxSummaryLines = maxSummaryLines;
+    }
+
+    /**
+     * 캐시 키에 들어가는 템플릿 식별자 (문구 버전 + 프롬프트 구성 설정)
+     */
+    public String templateVersion() {
+        return "v" + TEMPLATE_VERSION + "/" + mode + "/" + hybridDiffBytes + "/" + maxSummaryLines;
+    }
+
+    public String build(RepositorySnapshot snapshot, int maxSuggestions) {
+        return build(snapshot, List.of(), maxSuggestions);
+    }
+
+    /**
+     * hunkContext: hunk별 위치와 감싸는 클래스/메서드 (HunkContextCollector.collect)
+     */
+    public String build(RepositorySnapshot snapshot, List<String> hunkContext, int maxSuggestions) {
+        StringBuilder prompt = new StringBuilder();
+        appendHeader(prompt, "아래 git diff 내역을", maxSuggestions);
+        appendFiles(prompt, snapshot);
+
+        if (mode != Mode.RAW) {
+            appendSummary(prompt, diffParser.summarize(snapshot.diff()));
+        }
+        appendHunkContext(prompt, hunkContext);
+        if (mode != Mode.SUMMARY) {
+            appendDiff(prompt, snapshot);
+        }
+
+        appendTemplate(prompt, maxSuggestions);
+        return prompt.toString();
+    }
+
+    /**
+     * map-reduce의 reduce 단계 프롬프트. diff 대신 모듈별 요약(MapReduceSummarizer.summarize)을 넣는다.
+     */
+    public String buildReduce(RepositorySnapshot snapshot, List<String> chunkSummaries, int maxSuggestions) {
+        StringBuilder prompt = new StringBuilder();
+        appendHeader(prompt, "아래 모듈별 변경 요약을", maxSuggestions);
+        appendFiles(prompt, snapshot);
+
+        prompt.append("### 모듈별 변경 요약\n");
+        for (String summary : chunkSummaries) {
+            prompt.append("- ").append(summary).append("\n");
+        }
+        prompt.append("\n");
+
+        appendTemplate(prompt, maxSuggestions);
+        return prompt.toString();
+    }
+
+    private void appendHeader(StringBuilder prompt, String subject, int maxSuggestions) {
+        prompt.append("당신은 뛰어난 개발자이자 Git 커밋 메시지 전문가입니다. ")
+                .append(subject).append(" 분석해 Conventional Commits 규칙을 따르는 커밋 메시지 후보를 생성하십시오.\n\n");
+
+        prompt.append("아래 지시를 100% 준수해야만 합니다.\n");
+        prompt.append("### 반드시 지켜야 할 규칙\n")
+                .append("- 형식: type(scope?): description\n")
+                .append("- type: feat, fix, docs, style, refactor, test, chore 중에서만 선택\n")
+                .append("- description은 100% 한국어, 명령형/현재 시제, 12~60자, 마침표(.) 금지\n")
+                .append("- 한국어가 아닌 출력은 무효로 간주하고 즉시 한국어로만 다시 작성\n")
+                .append("- 정확히 ").append(maxSuggestions).append("개만 출력, 번호 목록 외 추가 텍스트 금지\n\n");
+
+        prompt.append("### 출력 예시 (형식만 참고)\n")
+                .append("1. feat(core): 설정 자동 로딩 지원 추가\n")
+                .append("2. fix(api): 잘못된 상태 코드 매핑 수정\n\n");
+    }
+
+    private void appendFiles(StringBuilder prompt, RepositorySnapshot snapshot) {
+        prompt.append("### 변경된 파일\n");
+        if (snapshot.changes().isEmpty()) {
+            prompt.append("- (파일 정보 없음)\n");
+        } else {
+            for (RepositorySnapshot.FileChange c : snapshot.changes()) {
+                prompt.append("- ").append(c.status()).append(' ').append(c.path());
+                if (c.binary()) prompt.append(" (binary)");
+                else prompt.append(" (+").append(c.added()).append("/-").append(c.deleted()).append(')');
+                prompt.append("\n");
+            }
+        }
+        prompt.append("\n");
+    }
+
+    private void appendTemplate(StringBuilder prompt, int maxSuggestions) {
+        prompt.append("### 최종 출력 템플릿 (정확히 이 형식으로만 답변)\n");
+        for (int i = 1; i <= maxSuggestions; i++) {
+            prompt.append(i).append(". [커밋메시지]\n");
+        }
+    }
+
+    private void appendSummary(StringBuilder prompt, List<String> summary) {
+        if (summary.isEmpty()) return;
+        prompt.append("### 구조적 변경 요약\n");
+        int n = Math.min(summary.size(), maxSummaryLines);
+        for (int i = 0; i < n; i++) {
+            prompt.append("- ").append(summary.get(i)).append("\n");
+        }
+        if (summary.size() > n) {
+            prompt.append("- ... 외 ").append(summary.size() - n).append("건\n");
+        }
+        prompt.append("\n");
+    }
+
+    private void appendHunkContext(StringBuilder prompt, List<String> hunkContext) {
+        if (hunkContext.isEmpty()) return;
+        prompt.append("### 변경 위치 (파일:줄 감싸는 클래스 > 메서드)\n");
+        for (String line : hunkContext) {
+            prompt.append("- ").append(line).append("\n");
+        }
+        prompt.append("\n");
+    }
+
+    private void appendDiff(StringBuilder prompt, RepositorySnapshot snapshot) {
+        String diff = snapshot.diff();
+        boolean cut = false;
+        if (mode == Mode.HYBRID && SnapshotCollector.utf8Length(diff) > hybridDiffBytes) {
+            // 요약이 구조를 전달하므로 raw diff는 앞부분(UTF-8 hybridDiffBytes 이하)만 줄 단위로 남김
+            String head = SnapshotCollector.truncateUtf8(diff, hybridDiffBytes);
+            int eol = head.lastIndexOf('\n');
+            diff = eol > 0 ? head.substring(0, eol) : head;
+            cut = true;
+        }
+
+        prompt.append("### Git Diff\n");
+        if (snapshot.truncated() || cut) {
+            prompt.append("(diff가 커서 일부 내용은 생략되었습니다. 생략된 부분은 변경된 파일 목록의 +/- 줄 수를 참고하십시오.)\n");
+        }
+        prompt.append("```\n").append(diff).append("\n```\n\n");
+    }
+}
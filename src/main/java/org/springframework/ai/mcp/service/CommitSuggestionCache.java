@@ -0,0 +1,273 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 커밋 메시지 제안 캐시.
+ * 키는 (diff 내용, 파일 목록, 모델명, 프롬프트 템플릿 버전)의 SHA-256에 maxSuggestions를 붙인 값이므로
+ * 같은 변경사항에 대한 재요청은 LLM을 다시 호출하지 않는다.
+ * 메모리 계층은 LRU + TTL, 디스크 계층(선택)은 .git/mcp-commit-cache 아래에 저장되어 재시작 후에도 유지된다.
+ * 디스크 계층은 저장소를 열 때와 쓰기 SWEEP_EVERY_WRITES번마다 백그라운드에서 TTL이 지난 파일을 지우고 disk.max-entries개로 줄인다.
+ * 적중/실패 수는 commit.cache.lookups{result=hit|miss} 카운터와 도구 응답 메시지로 노출한다.
+ * 조회/저장은 저장소별 Scope로 하며 메모리 LRU도 저장소마다 따로 둔다 (저장소 상태가 정리되면 함께 버려짐).
+ */
+@Slf4j
+@Component
+public class CommitSuggestionCache {
+    private static final String DISK_DIR = "mcp-commit-cache";
+    private static final int SWEEP_EVERY_WRITES = 64;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final boolean diskEnabled;
+    private final Duration diskTtl;
+    private final int diskMaxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CommitSuggestionCache(MeterRegistry registry,
+                                 @Value("${mcp.cache.enabled:true}") boolean enabled,
+                                 @Value("${mcp.cache.max-entries:256}") int maxEntries,
+                                 @Value("${mcp.cache.ttl:30m}") Duration ttl,
+                                 @Value("${mcp.cache.disk.enabled:false}") boolean diskEnabled,
+                                 @Value("${mcp.cache.disk.ttl:7d}") Duration diskTtl,
+                                 @Value("${mcp.cache.disk.max-entries:1000}") int diskMaxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.diskEnabled = diskEnabled;
+        this.diskTtl = diskTtl;
+        this.diskMaxEntries = Math.max(1, diskMaxEntries);
+        FunctionCounter.builder("commit.cache.lookups", hits, AtomicLong::get)
+                .description("커밋 메시지 제안 캐시 조회 수")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("commit.cache.lookups", misses, AtomicLong::get)
+                .description("커밋 메시지 제안 캐시 조회 수")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private record Entry(List<String> suggestions, long createdAt) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * 캐시 키 (snapshotKey + "-" + maxSuggestions)
+     */
+    public static String key(String snapshotKey, int maxSuggestions) {
+        return snapshotKey + "-" + maxSuggestions;
+    }
+
+    /**
+     * 제안 개수를 뺀 요청 식별자 (SHA-256 hex). 같은 값이면 같은 프롬프트 내용으로 생성된다.
+     */
+    public String snapshotKey(RepositorySnapshot snapshot, String model, String templateVersion) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            update(sha, templateVersion);
+            update(sha, model);
+            update(sha, snapshot.staged() ? "staged" : "unstaged");
+            for (RepositorySnapshot.FileChange c : snapshot.changes()) {
+                update(sha, c.status() + " " + c.path() + " " + c.added() + " " + c.deleted());
+            }
+            update(sha, snapshot.diff());
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 저장소 하나의 캐시. gitDir이 null이면 디스크 계층은 건너뜀.
+     * 디스크 계층이 켜져 있으면 이전 실행에서 남은 파일을 백그라운드에서 한 번 정리한다 (저장소 열기를 막지 않음).
+     */
+    public Scope scope(File gitDir) {
+        Scope scope = new Scope(gitDir);
+        if (diskEnabled) scope.sweepInBackground();
+        return scope;
+    }
+
+    public final class Scope {
+        private final File gitDir;
+        private final AtomicInteger writes = new AtomicInteger();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        // accessOrder=true → 가장 오래 사용되지 않은 항목부터 제거 (LRU)
+        private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        private Scope(File gitDir) {
+            this.gitDir = gitDir;
+        }
+
+        /**
+         * 메모리 → 디스크 순으로 조회
+         */
+        public Optional<List<String>> get(String key) {
+            if (!enabled) return Optional.empty();
+            long now = System.currentTimeMillis();
+            synchronized (entries) {
+                Entry e = entries.get(key);
+                if (e != null) {
+                    if (now - e.createdAt() <= ttl.toMillis()) {
+                        hits.incrementAndGet();
+                        return Optional.of(e.suggestions());
+                    }
+                    entries.remove(key);
+                }
+            }
+            Optional<List<String>> fromDisk = readDisk(key, gitDir, now);
+            if (fromDisk.isPresent()) {
+                hits.incrementAndGet();
+                synchronized (entries) {
+                    entries.put(key, new Entry(fromDisk.get(), now));
+                }
+                return fromDisk;
+            }
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        public void put(String key, List<String> suggestions) {
+            if (!enabled || suggestions.isEmpty()) return;
+            List<String> copy = List.copyOf(suggestions);
+            synchronized (entries) {
+                entries.put(key, new Entry(copy, System.currentTimeMillis()));
+            }
+            writeDisk(key, copy, gitDir);
+            if (diskEnabled && writes.incrementAndGet() % SWEEP_EVERY_WRITES == 0) sweepInBackground();
+        }
+
+        // 디렉터리 전체를 훑으므로 요청 스레드에서 하지 않고, 저장소당 한 번에 하나만
+        private void sweepInBackground() {
+            if (gitDir == null || !sweeping.compareAndSet(false, true)) return;
+            Thread.ofVirtual().name("commit-cache-sweep").start(() -> {
+                try {
+                    sweepDisk(gitDir);
+                } finally {
+                    sweeping.set(false);
+                }
+            });
+        }
+    }
+
+    private Optional<List<String>> readDisk(String key, File gitDir, long now) {
+        Path file = diskFile(key, gitDir);
+        if (file == null || !Files.isRegularFile(file)) return Optional.empty();
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || now - Long.parseLong(lines.get(0)) > diskTtl.toMillis()) {
+                Files.deleteIfExists(file);
+                return Optional.empty();
+            }
+            return Optional.of(List.copyOf(lines.subList(1, lines.size())));
+        } catch (IOException | NumberFormatException e) {
+            log.debug("[CommitSuggestionCache] 디스크 캐시 읽기 실패: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private void writeDisk(String key, List<String> suggestions, File gitDir) {
+        Path file = diskFile(key, gitDir);
+        if (file == null) return;
+        try {
+            Files.createDirectories(file.getParent());
+            List<String> lines = new ArrayList<>(suggestions.size() + 1);
+            lines.add(Long.toString(System.currentTimeMillis()));
+            // 제안은 한 줄짜리 커밋 제목이므로 줄바꿈은 공백으로 정규화
+            suggestions.forEach(s -> lines.add(s.replace('\n', ' ').replace('\r', ' ')));
+            Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("[CommitSuggestionCache] 디스크 캐시 쓰기 실패: {}", e.toString());
+        }
+    }
+
+    /**
+     * TTL이 지난 파일을 지우고, 남은 파일이 diskMaxEntries를 넘으면 오래된 것부터 지운다.
+     * 다시 조회되지 않는 키의 파일이 계속 쌓이지 않게 하기 위함 (readDisk는 조회된 키만 정리함)
+     */
+    void sweepDisk(File gitDir) {
+        Path probe = diskFile("x", gitDir);
+        if (probe == null || !Files.isDirectory(probe.getParent())) return;
+        Path dir = probe.getParent();
+        long expiredBefore = System.currentTimeMillis() - diskTtl.toMillis();
+        record CacheFile(Path path, long modified) {}
+        List<CacheFile> kept = new ArrayList<>();
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                // 쓰다 만 임시 파일(.tmp)도 TTL 기준으로 정리
+                if (modified < expiredBefore) {
+                    if (Files.deleteIfExists(file)) deleted++;
+                } else if (file.getFileName().toString().endsWith(".txt")) {
+                    kept.add(new CacheFile(file, modified));
+                }
+            }
+            if (kept.size() > diskMaxEntries) {
+                kept.sort(Comparator.comparingLong(CacheFile::modified));
+                for (CacheFile f : kept.subList(0, kept.size() - diskMaxEntries)) {
+                    if (Files.deleteIfExists(f.path())) deleted++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("[CommitSuggestionCache] 디스크 캐시 정리 실패: {}", e.toString());
+        }
+        if (deleted > 0) log.info("[CommitSuggestionCache] 디스크 캐시 {}개 정리: {}", deleted, dir);
+    }
+
+    private Path diskFile(String key, File gitDir) {
+        if (!diskEnabled || gitDir == null || !gitDir.isDirectory()) return null;
+        return gitDir.toPath().resolve(DISK_DIR).resolve(key + ".txt");
+    }
+
+    private static void update(MessageDigest sha, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        // 구분자 충돌 방지를 위해 길이를 먼저 넣음
+        sha.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        sha.update((byte) ':');
+        sha.update(bytes);
+    }
+}
@@ -0,0 +1,18 @@
+package org.springframework.ai.mcp.service;
+
+/**
+ * 프롬프트에 넣을 diff의 크기 제한.
+ * maxBytes/maxLines는 전체 출력, maxFileLines는 파일 하나, maxLineBytes는 한 줄 기준이다.
+ * 바이트는 모두 UTF-8 기준이다 (문자 수가 아님).
+ */
+public record DiffBudget(long maxBytes, int maxLines, int maxFileLines, int maxLineBytes) {
+
+    public static final DiffBudget UNLIMITED =
+            new DiffBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public DiffBudget {
+        if (maxBytes <= 0 || maxLines <= 0 || maxFileLines <= 0 || maxLineBytes <= 0) {
+            throw new IllegalArgumentException("diff budget 값은 0보다 커야 합니다");
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.springframework.ai.mcp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.AutoGitAdapter;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.GitExecutor;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.JGitAdapter;
+import org.springframework.ai.mcp.util.AutoGitExecutor;
+import org.springframework.ai.mcp.util.GitCatFileBatch;
+import org.springframework.ai.mcp.util.GitRootResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 도구 요청의 repositoryPath(선택)를 git 루트로 해석하고 저장소별 상태를 관리한다.
+ * 저장소마다 git 실행기(JGit 저장소 핸들 포함), in-process diff 전용 풀, git cat-file --batch 코프로세스, 제안 캐시 Scope를 따로 둔다.
+ * 기본으로는 서버의 기본 저장소만 허용하고, 다른 저장소는 mcp.repos.allowed-roots에 적은 경로 아래만 허용한다.
+ * 경로 → 루트 해석 결과는 정규 경로(canonical path) 기준으로 캐시하고,
+ * 활성 저장소가 max-active를 넘으면 가장 오래 쓰이지 않은 저장소의 상태를 정리한다 (사용 중이면 요청이 끝난 뒤 정리).
+ * 전역 락(active) 안에서는 맵만 고치고, 저장소 열기(JGit, 풀 생성)와 정리(cat-file/JGit 종료)는 락 밖에서 한다.
+ * 같은 저장소를 동시에 처음 여는 요청은 먼저 온 요청의 열기 결과(CompletableFuture)를 기다린다.
+ */
+@Slf4j
+@Component
+public class GitRepositories {
+    // 경로 → 루트 캐시 상한 (넘으면 비우고 다시 채움)
+    private static final int MAX_CACHED_ROOTS = 1024;
+
+    private final CommitSuggestionCache suggestionCache;
+    private final String engine;
+    private final AutoGitExecutor.Limits limits;
+    private final int maxActive;
+    private final int diffConcurrency;
+    private final List<File> allowedRoots;
+    private final File defaultRoot;
+    private final Map<String, File> roots = new ConcurrentHashMap<>();
+    // 열리는 중인 저장소도 자리를 차지하도록 future로 보관 (accessOrder=true → LRU 순서)
+    private final LinkedHashMap<File, CompletableFuture<Repo>> active = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GitRepositories(CommitSuggestionCache suggestionCache,
+                           @Value("${mcp.git.engine:jgit}") String engine,
+                           @Value("${mcp.git.timeout:30s}") Duration timeout,
+                           @Value("${mcp.git.write-timeout:60s}") Duration writeTimeout,
+                           @Value("${mcp.git.max-output-bytes:268435456}") long maxOutputBytes,
+                           @Value("${mcp.repos.max-active:16}") int maxActive,
+                           @Value("${mcp.repos.diff-concurrency:4}") int diffConcurrency,
+                           @Value("${mcp.repos.allowed-roots:}") String allowedRoots) {
+        this.suggestionCache = suggestionCache;
+        this.engine = engine;
+        this.limits = new AutoGitExecutor.Limits(timeout, writeTimeout, maxOutputBytes);
+        this.maxActive = Math.max(1, maxActive);
+        this.diffConcurrency = Math.max(1, diffConcurrency);
+        this.allowedRoots = Arrays.stream(allowedRoots.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(GitRepositories::canonical)
+                .toList();
+        this.defaultRoot = GitRootResolver.resolve();
+        log.info("[GitRepositories] 기본 저장소: {}, 엔진: {}, 최대 활성 저장소: {}, 추가 허용 경로: {}",
+                defaultRoot, engine, this.maxActive, this.allowedRoots);
+    }
+
+    /**
+     * 저장소 하나의 상태. acquire로 얻고 사용 후 반드시 release
+     */
+    public static final class Repo {
+        private final File root;
+        private final GitExecutor git;
+        private final ExecutorService diffPool;
+        private final GitCatFileBatch catFile;
+        private final CommitSuggestionCache.Scope cache;
+        private int inUse;
+        private boolean evicted;
+
+        private Repo(File root, GitExecutor git, ExecutorService diffPool, GitCatFileBatch catFile, CommitSuggestionCache.Scope cache) {
+            this.root = root;
+            this.git = git;
+            this.diffPool = diffPool;
+            this.catFile = catFile;
+            this.cache = cache;
+        }
+
+        public File root() {
+            return root;
+        }
+
+        GitExecutor git() {
+            return git;
+        }
+
+        // 첫 조회 때 시작되어 저장소 상태가 정리될 때까지 유지
+        GitCatFileBatch catFile() {
+            return catFile;
+        }
+
+        CommitSuggestionCache.Scope cache() {
+            return cache;
+        }
+
+        // 닫기(프로세스 종료 등)는 이 저장소의 락도 잡지 않은 채로
+        public void release() {
+            boolean close;
+            synchronized (this) {
+                inUse--;
+                close = evicted && inUse == 0;
+            }
+            if (close) close();
+        }
+
+        private synchronized boolean retain() {
+            if (evicted) return false;
+            inUse++;
+            return true;
+        }
+
+        private void evict() {
+            boolean close;
+            synchronized (this) {
+                close = !evicted && inUse == 0;
+                evicted = true;
+            }
+            if (close) close();
+        }
+
+        private synchronized int inUse() {
+            return inUse;
+        }
+
+        // 테스트용: 정리(close)까지 끝났는지
+        boolean closed() {
+            return diffPool.isShutdown();
+        }
+
+        private void close() {
+            catFile.close();
+            git.close();
+            diffPool.shutdown();
+        }
+    }
+
+    /**
+     * 활성 저장소 현황
+     */
+    public record RepositoryStats(String defaultRoot, int active, int maxActive, long opened, long evictions,
+                                  int cachedRoots, List<ActiveRepository> repositories) {}
+
+    public record ActiveRepository(String root, int inUse, boolean catFileRunning, long catFileReads, long catFileStarts) {}
+
+    /**
+     * repositoryPath가 비어 있으면 서버의 기본 저장소(GIT_WORK_DIR 등).
+     * 경로가 git 저장소 안이 아니거나, 기본 저장소도 allowed-roots 아래도 아니면 IllegalArgumentException
+     */
+    public Repo acquire(String repositoryPath) {
+        File root = resolveRoot(repositoryPath);
+        while (true) {
+            CompletableFuture<Repo> slot;
+            boolean opener = false;
+            List<Map.Entry<File, CompletableFuture<Repo>>> evicted = new ArrayList<>();
+            synchronized (active) {
+                slot = active.get(root);
+                if (slot == null) {
+                    slot = new CompletableFuture<>();
+                    active.put(root, slot);
+                    opener = true;
+                    // 방금 넣은 것이 가장 최근이므로 앞(가장 오래 안 쓴 것)부터 넘친 만큼 제거
+                    Iterator<Map.Entry<File, CompletableFuture<Repo>>> it = active.entrySet().iterator();
+                    while (active.size() > maxActive && it.hasNext()) {
+                        Map.Entry<File, CompletableFuture<Repo>> eldest = it.next();
+                        evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+                        it.remove();
+                    }
+                }
+            }
+            for (Map.Entry<File, CompletableFuture<Repo>> e : evicted) {
+                evictions.incrementAndGet();
+                log.info("[GitRepositories] 활성 저장소 {}개 초과 - 정리: {}", maxActive, e.getKey());
+                // 아직 열리는 중이면 열린 뒤 정리
+                e.getValue().thenAccept(Repo::evict);
+            }
+            if (opener) open(root, slot);
+            Repo repo;
+            try {
+                repo = slot.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+            // 꺼낸 직후 다른 요청 때문에 정리됐으면 다시 연다
+            if (repo.retain()) return repo;
+        }
+    }
+
+    File resolveRoot(String repositoryPath) {
+        if (repositoryPath == null || repositoryPath.isBlank()) return defaultRoot;
+        File path = canonical(repositoryPath);
+        if (roots.size() > MAX_CACHED_ROOTS) roots.clear();
+        File cached = roots.get(path.getPath());
+        if (cached == null) {
+            // 디렉터리를 거슬러 올라가는 탐색은 맵 밖에서 (computeIfAbsent는 탐색하는 동안 같은 bin에 들어가는 다른 경로의 등록까지 막음)
+            File found = GitRootResolver.findGitRoot(path);
+            if (found == null) {
+                throw new IllegalArgumentException("git 저장소가 아닙니다: " + repositoryPath);
+            }
+            cached = roots.putIfAbsent(path.getPath(), found);
+            if (cached == null) cached = found;
+        }
+        File root = cached;
+        if (!root.equals(defaultRoot) && allowedRoots.stream().noneMatch(allowed -> root.toPath().startsWith(allowed.toPath()))) {
+            throw new IllegalArgumentException("허용되지 않은 저장소 경로입니다 (mcp.repos.allowed-roots에 추가 필요): " + repositoryPath);
+        }
+        return root;
+    }
+
+    public RepositoryStats stats() {
+        List<CompletableFuture<Repo>> slots;
+        synchronized (active) {
+            slots = new ArrayList<>(active.values());
+        }
+        List<ActiveRepository> repositories = new ArrayList<>();
+        for (CompletableFuture<Repo> slot : slots) {
+            // 열리는 중이거나 열기에 실패한 자리는 제외
+            if (!slot.isDone() || slot.isCompletedExceptionally()) continue;
+            Repo repo = slot.join();
+            repositories.add(new ActiveRepository(repo.root.getPath(), repo.inUse(),
+                    repo.catFile.isRunning(), repo.catFile.reads(), repo.catFile.starts()));
+        }
+        return new RepositoryStats(defaultRoot.getPath(), repositories.size(), maxActive, opened.get(), evictions.get(),
+                roots.size(), repositories);
+    }
+
+    // 실패하면 자리를 비워 다음 요청이 다시 열 수 있게 함
+    private void open(File root, CompletableFuture<Repo> slot) {
+        try {
+            slot.complete(open(root));
+        } catch (RuntimeException e) {
+            synchronized (active) {
+                active.remove(root, slot);
+            }
+            slot.completeExceptionally(e);
+        }
+    }
+
+    private Repo open(File root) {
+        opened.incrementAndGet();
+        AutoGitExecutor process = new AutoGitExecutor(root, limits);
+        ExecutorService diffPool = Executors.newFixedThreadPool(diffConcurrency,
+                Thread.ofVirtual().name("jgit-diff-" + root.getName() + "-", 0).factory());
+        GitExecutor git = "process".equalsIgnoreCase(engine)
+                ? new AutoGitAdapter(process)
+                : JGitAdapter.createOrFallback(process, diffPool);
+        File dotGit = new File(root, ".git");
+        // 디스크 캐시 위치 (.git이 디렉터리가 아닌 worktree 등은 null → 메모리 캐시만 사용)
+        CommitSuggestionCache.Scope cache = suggestionCache.scope(dotGit.isDirectory() ? dotGit : null);
+        log.info("[GitRepositories] 저장소 열림: {} ({})", root, git.getClass().getSimpleName());
+        return new Repo(root, git, diffPool, process.catFileBatch(), cache);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List<CompletableFuture<Repo>> slots;
+        synchronized (active) {
+            slots = new ArrayList<>(active.values());
+            active.clear();
+        }
+        slots.forEach(slot -> slot.thenAccept(Repo::evict));
+    }
+
+    // 루트 해석 캐시 키 (심볼릭 링크, ..를 정리한 경로)
+    private static File canonical(String path) {
+        try {
+            return new File(path).getCanonicalFile();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("경로를 확인할 수 없습니다: " + path, e);
+        }
+    }
+}
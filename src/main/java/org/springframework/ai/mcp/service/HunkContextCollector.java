@@ -0,0 +1,201 @@
+package org.springframework.ai.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.util.EnclosingSignatures;
+import org.springframework.ai.mcp.util.GitCatFileBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * hunk마다 그 변경을 감싸는 클래스/메서드 시그니처를 찾아 프롬프트용 한 줄 요약으로 만든다.
+ * diff의 index 줄(변경 전/후 blob id)로 저장소의 git cat-file --batch 코프로세스에서 파일 내용을 받아오고
+ * (unstaged 변경 후 내용은 object DB에 없으므로 작업 트리 파일), EnclosingSignatures로 선언을 찾는다.
+ * -U20 같은 넓은 context 없이도 모델이 "어느 클래스의 어느 메서드"가 바뀌었는지 알 수 있다.
+ * 예: "src/main/java/Foo.java:120 public class Foo > public void bar(int x)"
+ */
+@Slf4j
+@Component
+public class HunkContextCollector {
+    private static final Pattern INDEX_LINE = Pattern.compile("index ([0-9a-f]+)\\.\\.([0-9a-f]+).*");
+    private static final Pattern HUNK_HEADER = Pattern.compile("@@ -(\\d+)(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@.*");
+    // 바이너리 판별용으로 훑는 앞부분 (git과 같은 기준)
+    private static final int BINARY_SNIFF_BYTES = 8000;
+
+    private final boolean enabled;
+    private final int maxHunks;
+    private final int maxBlobBytes;
+
+    public HunkContextCollector(@Value("${mcp.context.enabled:true}") boolean enabled,
+                                @Value("${mcp.context.max-hunks:80}") int maxHunks,
+                                @Value("${mcp.context.max-blob-bytes:1048576}") int maxBlobBytes) {
+        this.enabled = enabled;
+        this.maxHunks = maxHunks;
+        this.maxBlobBytes = maxBlobBytes;
+    }
+
+    /**
+     * 수집 결과. complete가 false면 파일 내용 조회가 중간에 실패해 앞쪽 hunk만 담긴 것
+     * (이 결과로 만든 제안은 캐시하지 않음 - 같은 diff라도 다음 요청에서는 온전한 결과가 나올 수 있으므로)
+     */
+    public record Context(List<String> lines, boolean complete) {
+        public static final Context NONE = new Context(List.of(), true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시 키의 템플릿 식별자에 붙일 값 (켜고 끄면 다른 프롬프트이므로)
+     */
+    public String templateTag() {
+        return enabled ? "/ctx" + maxHunks : "";
+    }
+
+    /**
+     * 스냅샷 diff(budget 안에 남은 부분)에 있는 hunk의 위치와 시그니처. 실패하면 그때까지 모은 만큼만 (complete=false)
+     */
+    public Context collect(GitRepositories.Repo repo, RepositorySnapshot snapshot) {
+        if (!enabled || snapshot.isEmpty()) return Context.NONE;
+        List<Hunk> hunks = parse(snapshot.diff());
+        Map<String, Optional<List<String>>> images = new HashMap<>();
+        List<String> result = new ArrayList<>();
+        String previousFile = null;
+        List<String> previousChain = null;
+        StringBuilder current = null;
+        boolean complete = true;
+        try {
+            for (Hunk h : hunks) {
+                Optional<List<String>> image = images.computeIfAbsent(h.imageKey(), k -> load(repo, h, snapshot.staged()));
+                if (image.isEmpty()) continue;
+                List<String> chain = EnclosingSignatures.of(image.get(), h.line() - 1);
+                if (chain.isEmpty()) continue;
+                // 같은 파일, 같은 메서드 안의 연속 hunk는 한 줄로
+                if (current != null && h.path().equals(previousFile) && chain.equals(previousChain)) {
+                    current.append(',').append(h.line());
+                    continue;
+                }
+                if (current != null) result.add(current.toString());
+                current = new StringBuilder(h.path()).append(':').append(h.line()).append(' ').append(String.join(" > ", chain));
+                previousFile = h.path();
+                previousChain = chain;
+            }
+        } catch (UncheckedIOException e) {
+            log.warn("[HunkContextCollector] 파일 내용 조회 실패, {}개 hunk까지만 사용: {}", result.size(), e.getCause().toString());
+            complete = false;
+        }
+        if (current != null) result.add(current.toString());
+        return new Context(result, complete);
+    }
+
+    private Optional<List<String>> load(GitRepositories.Repo repo, Hunk h, boolean staged) {
+        try {
+            GitCatFileBatch catFile = repo.catFile();
+            Optional<byte[]> content = catFile.readBlob(h.oid(), maxBlobBytes);
+            // unstaged diff의 변경 후 blob은 작업 트리에만 있음
+            if (content.isEmpty() && h.postImage() && !staged) {
+                File file = new File(repo.root(), h.path());
+                if (file.isFile() && file.length() <= maxBlobBytes) content = Optional.of(Files.readAllBytes(file.toPath()));
+            }
+            return content.filter(bytes -> !isBinary(bytes))
+                    .map(bytes -> new String(bytes, StandardCharsets.UTF_8).lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isBinary(byte[] content) {
+        int n = Math.min(content.length, BINARY_SNIFF_BYTES);
+        for (int i = 0; i < n; i++) {
+            if (content[i] == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 연속된 변경 줄 묶음 하나. line: 묶음 첫 줄의 줄 번호 (1부터).
+     * 추가/수정은 변경 후 내용, 삭제만 있는 hunk는 변경 전 내용 기준
+     */
+    record Hunk(String path, String oid, boolean postImage, int line) {
+        String imageKey() {
+            return oid + (postImage ? "+" : "-") + path;
+        }
+    }
+
+    List<Hunk> parse(String diff) {
+        List<Hunk> hunks = new ArrayList<>();
+        String path = null;
+        String oldOid = null;
+        String newOid = null;
+        // 현재 hunk 상태: 줄 번호를 세면서 context 줄 다음의 변경 줄마다 위치를 남긴다
+        // (hunk 하나에 여러 메서드의 변경이 섞일 수 있음)
+        boolean inHunk = false;
+        boolean inChange = false;
+        int oldLine = 0;
+        int newLine = 0;
+        int newCount = 0;
+        for (String line : diff.split("\n")) {
+            if (hunks.size() >= maxHunks) break;
+            if (line.startsWith("diff --git ")) {
+                path = SnapshotCollector.pathFromDiffHeader(line);
+                oldOid = null;
+                newOid = null;
+                inHunk = false;
+            } else if (path == null) {
+                continue;
+            } else if (line.startsWith("@@")) {
+                Matcher m = HUNK_HEADER.matcher(line);
+                inHunk = m.matches() && oldOid != null;
+                if (inHunk) {
+                    oldLine = Integer.parseInt(m.group(1));
+                    newLine = Integer.parseInt(m.group(3));
+                    newCount = m.group(4) == null ? 1 : Integer.parseInt(m.group(4));
+                    inChange = false;
+                }
+            } else if (inHunk) {
+                boolean added = line.startsWith("+");
+                if (added || line.startsWith("-")) {
+                    if (!inChange) {
+                        boolean post = newCount > 0 && !isZero(newOid);
+                        hunks.add(post
+                                ? new Hunk(path, newOid, true, Math.max(1, newLine))
+                                : new Hunk(path, oldOid, false, Math.max(1, oldLine)));
+                        inChange = true;
+                    }
+                    if (added) newLine++;
+                    else oldLine++;
+                } else if (line.startsWith(" ")) {
+                    oldLine++;
+                    newLine++;
+                    inChange = false;
+                }
+            } else if (line.startsWith("+++ b/")) {
+                path = line.substring("+++ b/".length());
+            } else {
+                Matcher m = INDEX_LINE.matcher(line);
+                if (m.matches()) {
+                    oldOid = m.group(1);
+                    newOid = m.group(2);
+                }
+            }
+        }
+        return hunks;
+    }
+
+    private static boolean isZero(String oid) {
+        return oid == null || oid.chars().allMatch(c -> c == '0');
+    }
+}
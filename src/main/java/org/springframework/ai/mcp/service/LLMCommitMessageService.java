@@ -1,16 +1,24 @@
 package org.springframework.ai.mcp.service;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.mcp.util.AutoGitExecutor;
-import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.mcp.util.JGitDiffEngine;
+import org.springframework.ai.mcp.util.LineSplitter;
 import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -25,41 +33,88 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 public class LLMCommitMessageService {
+    private static final Pattern HANGUL = Pattern.compile("[가-힣]");
     
-    private final OllamaChatModel chatModel;
-    private final GitExecutor git;
+    private final ChatModel chatModel;
+    private final CommitPromptBuilder promptBuilder;
+    private final HunkContextCollector hunkContext;
+    private final CommitSuggestionCache suggestionCache;
+    private final MapReduceSummarizer mapReduce;
+    private final ModelWarmup modelWarmup;
+    private final LLMHealthMonitor healthMonitor;
+    private final CommitMetrics metrics;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final GitRepositories repositories;
     private final String llmProvider;
     private final String modelName;
+    private final DiffBudget diffBudget;
+    private final boolean streaming;
+    private final boolean includeTimings;
     
-    public LLMCommitMessageService(OllamaChatModel chatModel,
+    public LLMCommitMessageService(ChatModel chatModel,
+                                  CommitPromptBuilder promptBuilder,
+                                  HunkContextCollector hunkContext,
+                                  CommitSuggestionCache suggestionCache,
+                                  MapReduceSummarizer mapReduce,
+                                  ModelWarmup modelWarmup,
+                                  LLMHealthMonitor healthMonitor,
+                                  CommitMetrics metrics,
+                                  GitRepositories repositories,
                                   @Value("${spring.ai.provider}") String llmProvider,
-                                  @Value("${spring.ai.ollama.chat.options.model}") String ollamaModel) {
+                                  @Value("${spring.ai.ollama.chat.options.model}") String ollamaModel,
+                                  @Value("${mcp.diff.max-bytes:262144}") long diffMaxBytes,
+                                  @Value("${mcp.diff.max-lines:6000}") int diffMaxLines,
+                                  @Value("${mcp.diff.max-file-lines:800}") int diffMaxFileLines,
+                                  @Value("${mcp.diff.max-line-bytes:2000}") int diffMaxLineBytes,
+                                  @Value("${mcp.commit.streaming:true}") boolean streaming,
+                                  @Value("${mcp.commit.include-timings:false}") boolean includeTimings) {
         this.chatModel = chatModel;
-        this.git = new AutoGitAdapter();
+        this.promptBuilder = promptBuilder;
+        this.hunkContext = hunkContext;
+        this.suggestionCache = suggestionCache;
+        this.mapReduce = mapReduce;
+        this.modelWarmup = modelWarmup;
+        this.healthMonitor = healthMonitor;
+        this.metrics = metrics;
+        this.repositories = repositories;
         this.llmProvider = llmProvider;
         this.modelName = ollamaModel;
+        this.diffBudget = new DiffBudget(diffMaxBytes, diffMaxLines, diffMaxFileLines, diffMaxLineBytes);
+        this.streaming = streaming;
+        this.includeTimings = includeTimings;
         
-        // 디버깅 정보 출력
-        System.out.println("=== LLMCommitMessageService 디버깅 ===");
-        System.out.println("ChatModel 주입됨: " + (chatModel != null));
-        if (chatModel != null) {
-            System.out.println("ChatModel 클래스: " + chatModel.getClass().getName());
-        }
-        System.out.println("LLM 제공자: " + llmProvider);
-        System.out.println("모델명: " + modelName);
-        System.out.println("=====================================");
+        // 디버깅 정보 출력 (stdout은 STDIO transport의 JSON-RPC 전용이므로 로그로)
+        log.debug("[LLMCommitMessageService] ChatModel: {}, 제공자: {}, 모델명: {}",
+                chatModel == null ? null : chatModel.getClass().getName(), llmProvider, modelName);
         
         String status = chatModel == null ? "사용 가능" : "사용 불가 (fallback 모드)";
         log.info("[LLMCommitMessageService] 초기화됨 - 제공자: {}, 모델: {}, 상태: {}", llmProvider, modelName, status);
     }
     
-    @Tool(description = "현재 LLM 연결 상태를 확인합니다")
+    @Tool(description = "현재 LLM 연결 상태를 확인합니다 (fullGeneration=true면 실제 테스트 생성까지 수행)")
+    public String checkLLMConnection(HealthCheckRequest request) {
+        boolean fullGeneration = request != null && Boolean.TRUE.equals(request.fullGeneration());
+        return fullGeneration ? checkLLMGeneration() : checkLLMConnection();
+    }
+
+    /**
+     * 캐시된 상태로 즉시 응답 (LLMHealthMonitor가 백그라운드에서 갱신)
+     */
     public String checkLLMConnection() {
         if (!chatModel.getDefaultOptions().getModel().equals(modelName)) {
             return "❌ LLM 모델이 연결되지 않음 - fallback 모드에서 실행 중\n" +
@@ -68,6 +123,34 @@ public class LLMCommitMessageService {
                    "해결방법: application.yml에서 올바른 LLM 서버 설정을 확인하세요.";
         }
 
+        LLMHealthMonitor.HealthState health = healthMonitor.current();
+        String checked = "마지막 확인: " + health.age().toSeconds() + "초 전 (응답 " + health.probeMillis() + " ms)";
+        if (health.endpointsTotal() > 1) {
+            checked += "\n엔드포인트: " + health.endpointsUp() + "/" + health.endpointsTotal() + " 정상";
+        }
+        return switch (health.status()) {
+            case UP -> "✅ LLM 연결 성공!\n" +
+                       "제공자: " + llmProvider + " " + health.version() + "\n" +
+                       "모델: " + modelName + "\n" +
+                       checked;
+            case MODEL_MISSING -> "⚠️ LLM 서버는 실행 중이지만 모델이 없음\n" +
+                       "제공자: " + llmProvider + " " + health.version() + "\n" +
+                       "모델: " + modelName + "\n" +
+                       checked + "\n" +
+                       "해결방법: ollama pull " + modelName;
+            case DOWN -> "❌ LLM 연결 실패\n" +
+                       "제공자: " + llmProvider + "\n" +
+                       "모델: " + modelName + "\n" +
+                       "오류: " + health.error() + "\n" +
+                       checked + "\n" +
+                       "해결방법: LLM 서버가 실행 중인지, 네트워크 연결이 가능한지 확인하세요.";
+        };
+    }
+
+    /**
+     * 실제 테스트 생성으로 확인 (GPU 사용, 명시적으로 요청한 경우에만)
+     */
+    public String checkLLMGeneration() {
         ChatOptions opts = chatModel.getDefaultOptions();
         String configuredModel = (opts != null && opts.getModel() != null) ? opts.getModel() : "(미설정)";
         log.info("configuerModel: {}", configuredModel);
@@ -76,7 +159,7 @@ public class LLMCommitMessageService {
             // 간단한 테스트 메시지로 연결 확인
             String response = callWithRetry(() ->
                             chatModel.call(new Prompt("Hello, respond with just 'OK'"))
-                                    .getResult().getOutput().toString(),
+                                    .getResult().getOutput().getText(),
                     3, Duration.ofMillis(400)
             );
 
@@ -94,90 +177,225 @@ public class LLMCommitMessageService {
     }
 
     @Tool(description = "LLM이 git diff를 분석하여 적절한 커밋 메시지를 생성합니다")
+    public CommitSuggestionResponse generateCommitMessage(CommitSuggestionRequest request, ToolContext toolContext) {
+        // MCP 클라이언트에는 제안이 완성될 때마다 알림으로 먼저 전달
+        return generateCommitMessage(request, mcpNotifier(toolContext));
+    }
+
     public CommitSuggestionResponse generateCommitMessage(CommitSuggestionRequest request) {
-        long t0 = System.nanoTime(); // 측정 시작
+        return generateCommitMessage(request, SuggestionListener.NONE);
+    }
+
+    /**
+     * 커밋 메시지 생성. 스트리밍 모드에서는 번호 목록 한 줄이 완성될 때마다 listener로 즉시 전달한다.
+     */
+    public CommitSuggestionResponse generateCommitMessage(CommitSuggestionRequest request, SuggestionListener listener) {
+        GitRepositories.Repo repo;
+        try {
+            repo = repositories.acquire(request != null ? request.repositoryPath() : null);
+        } catch (IllegalArgumentException e) {
+            return new CommitSuggestionResponse(List.of(), "실패: " + e.getMessage());
+        }
+        try {
+            return generateCommitMessage(repo, request, listener);
+        } finally {
+            repo.release();
+        }
+    }
+
+    private CommitSuggestionResponse generateCommitMessage(GitRepositories.Repo repo, CommitSuggestionRequest request,
+                                                           SuggestionListener listener) {
+        CommitMetrics.Phases phases = metrics.start(); // 측정 시작
 
         boolean stagedFirst = request != null ? request.stagedFirst() : true;
         int maxSuggestions = request != null ? request.maxSuggestions() : 9;
+        boolean timings = request != null && request.includeTimings() != null ? request.includeTimings() : includeTimings;
         
-        // Git diff 수집
-        String diff = collectDiff(stagedFirst);
-        List<String> files = collectChangedFiles(stagedFirst);
+        // Git 스냅샷 수집 (우선 쪽이 비어 있을 때만 나머지 diff 수집)
+        RepositorySnapshot snapshot;
+        try {
+            snapshot = phases.time("snapshot", () -> collectSnapshot(repo.git(), stagedFirst));
+        } catch (CompletionException e) {
+            // git diff 실패를 "변경사항 없음"으로 보고하지 않음
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("[LLMCommitMessageService] git diff 수집 실패: {}", cause.toString());
+            return withTimings(new CommitSuggestionResponse(List.of(), "실패: 변경사항 수집 실패 - " + cause.getMessage()),
+                    phases.finish("error"), timings);
+        }
         
-        if (diff == null || diff.isBlank()) {
-            return new CommitSuggestionResponse(List.of(), "변경사항이 없습니다.");
+        if (snapshot.isEmpty()) {
+            metrics.emptyDiff();
+            return withTimings(new CommitSuggestionResponse(List.of(), "변경사항이 없습니다."), phases.finish("empty"), timings);
         }
         
         // ChatModel이 없으면 fallback 메시지 반환
         if (chatModel == null) {
             log.warn("ChatModel이 주입되지 않았습니다. fallback 모드로 실행됩니다.");
+            metrics.fallback("no_model");
             List<String> fallbackMessages = List.of(
                 "feat(core): 코드 변경사항 반영",
                 "refactor(core): 코드 개선 및 정리",
                 "chore(core): 파일 업데이트"
             );
-            return new CommitSuggestionResponse(fallbackMessages, 
+            return withTimings(new CommitSuggestionResponse(fallbackMessages, 
                 "LLM 서비스가 설정되지 않아 기본 메시지를 생성했습니다. " +
-                "OPENAI_API_KEY 또는 Ollama 서버를 설정해주세요.");
+                "OPENAI_API_KEY 또는 Ollama 서버를 설정해주세요."), phases.finish("fallback"), timings);
         }
         
         log.info("ChatModel이 주입됨: {}", chatModel.getClass().getSimpleName());
+
+        // 같은 diff/파일/모델/개수/템플릿이면 이전 결과 재사용
+        boolean useMapReduce = mapReduce.applies(snapshot);
+        String templateVersion = useMapReduce
+                ? promptBuilder.templateVersion() + "/" + mapReduce.templateVersion()
+                : promptBuilder.templateVersion() + hunkContext.templateTag();
+        String snapshotKey = suggestionCache.snapshotKey(snapshot, modelName, templateVersion);
+        String cacheKey = CommitSuggestionCache.key(snapshotKey, maxSuggestions);
+        CommitSuggestionCache.Scope cache = repo.cache();
+        Optional<List<String>> cached = phases.time("cache", () -> cache.get(cacheKey));
+        if (cached.isPresent()) {
+            List<String> hit = cached.get();
+            for (int i = 0; i < hit.size(); i++) listener.onSuggestion(i + 1, hit.get(i));
+            Map<String, Long> breakdown = phases.finish("cache");
+            log.info("[LLMCommitMessageService] 캐시 적중 - 소요시간: {} ms, key={}", breakdown.get("total"), cacheKey.substring(0, 12));
+            return withTimings(new CommitSuggestionResponse(cached.get(), String.format("%s (%s)로 %d개 메시지 생성됨 (캐시 적중) %s",
+                    llmProvider.toUpperCase(), modelName, cached.get().size(), cacheStats())), breakdown, timings);
+        }
         
+        // 같은 요청이 이미 생성 중이면 새로 생성하지 않고 그 결과를 공유 (같은 diff라도 저장소가 다르면 따로 생성)
+        SingleFlight.Result result = singleFlight.run(snapshotKey + "@" + repo.root().getPath(), maxSuggestions, listener,
+                fanout -> generateWithLLM(repo, snapshot, useMapReduce, maxSuggestions, cacheKey, fanout, phases));
+        if (!result.joined()) {
+            return withTimings(result.response(), result.response().timings(), timings);
+        }
+        List<String> shared = result.response().suggestions();
+        List<String> suggestions = shared.subList(0, Math.min(shared.size(), maxSuggestions));
+        if (suggestions.isEmpty()) {
+            // 공유받은 생성이 실패한 경우 오류 메시지 그대로 전달
+            return withTimings(result.response(), phases.finish("error"), timings);
+        }
+        Map<String, Long> breakdown = phases.finish("joined");
+        log.info("[LLMCommitMessageService] 동일 요청 합류 - 소요시간: {} ms, key={}", breakdown.get("total"), cacheKey.substring(0, 12));
+        return withTimings(new CommitSuggestionResponse(List.copyOf(suggestions), String.format("%s (%s)로 %d개 메시지 생성됨 (동일 요청 합류) %s",
+                llmProvider.toUpperCase(), modelName, suggestions.size(), cacheStats())), breakdown, timings);
+    }
+
+    /**
+     * 생성 결과. timings는 항상 채워서 돌려주고 (합류한 요청도 같은 값을 받음) 응답에 넣을지는 호출부에서 결정
+     */
+    private CommitSuggestionResponse generateWithLLM(GitRepositories.Repo repo, RepositorySnapshot snapshot, boolean useMapReduce,
+                                                     int maxSuggestions, String cacheKey, SuggestionListener listener,
+                                                     CommitMetrics.Phases phases) {
+        long t0 = phases.startNanos();
         try {
-            // LLM에게 커밋 메시지 생성 요청
-            String promptText = buildPrompt(diff, files, maxSuggestions);
+            // LLM에게 커밋 메시지 생성 요청 (큰 변경은 모듈별 요약 후 한 번 더 호출)
+            List<String> chunkSummaries = useMapReduce ? phases.time("map", () -> mapReduce.summarize(snapshot)) : null;
+            // hunk별 감싸는 클래스/메서드 (저장소의 cat-file --batch 코프로세스로 blob 조회)
+            HunkContextCollector.Context context = useMapReduce
+                    ? HunkContextCollector.Context.NONE
+                    : phases.time("context", () -> hunkContext.collect(repo, snapshot));
+            String promptText = phases.time("prompt", () -> useMapReduce
+                    ? promptBuilder.buildReduce(snapshot, chunkSummaries, maxSuggestions)
+                    : promptBuilder.build(snapshot, context.lines(), maxSuggestions));
             Prompt prompt = new Prompt(promptText);
 
             log.info("[LLMCommitMessageService] {} ({})로 커밋 메시지 생성 중...", llmProvider, modelName);
 
-            String response = chatModel.call(prompt).getResult().getOutput().toString();
+            // 첫 제안이 나온 시점 기록 (time-to-first-suggestion)
+            AtomicLong firstSuggestionAt = new AtomicLong();
+            SuggestionListener timed = new SuggestionListener() {
+                @Override
+                public void onSuggestion(int index, String message) {
+                    firstSuggestionAt.compareAndSet(0, System.nanoTime());
+                    listener.onSuggestion(index, message);
+                }
+
+                @Override
+                public void onReset() {
+                    listener.onReset();
+                }
+            };
 
-            // 영어로만 되어있는 커밋 메세지 금지
-            if (looksEnglishDominant(response)) {
+            Attempt first = phases.time("llm", () -> generate(prompt, timed, true));
+            String response = first.response();
+            // 모델이 내려가 있어서 다시 올렸으면 콜드 스타트로 따로 집계 (응답의 load_duration 기준)
+            boolean coldStart = first.reloaded();
+
+            // 영어로만 되어있는 커밋 메세지 금지 (스트리밍이면 첫 제안에서 이미 중단됨)
+            if (first.rejected() || looksEnglishDominant(response)) {
+                metrics.retry(first.rejected() ? "early_abort" : "english");
                 Prompt retryPrompt = new Prompt(
                         List.of(
                                 new SystemMessage("이전 출력은 규칙 위반이다. 이번에는 반드시 100% 한국어로만, 지정 형식만 출력하라."),
-                                new UserMessage(buildPrompt(diff, files, maxSuggestions))
+                                new UserMessage(promptText)
                         )
                 );
-                response = chatModel.call(retryPrompt).getResult().getOutput().toString();
+                // 이미 전달한 제안은 무효 (조기 중단된 경우 전달된 제안 없음)
+                if (!first.rejected()) timed.onReset();
+                firstSuggestionAt.set(0);
+                Attempt retry = phases.time("retry", () -> generate(retryPrompt, timed, false));
+                response = retry.response();
+                coldStart |= retry.reloaded();
             }
 
             // 응답 파싱
-            List<String> suggestions = parseCommitMessages(response);
-
-            Duration elapsed = Duration.ofNanos(System.nanoTime() - t0); // 측정 종료
-            log.info("[LLMCommitMessageService] 커밋 메시지 생성 완료 - 소요시간: {} ms ({} s), provider={}, model={}, suggestions={}",
-                    elapsed.toMillis(), toSeconds(elapsed), llmProvider, modelName, suggestions.size());
+            String finalResponse = response;
+            List<String> suggestions = phases.time("parse", () -> parseCommitMessages(finalResponse));
+            // 변경 위치 수집이 중간에 실패했으면 덜 만든 프롬프트의 결과이므로 캐시하지 않음
+            if (context.complete()) {
+                repo.cache().put(cacheKey, suggestions);
+            } else {
+                log.info("[LLMCommitMessageService] 변경 위치 수집이 완전하지 않아 결과를 캐시하지 않음");
+            }
 
-            String resultMessage = String.format("%s (%s)로 %d개 메시지 생성됨", 
-                llmProvider.toUpperCase(), modelName, suggestions.size());
+            Map<String, Long> breakdown = phases.finish("llm"); // 측정 종료
+            Duration elapsed = Duration.ofMillis(breakdown.get("total"));
+            long firstAt = firstSuggestionAt.get();
+            Duration ttfs = firstAt == 0 ? elapsed : Duration.ofNanos(firstAt - t0);
+            metrics.firstSuggestion(ttfs);
+            modelWarmup.recordGeneration(coldStart, elapsed);
+            log.info("[LLMCommitMessageService] 커밋 메시지 생성 완료{} - 첫 제안: {} ms, 소요시간: {} ms ({} s), 단계: {}, provider={}, model={}, suggestions={}",
+                    coldStart ? " (콜드 스타트)" : "", ttfs.toMillis(), elapsed.toMillis(), toSeconds(elapsed), breakdown, llmProvider, modelName, suggestions.size());
+
+            String resultMessage = String.format("%s (%s)로 %d개 메시지 생성됨 (첫 제안 %d ms) %s",
+                llmProvider.toUpperCase(), modelName, suggestions.size(), ttfs.toMillis(), cacheStats());
             
-            return new CommitSuggestionResponse(suggestions, resultMessage);
+            return new CommitSuggestionResponse(suggestions, resultMessage, breakdown);
         } catch (Exception e) {
-            Duration elapsed = Duration.ofNanos(System.nanoTime() - t0); // 실패 시에도 소요 시간 로깅
-            log.error("[LLMCommitMessageService] 커밋 메시지 생성 실패 - 소요시간: {} ms ({} s), provider={}, model={}, 원인={}",
-                    elapsed.toMillis(), toSeconds(elapsed), llmProvider, modelName, summarize(e));
+            Map<String, Long> breakdown = phases.finish("error"); // 실패 시에도 소요 시간 로깅
+            Duration elapsed = Duration.ofMillis(breakdown.get("total"));
+            log.error("[LLMCommitMessageService] 커밋 메시지 생성 실패 - 소요시간: {} ms ({} s), 단계: {}, provider={}, model={}, 원인={}",
+                    elapsed.toMillis(), toSeconds(elapsed), breakdown, llmProvider, modelName, summarize(e));
 
             String errorMessage = String.format("LLM 호출 실패 (%s): %s", llmProvider, e.getMessage());
-            System.err.println("[LLMCommitMessageService] " + errorMessage);
-            return new CommitSuggestionResponse(List.of(), errorMessage);
+            return new CommitSuggestionResponse(List.of(), errorMessage, breakdown);
         }
     }
+
+    // 단계별 소요 시간은 요청(includeTimings)이나 설정(mcp.commit.include-timings)으로 켠 경우에만 응답에 포함
+    private static CommitSuggestionResponse withTimings(CommitSuggestionResponse response, Map<String, Long> breakdown, boolean include) {
+        return new CommitSuggestionResponse(response.suggestions(), response.message(), include ? breakdown : null);
+    }
     
     @Tool(description = "생성된 커밋 메시지로 실제 git commit을 수행합니다")
     public String commitWithLLMMessage(CommitExecutionRequest request) {
         if (request == null || request.message() == null || request.message().isBlank()) {
             return "실패: 커밋 메시지가 필요합니다.";
         }
-        
+
+        GitRepositories.Repo repo;
+        try {
+            repo = repositories.acquire(request.repositoryPath());
+        } catch (IllegalArgumentException e) {
+            return "실패: " + e.getMessage();
+        }
         try {
             File tmp = Files.createTempFile("llm-commit-msg-", ".txt").toFile();
             try (Writer w = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
                 w.write(request.message());
             }
             
-            int exit = git.exec(List.of("commit", "-F", tmp.getAbsolutePath()));
+            int exit = repo.git().exec(List.of("commit", "-F", tmp.getAbsolutePath()));
             tmp.delete();
             
             if (exit == 0) {
@@ -186,137 +404,342 @@ public class LLMCommitMessageService {
             return "실패: git commit 명령이 실패했습니다.";
         } catch (Exception e) {
             return "실패: " + e.getMessage();
+        } finally {
+            repo.release();
         }
     }
 
-    private String buildPrompt(String diff, List<String> files, int maxSuggestions) {
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("당신은 뛰어난 개발자이자 Git 커밋 메시지 전문가입니다. ")
-                .append("아래 git diff 내역을 분석해 Conventional Commits 규칙을 따르는 커밋 메시지 후보를 생성하십시오.\n\n");
-
-        prompt.append("아래 지시를 100% 준수해야만 합니다.\n");
-        prompt.append("### 반드시 지켜야 할 규칙\n")
-                .append("- 형식: type(scope?): description\n")
-                .append("- type: feat, fix, docs, style, refactor, test, chore 중에서만 선택\n")
-                .append("- description은 100% 한국어, 명령형/현재 시제, 12~60자, 마침표(.) 금지\n")
-                .append("- 한국어가 아닌 출력은 무효로 간주하고 즉시 한국어로만 다시 작성\n")
-                .append("- 정확히 ").append(maxSuggestions).append("개만 출력, 번호 목록 외 추가 텍스트 금지\n\n");
-
-        prompt.append("### 출력 예시 (형식만 참고)\n")
-                .append("1. feat(core): 설정 자동 로딩 지원 추가\n")
-                .append("2. fix(api): 잘못된 상태 코드 매핑 수정\n\n");
-
-        prompt.append("### 변경된 파일\n");
-        if (files.isEmpty()) {
-            prompt.append("- (파일 정보 없음)\n");
-        } else {
-            for (String f : files) prompt.append("- ").append(f).append("\n");
+    /**
+     * 프롬프트 실행 결과. rejected면 첫 제안이 한국어가 아니어서 생성 도중 중단된 것
+     */
+    private record Attempt(String response, boolean rejected, boolean reloaded) {}
+
+    /**
+     * 프롬프트 실행. 스트리밍 모드면 응답 조각을 받는 즉시 완성된 제안을 listener로 넘기고,
+     * 아니면 전체 응답을 받은 뒤 한꺼번에 넘긴다.
+     * earlyAbort면 첫 제안이 한글 없이 완성되는 즉시 스트림을 취소한다 (나머지 토큰 생성 낭비 방지).
+     */
+    private Attempt generate(Prompt prompt, SuggestionListener listener, boolean earlyAbort) {
+        if (!streaming) {
+            ChatResponse result = chatModel.call(prompt);
+            String response = result.getResult().getOutput().getText();
+            List<String> parsed = parseCommitMessages(response);
+            for (int i = 0; i < parsed.size(); i++) listener.onSuggestion(i + 1, parsed.get(i));
+            return new Attempt(response, false, TokenTelemetry.reloaded(result));
         }
-        prompt.append("\n");
 
-        prompt.append("### Git Diff\n")
-                .append("```\n").append(diff).append("\n```\n\n");
-
-        prompt.append("### 최종 출력 템플릿 (정확히 이 형식으로만 답변)\n");
-        for (int i = 1; i <= maxSuggestions; i++) {
-            prompt.append(i).append(". [커밋메시지]\n");
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+        StringBuilder full = new StringBuilder();
+        AtomicBoolean rejected = new AtomicBoolean();
+        int[] index = {0};
+        int[] chunks = {0};
+        // 메타데이터(load_duration 등)는 마지막(done) 조각에만 있음
+        AtomicReference<ChatResponse> last = new AtomicReference<>();
+        chatModel.stream(prompt)
+                .doOnNext(last::set)
+                .mapNotNull(r -> r.getResult() != null ? r.getResult().getOutput().getText() : null)
+                .doOnNext(chunk -> {
+                    full.append(chunk);
+                    chunks[0]++;
+                    for (String message : parser.accept(chunk)) {
+                        if (earlyAbort && index[0] == 0 && !containsHangul(message)) {
+                            rejected.set(true);
+                            return;
+                        }
+                        listener.onSuggestion(++index[0], message);
+                    }
+                })
+                .takeUntil(chunk -> rejected.get()) // 취소 신호가 Ollama 요청까지 전파됨
+                .blockLast();
+
+        if (rejected.get()) {
+            log.info("[LLMCommitMessageService] 첫 제안이 한국어가 아니어서 {}개 조각 후 생성 중단", chunks[0]);
+            return new Attempt(full.toString(), true, TokenTelemetry.reloaded(last.get()));
         }
-
-        return prompt.toString();
+        for (String message : parser.finish()) listener.onSuggestion(++index[0], message);
+        return new Attempt(full.toString(), false, TokenTelemetry.reloaded(last.get()));
     }
 
-
     private List<String> parseCommitMessages(String response) {
-        List<String> messages = new ArrayList<>();
-        
-        String[] lines = response.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            // 숫자로 시작하는 줄에서 커밋 메시지 추출
-            if (line.matches("^\\d+\\.\\s+.*")) {
-                String message = line.replaceFirst("^\\d+\\.\\s+", "");
-                if (!message.isBlank()) {
-                    messages.add(message);
-                }
-            }
-        }
+        List<String> messages = parseNumbered(response);
         
         // 파싱에 실패한 경우 전체 응답을 하나의 메시지로 사용
         if (messages.isEmpty() && !response.isBlank()) {
+            metrics.fallback("parse");
             messages.add(response.trim());
         }
         
         return messages;
     }
-    
-    private String collectDiff(boolean stagedFirst) {
-        try {
-            if (stagedFirst) {
-                String staged = git.execCapture(List.of("diff", "--cached"));
-                if (staged != null && !staged.isBlank()) return staged;
-                return git.execCapture(List.of("diff"));
-            } else {
-                String all = git.execCapture(List.of("diff"));
-                if (all != null && !all.isBlank()) return all;
-                return git.execCapture(List.of("diff", "--cached"));
+
+    // 번호 목록 형식의 줄만 추출 (벤치마크에서도 사용)
+    static List<String> parseNumbered(String response) {
+        List<String> messages = new ArrayList<>();
+        
+        String[] lines = response.split("\n");
+        for (String line : lines) {
+            // 숫자로 시작하는 줄에서 커밋 메시지 추출
+            String message = StreamingSuggestionParser.parseLine(line);
+            if (message != null) {
+                messages.add(message);
             }
-        } catch (Exception e) {
-            return "";
         }
+        return messages;
     }
-    
-    private List<String> collectChangedFiles(boolean stagedFirst) {
+
+    // MCP 요청이면 제안마다 logging notification 전송, 아니면 아무것도 하지 않음
+    private SuggestionListener mcpNotifier(ToolContext toolContext) {
+        if (toolContext == null) return SuggestionListener.NONE;
+        return McpToolUtils.getMcpExchange(toolContext)
+                .<SuggestionListener>map(exchange -> new SuggestionListener() {
+                    @Override
+                    public void onSuggestion(int index, String message) {
+                        notify(exchange, index + ". " + message);
+                    }
+
+                    @Override
+                    public void onReset() {
+                        notify(exchange, "(이전 제안 취소 - 다시 생성 중)");
+                    }
+                })
+                .orElse(SuggestionListener.NONE);
+    }
+
+    private static void notify(McpSyncServerExchange exchange, String text) {
         try {
-            if (stagedFirst) {
-                List<String> staged = toLines(git.execCapture(List.of("diff", "--name-only", "--cached")));
-                if (!staged.isEmpty()) return staged;
-                return toLines(git.execCapture(List.of("diff", "--name-only")));
-            } else {
-                List<String> all = toLines(git.execCapture(List.of("diff", "--name-only")));
-                if (!all.isEmpty()) return all;
-                return toLines(git.execCapture(List.of("diff", "--name-only", "--cached")));
-            }
+            exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                    McpSchema.LoggingLevel.INFO, "commit-suggestions", text));
         } catch (Exception e) {
-            return List.of();
+            log.debug("[LLMCommitMessageService] MCP 알림 전송 실패: {}", e.toString());
         }
     }
     
-    private List<String> toLines(String s) {
-        if (s == null || s.isBlank()) return List.of();
-        return Arrays.stream(s.split("\\R"))
-            .map(String::trim)
-            .filter(x -> !x.isBlank())
-            .toList();
+    /**
+     * 우선 쪽(stagedFirst면 staged) diff를 수집하고, 비어 있을 때만 다른 쪽을 수집해 하나의 불변 스냅샷으로 반환.
+     * 결과로 쓰이지 않을 diff는 계산하지 않는다 (staged 변경이 있으면 unstaged diff는 버려지므로).
+     * 파일 목록과 numstat은 같은 diff 출력에서 계산하므로 diff와 어긋나지 않는다.
+     */
+    private RepositorySnapshot collectSnapshot(GitExecutor git, boolean stagedFirst) {
+        RepositorySnapshot first = probe(git, stagedFirst).join();
+        if (!first.isEmpty()) return first;
+        return probe(git, !stagedFirst).join();
+    }
+
+    // 누적 캐시 적중/실패 수 (commit.cache.lookups와 같은 값), 캐시를 끄면 빈 문자열
+    private String cacheStats() {
+        if (!suggestionCache.isEnabled()) return "";
+        return String.format("[캐시 hit=%d, miss=%d, 합류=%d]", suggestionCache.hits(), suggestionCache.misses(), singleFlight.joined());
+    }
+
+    private CompletableFuture<RepositorySnapshot> probe(GitExecutor git, boolean cached) {
+        // 출력 전체를 버퍼링하지 않고 줄 단위로 흘려보내며 budget 안에서만 보관
+        SnapshotCollector collector = new SnapshotCollector(diffBudget, cached);
+        return git.execStreamAsync(cached ? List.of("diff", "--cached") : List.of("diff"), diffBudget.maxLineBytes(), collector)
+                .thenApply(done -> collector.build());
     }
     
     // Git 실행 인터페이스
     interface GitExecutor {
         String execCapture(List<String> args) throws IOException, InterruptedException;
+        void execStream(List<String> args, int maxLineBytes, Consumer<String> lines) throws IOException, InterruptedException;
+        // 완료 전에 마지막 줄까지 lines로 전달됨
+        CompletableFuture<Void> execStreamAsync(List<String> args, int maxLineBytes, Consumer<String> lines);
         int exec(List<String> args) throws IOException, InterruptedException;
+        File workingDirectory();
+
+        // 저장소 상태 정리 시 호출 (열어 둔 저장소 핸들 반환)
+        default void close() {
+        }
     }
     
     // AutoGitExecutor 어댑터
     static class AutoGitAdapter implements GitExecutor {
-        private final AutoGitExecutor delegate = new AutoGitExecutor();
+        private final AutoGitExecutor delegate;
+
+        AutoGitAdapter(AutoGitExecutor delegate) {
+            this.delegate = delegate;
+        }
         
         @Override
         public String execCapture(List<String> args) throws IOException, InterruptedException {
             return delegate.execCapture(args);
         }
+
+        @Override
+        public void execStream(List<String> args, int maxLineBytes, Consumer<String> lines) throws IOException, InterruptedException {
+            delegate.execStream(args, maxLineBytes, lines);
+        }
+
+        @Override
+        public CompletableFuture<Void> execStreamAsync(List<String> args, int maxLineBytes, Consumer<String> lines) {
+            return delegate.streamAsync(args, maxLineBytes, lines).thenAccept(result -> {
+                if (result.truncated()) {
+                    log.warn("[AutoGitAdapter] git 출력이 상한({} bytes)을 넘어 중간에 종료: git {}", result.bytes(), String.join(" ", args));
+                }
+                try {
+                    AutoGitExecutor.checkExit(args, result);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
         
         @Override
         public int exec(List<String> args) throws IOException, InterruptedException {
             return delegate.exec(args);
         }
+
+        @Override
+        public File workingDirectory() {
+            return delegate.getWorkingDirectory();
+        }
     }
     
+    // JGit 기반 in-process 어댑터: diff 계열은 프로세스 없이 처리하고 그 외 명령(commit 등)은 AutoGitExecutor로 위임
+    static class JGitAdapter extends AutoGitAdapter {
+        private final JGitDiffEngine engine;
+        // in-process diff 실행 풀 (저장소마다 따로 두어 한 저장소의 큰 diff가 다른 저장소를 막지 않게)
+        private final ExecutorService inProcess;
+
+        private JGitAdapter(AutoGitExecutor delegate, JGitDiffEngine engine, ExecutorService inProcess) {
+            super(delegate);
+            this.engine = engine;
+            this.inProcess = inProcess;
+        }
+
+        static GitExecutor createOrFallback(AutoGitExecutor delegate, ExecutorService inProcess) {
+            try {
+                return new JGitAdapter(delegate, new JGitDiffEngine(delegate.getWorkingDirectory()), inProcess);
+            } catch (IOException | RuntimeException e) {
+                log.warn("[JGitAdapter] 저장소를 열 수 없어 git 프로세스 모드로 동작합니다: {}", e.toString());
+                return new AutoGitAdapter(delegate);
+            }
+        }
+
+        @Override
+        public String execCapture(List<String> args) throws IOException, InterruptedException {
+            DiffArgs diff = DiffArgs.parse(args);
+            if (diff == null) {
+                return super.execCapture(args);
+            }
+            try {
+                return diff.nameOnly() ? String.join("\n", engine.changedFiles(diff.cached())) : engine.diff(diff.cached());
+            } catch (IOException | RuntimeException e) {
+                log.warn("[JGitAdapter] in-process diff 실패, git 프로세스로 재시도: {}", e.toString());
+                return super.execCapture(args);
+            }
+        }
+
+        @Override
+        public void execStream(List<String> args, int maxLineBytes, Consumer<String> lines) throws IOException, InterruptedException {
+            DiffArgs diff = DiffArgs.parse(args);
+            if (diff == null || diff.nameOnly()) {
+                super.execStream(args, maxLineBytes, lines);
+                return;
+            }
+            // 이미 일부 줄을 넘긴 뒤에는 중복 출력이 되므로 프로세스로 재시도하지 않음
+            AtomicBoolean emitted = new AtomicBoolean();
+            try (LineSplitter out = new LineSplitter(line -> { emitted.set(true); lines.accept(line); }, maxLineBytes)) {
+                engine.diff(diff.cached(), out);
+            } catch (IOException | RuntimeException e) {
+                if (emitted.get()) throw e;
+                log.warn("[JGitAdapter] in-process diff 실패, git 프로세스로 재시도: {}", e.toString());
+                super.execStream(args, maxLineBytes, lines);
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> execStreamAsync(List<String> args, int maxLineBytes, Consumer<String> lines) {
+            DiffArgs diff = DiffArgs.parse(args);
+            if (diff == null || diff.nameOnly()) {
+                return super.execStreamAsync(args, maxLineBytes, lines);
+            }
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    execStream(args, maxLineBytes, lines);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+            }, inProcess);
+        }
+
+        @Override
+        public void close() {
+            engine.close();
+        }
+
+        // 지원 형식: diff [--name-only] [--cached|--staged], 그 외는 null
+        private record DiffArgs(boolean cached, boolean nameOnly) {
+            static DiffArgs parse(List<String> args) {
+                if (args.isEmpty() || !"diff".equals(args.get(0))) return null;
+                boolean cached = false;
+                boolean nameOnly = false;
+                for (String arg : args.subList(1, args.size())) {
+                    switch (arg) {
+                        case "--cached", "--staged" -> cached = true;
+                        case "--name-only" -> nameOnly = true;
+                        default -> {
+                            return null;
+                        }
+                    }
+                }
+                return new DiffArgs(cached, nameOnly);
+            }
+        }
+    }
+
+    /**
+     * 제안이 하나 완성될 때마다 호출되는 콜백 (index는 1부터)
+     * onReset은 이미 전달한 제안이 무효가 되어 다시 생성할 때 호출된다.
+     */
+    public interface SuggestionListener {
+        SuggestionListener NONE = (index, message) -> { };
+
+        void onSuggestion(int index, String message);
+
+        default void onReset() {
+        }
+    }
+
     // DTO 클래스들
-    public record CommitSuggestionRequest(Integer maxSuggestions, Boolean stagedFirst) {}
+    /**
+     * includeTimings: 응답에 단계별 소요 시간(ms) 포함 여부, null이면 mcp.commit.include-timings
+     * repositoryPath: 대상 저장소 (null이면 서버의 기본 저장소)
+     */
+    public record CommitSuggestionRequest(Integer maxSuggestions, Boolean stagedFirst, Boolean includeTimings,
+                                          @ToolParam(required = false, description = "대상 git 저장소 경로 (저장소 안의 하위 경로도 가능), 생략하면 서버의 기본 저장소")
+                                          String repositoryPath) {
+        public CommitSuggestionRequest(Integer maxSuggestions, Boolean stagedFirst, Boolean includeTimings) {
+            this(maxSuggestions, stagedFirst, includeTimings, null);
+        }
+
+        public CommitSuggestionRequest(Integer maxSuggestions, Boolean stagedFirst) {
+            this(maxSuggestions, stagedFirst, null, null);
+        }
+    }
+    
+    /**
+     * timings: 단계별 소요 시간 ms (snapshot, cache, map, context, prompt, llm, retry, parse, total), 요청한 경우에만 포함
+     */
+    public record CommitSuggestionResponse(List<String> suggestions, String message,
+                                           @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Long> timings) {
+        public CommitSuggestionResponse(List<String> suggestions, String message) {
+            this(suggestions, message, null);
+        }
+    }
     
-    public record CommitSuggestionResponse(List<String> suggestions, String message) {}
+    public record HealthCheckRequest(Boolean fullGeneration) {}
     
-    public record CommitExecutionRequest(String message) {}
+    public record CommitExecutionRequest(String message,
+                                         @ToolParam(required = false, description = "커밋할 git 저장소 경로, 생략하면 서버의 기본 저장소")
+                                         String repositoryPath) {
+        public CommitExecutionRequest(String message) {
+            this(message, null);
+        }
+    }
 
 
     private interface ThrowingSupplier<T> { T get() throws Exception; }
@@ -364,14 +787,18 @@ public class LLMCommitMessageService {
         return String.format("%.3f", sec);
     }
 
-    private boolean looksEnglishDominant(String text) {
+    static boolean looksEnglishDominant(String text) {
         long lines = Arrays.stream(text.split("\\R")).filter(s -> !s.isBlank()).count();
         long enOnly = Arrays.stream(text.split("\\R"))
                 .map(String::trim)
                 .filter(s -> !s.isBlank())
-                .filter(s -> !s.matches(".*[가-힣].*")) // 한글 미포함
+                .filter(s -> !containsHangul(s)) // 한글 미포함
                 .count();
         return lines > 0 && ((double) enOnly / lines) > 0.6; // 60% 이상 영어
     }
 
+    private static boolean containsHangul(String text) {
+        return HANGUL.matcher(text).find();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package org.springframework.ai.mcp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.config.OllamaEndpoints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LLM 서버 상태 캐시.
+ * 백그라운드에서 interval마다 생성 없이 응답하는 /api/version, /api/tags만 호출해 상태를 갱신하고,
+ * checkLLMConnection은 메모리의 마지막 결과를 바로 반환한다 (GPU 사용 없음).
+ * 결과가 ttl보다 오래되면 비동기로 갱신을 요청하고 기존 결과를 그대로 돌려준다.
+ * 엔드포인트가 여러 개면 각각 확인하며, OllamaEndpointBalancer가 엔드포인트별 결과로 제외/복귀를 판단한다.
+ */
+@Slf4j
+@Component
+public class LLMHealthMonitor {
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP = new ParameterizedTypeReference<>() {};
+
+    public enum Status { UP, MODEL_MISSING, DOWN }
+
+    /**
+     * 전체 상태 (엔드포인트 중 가장 좋은 상태 기준, version: Ollama 버전, probeMillis: 확인에 걸린 시간)
+     */
+    public record HealthState(Status status, String version, Instant checkedAt, long probeMillis, String error,
+                              int endpointsUp, int endpointsTotal) {
+        public Duration age() {
+            return Duration.between(checkedAt, Instant.now());
+        }
+    }
+
+    /**
+     * 엔드포인트 하나의 상태 (models: /api/tags에 있는 모델 이름)
+     */
+    public record EndpointHealth(String url, Status status, String version, Set<String> models,
+                                 Instant checkedAt, long probeMillis, String error) {}
+
+    private final String model;
+    private final Duration interval;
+    private final Duration ttl;
+    private final Map<String, RestClient> clients = new LinkedHashMap<>();
+    private final Map<String, EndpointHealth> endpoints = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile HealthState state;
+    private ScheduledExecutorService scheduler;
+
+    public LLMHealthMonitor(OllamaEndpoints ollamaEndpoints,
+                            @Value("${spring.ai.ollama.chat.options.model}") String model,
+                            @Value("${mcp.health.interval:15s}") Duration interval,
+                            @Value("${mcp.health.ttl:30s}") Duration ttl,
+                            @Value("${mcp.health.probe-timeout:2s}") Duration probeTimeout) {
+        this.model = model;
+        this.interval = interval;
+        this.ttl = ttl;
+        // 상태 확인은 짧은 타임아웃이 필요하므로 생성용 커넥션 풀(긴 read-timeout)과 분리
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) probeTimeout.toMillis());
+        factory.setReadTimeout((int) probeTimeout.toMillis());
+        for (OllamaEndpoints.Endpoint endpoint : ollamaEndpoints.list()) {
+            clients.put(endpoint.url(), RestClient.builder().baseUrl(endpoint.url()).requestFactory(factory).build());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "llm-health");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::probe, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 캐시된 상태. 아직 한 번도 확인하지 않았으면 이 호출에서 한 번 확인한다.
+     */
+    public HealthState current() {
+        HealthState s = state;
+        if (s == null) {
+            probe();
+            return state;
+        }
+        if (s.age().compareTo(ttl) > 0 && scheduler != null && refreshing.compareAndSet(false, true)) {
+            // 오래된 결과는 그대로 반환하고 갱신은 백그라운드에서
+            scheduler.execute(() -> {
+                try {
+                    probe();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return s;
+    }
+
+    /**
+     * 엔드포인트별 마지막 확인 결과, 아직 확인 전이면 null
+     */
+    public EndpointHealth endpoint(String url) {
+        return endpoints.get(url);
+    }
+
+    private void probe() {
+        long t0 = System.nanoTime();
+        EndpointHealth best = null;
+        int up = 0;
+        for (Map.Entry<String, RestClient> e : clients.entrySet()) {
+            EndpointHealth h = probe(e.getKey(), e.getValue());
+            EndpointHealth prev = endpoints.put(h.url(), h);
+            if (prev == null || prev.status() != h.status()) {
+                log.info("[LLMHealthMonitor] {} 상태: {} → {}", h.url(), prev == null ? "-" : prev.status(), h.status());
+            }
+            if (h.status() == Status.UP) up++;
+            if (best == null || h.status().ordinal() < best.status().ordinal()) best = h;
+        }
+        state = new HealthState(best.status(), best.version(), Instant.now(),
+                Duration.ofNanos(System.nanoTime() - t0).toMillis(), best.error(), up, clients.size());
+    }
+
+    private EndpointHealth probe(String url, RestClient restClient) {
+        long t0 = System.nanoTime();
+        try {
+            Map<String, Object> version = restClient.get().uri("/api/version").retrieve().body(JSON_MAP);
+            Map<String, Object> tags = restClient.get().uri("/api/tags").retrieve().body(JSON_MAP);
+            String v = version != null ? String.valueOf(version.get("version")) : "?";
+            Set<String> models = modelNames(tags);
+            Status status = hasModel(models, model) ? Status.UP : Status.MODEL_MISSING;
+            return new EndpointHealth(url, status, v, models, Instant.now(), elapsedMillis(t0), null);
+        } catch (Exception e) {
+            return new EndpointHealth(url, Status.DOWN, null, Set.of(), Instant.now(), elapsedMillis(t0), e.toString());
+        }
+    }
+
+    private static Set<String> modelNames(Map<String, Object> tags) {
+        Set<String> names = new HashSet<>();
+        if (tags == null || !(tags.get("models") instanceof List<?> models)) return names;
+        for (Object m : models) {
+            if (m instanceof Map<?, ?> entry && entry.get("name") instanceof String name) names.add(name);
+        }
+        return Set.copyOf(names);
+    }
+
+    /**
+     * "gemma3" 처럼 태그 없이 설정하면 Ollama는 ":latest"로 저장
+     */
+    public static boolean hasModel(Set<String> models, String model) {
+        return models.contains(model.contains(":") ? model : model + ":latest");
+    }
+
+    private static long elapsedMillis(long t0) {
+        return Duration.ofNanos(System.nanoTime() - t0).toMillis();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,212 @@
+package org.springframework.ai.mcp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.util.GitDiffParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 여러 파일에 걸친 큰 diff를 위한 map-reduce 요약.
+ * 1) diff를 디렉터리(모듈) 단위 청크로 나누고
+ * 2) 청크마다 LLM 요약을 제한된 동시성으로 병렬 실행한 뒤
+ * 3) 요약 목록을 CommitPromptBuilder.buildReduce로 넘겨 한 번의 호출로 커밋 메시지를 만든다.
+ * 동시성은 Ollama 병렬 슬롯(OLLAMA_NUM_PARALLEL)에 맞춘다. 슬롯보다 많으면 서버 큐에서 대기할 뿐이다.
+ */
+@Slf4j
+@Component
+public class MapReduceSummarizer {
+    // 요약 프롬프트 문구를 바꾸면 올려서 이전 결과로 만든 캐시 항목이 재사용되지 않게 한다
+    private static final int TEMPLATE_VERSION = 1;
+    private static final int FALLBACK_SUMMARY_LINES = 8;
+
+    private final ChatModel chatModel;
+    private final GitDiffParser diffParser;
+    private final boolean enabled;
+    private final int minFiles;
+    private final long minDiffBytes;
+    private final int chunkBytes;
+    private final int concurrency;
+    private final Duration chunkTimeout;
+    private final ExecutorService mapPool;
+
+    public MapReduceSummarizer(ChatModel chatModel,
+                               GitDiffParser diffParser,
+                               @Value("${mcp.map-reduce.enabled:true}") boolean enabled,
+                               @Value("${mcp.map-reduce.min-files:12}") int minFiles,
+                               @Value("${mcp.map-reduce.min-diff-bytes:32768}") long minDiffBytes,
+                               @Value("${mcp.map-reduce.chunk-bytes:12288}") int chunkBytes,
+                               @Value("${mcp.map-reduce.concurrency:4}") int concurrency,
+                               @Value("${mcp.map-reduce.chunk-timeout:120s}") Duration chunkTimeout) {
+        this.chatModel = chatModel;
+        this.diffParser = diffParser;
+        this.enabled = enabled;
+        this.minFiles = minFiles;
+        this.minDiffBytes = minDiffBytes;
+        this.chunkBytes = chunkBytes;
+        this.concurrency = Math.max(1, concurrency);
+        this.chunkTimeout = chunkTimeout;
+        // 동시 LLM 호출 수는 concurrency로 제한하고, 호출 대기는 가상 스레드에서
+        this.mapPool = Executors.newFixedThreadPool(this.concurrency, Thread.ofVirtual().name("diff-map-", 0).factory());
+    }
+
+    /**
+     * diff 청크 하나 (module: 공통 디렉터리, files: 포함된 파일 경로)
+     */
+    record Chunk(String module, List<String> files, String diff) {}
+
+    /**
+     * 파일 수 또는 diff 크기가 기준 이상일 때만 map-reduce 사용
+     */
+    public boolean applies(RepositorySnapshot snapshot) {
+        if (!enabled || chatModel == null) return false;
+        String diff = snapshot.diff();
+        // UTF-8 바이트 수는 문자 수 이상이므로 문자 수로 넘으면 세지 않음
+        return snapshot.changes().size() >= minFiles
+                || diff.length() >= minDiffBytes || SnapshotCollector.utf8Length(diff) >= minDiffBytes;
+    }
+
+    /**
+     * 캐시 키에 들어가는 식별자 (요약 문구 버전 + 청크 분할 설정)
+     */
+    public String templateVersion() {
+        return "mr" + TEMPLATE_VERSION + "/" + chunkBytes;
+    }
+
+    /**
+     * map 단계: 청크별 요약을 병렬로 만들어 청크 순서대로 반환 ("module: 요약" 형식)
+     * 실패하거나 시간 초과된 청크는 GitDiffParser 구조적 요약으로 대신한다.
+     */
+    public List<String> summarize(RepositorySnapshot snapshot) {
+        long t0 = System.nanoTime();
+        List<Chunk> chunks = split(snapshot.diff(), chunkBytes);
+
+        List<Future<String>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            futures.add(mapPool.submit(() -> summarizeChunk(chunk)));
+        }
+
+        List<String> summaries = new ArrayList<>(chunks.size());
+        long deadline = System.nanoTime() + chunkTimeout.toNanos();
+        int fallbacks = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            String summary;
+            try {
+                summary = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("map 단계 중단됨", e);
+            } catch (ExecutionException | TimeoutException e) {
+                futures.get(i).cancel(true);
+                log.warn("[MapReduceSummarizer] 청크 요약 실패 ({}), 구조적 요약으로 대체: {}", chunk.module(), e.toString());
+                summary = structuralSummary(chunk);
+                fallbacks++;
+            }
+            summaries.add(chunk.module() + ": " + summary);
+        }
+
+        log.info("[MapReduceSummarizer] map 완료 - 청크 {}개, 대체 {}개, 동시성 {}, 소요시간: {} ms",
+                chunks.size(), fallbacks, concurrency, Duration.ofNanos(System.nanoTime() - t0).toMillis());
+        return summaries;
+    }
+
+    private String summarizeChunk(Chunk chunk) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("다음은 하나의 커밋에 포함된 변경사항 중 `").append(chunk.module()).append("` 부분의 git diff입니다.\n")
+                .append("무엇이 왜 바뀌었는지 3줄 이내의 한국어 문장으로 요약하십시오. ")
+                .append("커밋 메시지 형식이나 번호 목록은 쓰지 말고 요약만 출력하십시오.\n\n")
+                .append("### 파일\n");
+        chunk.files().forEach(f -> prompt.append("- ").append(f).append("\n"));
+        prompt.append("\n### Git Diff\n```\n").append(chunk.diff()).append("\n```\n");
+
+        String text = chatModel.call(new Prompt(prompt.toString())).getResult().getOutput().getText();
+        if (text == null || text.isBlank()) return structuralSummary(chunk);
+        // reduce 프롬프트에서 한 항목으로 보이도록 한 줄로 정리
+        return text.strip().replaceAll("\\s*\\R\\s*", " ");
+    }
+
+    private String structuralSummary(Chunk chunk) {
+        List<String> lines = diffParser.summarize(chunk.diff());
+        if (lines.isEmpty()) return String.join(", ", chunk.files()) + " 변경";
+        List<String> head = lines.subList(0, Math.min(lines.size(), FALLBACK_SUMMARY_LINES));
+        String joined = String.join("; ", head);
+        return lines.size() > head.size() ? joined + " 외 " + (lines.size() - head.size()) + "건" : joined;
+    }
+
+    /**
+     * diff를 파일 단위로 자른 뒤 같은 디렉터리의 인접 파일을 chunkBytes(UTF-8)까지 묶는다.
+     * git diff는 경로 순으로 출력되므로 같은 모듈의 파일은 항상 붙어 있다.
+     * 한 파일이 chunkBytes를 넘으면 그 파일만으로 청크를 만들고 줄 단위로 잘라낸다.
+     */
+    static List<Chunk> split(String diff, int chunkBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        String module = null;
+        List<String> files = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+        long bodyBytes = 0;
+
+        int start = 0;
+        if (!diff.startsWith("diff --git ")) {
+            int first = diff.indexOf("\ndiff --git ");
+            if (first < 0) return chunks;
+            start = first + 1;
+        }
+        while (start < diff.length()) {
+            int next = diff.indexOf("\ndiff --git ", start);
+            int end = next < 0 ? diff.length() : next + 1;
+            String file = diff.substring(start, end);
+            int eol = file.indexOf('\n');
+            String path = SnapshotCollector.pathFromDiffHeader(eol < 0 ? file : file.substring(0, eol));
+            String dir = directoryOf(path);
+
+            long fileBytes = SnapshotCollector.utf8Length(file);
+            boolean sameModule = dir.equals(module);
+            if (!files.isEmpty() && (!sameModule || bodyBytes + fileBytes > chunkBytes)) {
+                chunks.add(new Chunk(module, List.copyOf(files), body.toString()));
+                files.clear();
+                body.setLength(0);
+                bodyBytes = 0;
+            }
+            module = dir;
+            files.add(path);
+            body.append(fileBytes > chunkBytes ? cut(file, chunkBytes) : file);
+            bodyBytes += fileBytes;
+            start = end;
+        }
+        if (!files.isEmpty()) {
+            chunks.add(new Chunk(module, List.copyOf(files), body.toString()));
+        }
+        return chunks;
+    }
+
+    private static String directoryOf(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "." : path.substring(0, slash);
+    }
+
+    private static String cut(String file, int maxBytes) {
+        // 줄바꿈까지 포함해 UTF-8 maxBytes 이하, 줄바꿈이 없으면 문자 경계에서
+        String head = SnapshotCollector.truncateUtf8(file, maxBytes);
+        int eol = head.lastIndexOf('\n');
+        return (eol > 0 ? head.substring(0, eol + 1) : head) + "... (이하 생략)\n";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        mapPool.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+package org.springframework.ai.mcp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.config.OllamaEndpoints;
+import org.springframework.ai.mcp.config.OllamaHttpTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ollama 모델 예열 및 상주 유지.
+ * 시작 시 설정된 모델을 메모리에 올리고(빈 messages로 /api/chat 호출),
+ * 업무 시간 동안 ping-interval마다 같은 요청으로 keep_alive를 갱신해 모델이 내려가지 않게 한다.
+ * 실제 생성 요청도 keepAliveFor(model)을 옵션으로 보내므로 Ollama 기본값(5m)으로 되돌아가지 않는다.
+ * 생성 응답의 load_duration으로 모델을 다시 올렸는지 판단해 콜드/웜 지연을 나누어 집계한다 (생성 전에 따로 묻지 않음).
+ * 엔드포인트가 여러 개면 해당 모델을 제공하는 모든 엔드포인트에 예열/ping 한다.
+ */
+@Slf4j
+@Component
+public class ModelWarmup {
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP = new ParameterizedTypeReference<>() {};
+
+    private final String model;
+    private final boolean enabled;
+    private final String keepAlive;
+    private final Map<String, String> keepAlivePerModel;
+    private final Duration pingInterval;
+    private final LocalTime workStart;
+    private final LocalTime workEnd;
+    private final Set<DayOfWeek> workDays;
+    private final OllamaHttpTransport transport;
+    private final OllamaEndpoints endpoints;
+    private final Map<String, RestClient> clients = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong preloads = new AtomicLong();
+    private final AtomicLong pings = new AtomicLong();
+    private final AtomicLong lastLoadNanos = new AtomicLong();
+    private final AtomicLong lastActivity = new AtomicLong();
+    private final LatencyStats cold = new LatencyStats();
+    private final LatencyStats warm = new LatencyStats();
+
+    public ModelWarmup(OllamaHttpTransport transport,
+                       OllamaEndpoints endpoints,
+                       @Value("${spring.ai.ollama.chat.options.model}") String model,
+                       @Value("${mcp.warmup.enabled:true}") boolean enabled,
+                       @Value("${mcp.warmup.keep-alive:30m}") String keepAlive,
+                       @Value("${mcp.warmup.keep-alive-per-model:}") String keepAlivePerModel,
+                       @Value("${mcp.warmup.ping-interval:4m}") Duration pingInterval,
+                       @Value("${mcp.warmup.working-hours:09:00-19:00}") String workingHours,
+                       @Value("${mcp.warmup.working-days:MON-FRI}") String workingDays) {
+        this.transport = transport;
+        this.endpoints = endpoints;
+        this.model = model;
+        this.enabled = enabled;
+        this.keepAlive = keepAlive;
+        this.keepAlivePerModel = parseKeepAlive(keepAlivePerModel);
+        this.pingInterval = pingInterval;
+        String[] hours = workingHours.split("-");
+        this.workStart = LocalTime.parse(hours[0].trim());
+        this.workEnd = LocalTime.parse(hours[1].trim());
+        this.workDays = parseDays(workingDays);
+    }
+
+    /**
+     * 콜드(모델 로딩 포함) / 웜 생성 지연 및 예열 통계
+     */
+    public record WarmupStats(String model, String keepAlive, long preloads, long pings, long lastLoadMillis,
+                              long coldCount, double coldAvgMillis, long warmCount, double warmAvgMillis) {}
+
+    /**
+     * 모델별 keep_alive (Ollama duration 문자열: "30m", "1h", 음수("-1m")면 무기한).
+     * Ollama는 문자열을 Go duration으로 해석해 단위 없는 "-1"을 거부하므로, 숫자만 적었으면 초 단위로 붙여 보낸다
+     * (숫자 keep_alive는 Ollama에서도 초 단위)
+     */
+    public String keepAliveFor(String model) {
+        String value = keepAlivePerModel.getOrDefault(model, keepAlive).trim();
+        return value.matches("-?\\d+") ? value + "s" : value;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ollama-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(this::preload);
+        long interval = pingInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::ping, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void preload() {
+        for (String url : targets()) {
+            try {
+                long load = load(url);
+                preloads.incrementAndGet();
+                log.info("[ModelWarmup] 모델 예열 완료 - {} model={}, 로딩: {} ms, keep_alive={}", url, model, load / 1_000_000, keepAliveFor(model));
+            } catch (Exception e) {
+                log.warn("[ModelWarmup] 모델 예열 실패 (Ollama 미실행?) {}: {}", url, e.toString());
+            }
+        }
+    }
+
+    private void ping() {
+        if (!inWorkingHours(LocalDateTime.now())) return;
+        // 최근에 실제 요청이 있었으면 keep_alive가 이미 갱신됨 (여러 엔드포인트면 요청이 어디로 갔는지 모르므로 모두 ping)
+        long last = lastActivity.get();
+        if (endpoints.list().size() == 1 && last != 0 && System.nanoTime() - last < pingInterval.toNanos()) return;
+        for (String url : targets()) {
+            try {
+                long load = load(url);
+                pings.incrementAndGet();
+                if (load > Duration.ofSeconds(1).toNanos()) {
+                    log.info("[ModelWarmup] ping 중 모델 재로딩됨 - {} {} ms", url, load / 1_000_000);
+                }
+            } catch (Exception e) {
+                log.debug("[ModelWarmup] ping 실패 {}: {}", url, e.toString());
+            }
+        }
+    }
+
+    /**
+     * 빈 messages로 /api/chat 호출 → 모델 로딩(또는 keep_alive 갱신)만 하고 생성은 하지 않음.
+     * 반환값은 Ollama가 보고한 load_duration (ns)
+     */
+    private long load(String url) {
+        Map<String, Object> body = Map.of(
+                "model", model,
+                "messages", List.of(),
+                "keep_alive", keepAliveFor(model),
+                "stream", false);
+        Map<String, Object> response = client(url).post().uri("/api/chat").body(body).retrieve().body(JSON_MAP);
+        lastActivity.set(System.nanoTime());
+        long load = response != null && response.get("load_duration") instanceof Number n ? n.longValue() : 0L;
+        lastLoadNanos.set(load);
+        return load;
+    }
+
+    private List<String> targets() {
+        return endpoints.list().stream().filter(e -> e.declares(model)).map(OllamaEndpoints.Endpoint::url).toList();
+    }
+
+    /**
+     * 생성 한 건의 지연 기록 (coldStart: 응답의 load_duration으로 본 모델 재로딩 여부)
+     */
+    public void recordGeneration(boolean coldStart, Duration elapsed) {
+        lastActivity.set(System.nanoTime());
+        (coldStart ? cold : warm).add(elapsed);
+    }
+
+    public WarmupStats stats() {
+        return new WarmupStats(model, keepAliveFor(model), preloads.get(), pings.get(), lastLoadNanos.get() / 1_000_000,
+                cold.count(), cold.avgMillis(), warm.count(), warm.avgMillis());
+    }
+
+    boolean inWorkingHours(LocalDateTime now) {
+        if (!workDays.contains(now.getDayOfWeek())) return false;
+        LocalTime t = now.toLocalTime();
+        return workStart.isBefore(workEnd)
+                ? !t.isBefore(workStart) && t.isBefore(workEnd)
+                : !t.isBefore(workStart) || t.isBefore(workEnd); // 자정을 넘기는 구간 (예: 22:00-06:00)
+    }
+
+    private RestClient client(String url) {
+        return clients.computeIfAbsent(url, u -> RestClient.builder().baseUrl(u).requestFactory(transport.requestFactory()).build());
+    }
+
+    // "gemma3:12b-it-qat=1h, llama3.1:8b=10m"
+    private static Map<String, String> parseKeepAlive(String spec) {
+        Map<String, String> map = new HashMap<>();
+        for (String item : spec.split(",")) {
+            int eq = item.lastIndexOf('=');
+            if (eq > 0) map.put(item.substring(0, eq).trim(), item.substring(eq + 1).trim());
+        }
+        return map;
+    }
+
+    // "MON-FRI", "MON,WED,FRI", "SAT-SUN"
+    private static Set<DayOfWeek> parseDays(String spec) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String item : spec.split(",")) {
+            String[] range = item.trim().split("-");
+            DayOfWeek from = dayOf(range[0]);
+            DayOfWeek to = range.length > 1 ? dayOf(range[1]) : from;
+            for (DayOfWeek d = from; ; d = d.plus(1)) {
+                days.add(d);
+                if (d == to) break;
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek dayOf(String abbr) {
+        String a = abbr.trim().toUpperCase();
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(a)) return d;
+        }
+        throw new IllegalArgumentException("알 수 없는 요일: " + abbr);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private static final class LatencyStats {
+        private long count;
+        private long totalNanos;
+
+        synchronized void add(Duration d) {
+            count++;
+            totalNanos += d.toNanos();
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized double avgMillis() {
+            return count == 0 ? 0 : totalNanos / (double) count / 1_000_000;
+        }
+    }
+}
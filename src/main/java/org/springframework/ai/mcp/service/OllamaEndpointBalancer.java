@@ -0,0 +1,313 @@
+package org.springframework.ai.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.config.OllamaEndpoints;
+import reactor.core.publisher.Flux;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 Ollama 엔드포인트 사이의 부하 분산.
+ * 요청마다 모델을 제공하는 엔드포인트 중 (진행 중 요청 수 + 1) × 지연 EWMA / weight 가 가장 작은 곳을 고른다.
+ * 지연 EWMA는 call(전체 응답까지)과 stream(첫 조각까지)을 따로 두고, 표본이 없는 엔드포인트는 다른 엔드포인트의
+ * 중앙값으로 본다 (새 엔드포인트에 요청이 몰리지 않게). 실패하면 EWMA를 FAILURE_PENALTY배로 늘린다.
+ * - 수동 제외: 연속 ejectAfter번 실패하면 ejectDuration 동안 제외. 그 뒤에는 한 번에 요청 하나만 보내 시험하고
+ *   (/api/version이 UP이어도 생성이 성공하기 전까지는 시험 상태) 성공하면 복귀, 실패하면 다시 제외
+ * - 능동 제외: LLMHealthMonitor 결과가 DOWN이거나 모델이 없는 엔드포인트는 제외
+ * 첫 응답 전에 실패하면 다른 엔드포인트로 한 번 재시도한다 (호출한 쪽이 취소한 요청은 실패로 보지 않고 재시도하지 않음). 남은 엔드포인트가 모두 제외 상태면
+ * 설정상 모델을 제공하는 엔드포인트 중에서 고른다 (엔드포인트가 하나일 때 기존 동작과 같음).
+ * 모든 호출의 토큰 수 / 처리량 / 첫 토큰 지연은 TokenTelemetry에 엔드포인트와 함께 기록한다.
+ */
+@Slf4j
+public class OllamaEndpointBalancer implements ChatModel {
+
+    /**
+     * 부하 분산 설정 (ewmaAlpha: 새 표본의 가중치)
+     */
+    public record Settings(int ejectAfter, Duration ejectDuration, double ewmaAlpha) {}
+
+    public record EndpointStats(String url, int weight, String health, boolean ejected, int outstanding,
+                                double callEwmaMillis, double streamEwmaMillis, long calls, long failures) {}
+
+    public record BalancerStats(List<EndpointStats> endpoints, long retries) {}
+
+    // 실패 한 번에 지연 EWMA를 늘리는 배수 (연속 실패 전에도 실패한 엔드포인트를 덜 고르게)
+    private static final double FAILURE_PENALTY = 2.0;
+
+    private final List<Member> members = new ArrayList<>();
+    private final LLMHealthMonitor healthMonitor;
+    private final TokenTelemetry telemetry;
+    private final String defaultModel;
+    private final Settings settings;
+    private final AtomicLong retries = new AtomicLong();
+
+    public OllamaEndpointBalancer(Map<OllamaEndpoints.Endpoint, ChatModel> models, LLMHealthMonitor healthMonitor,
+                                  TokenTelemetry telemetry, String defaultModel, Settings settings) {
+        models.forEach((endpoint, model) -> members.add(new Member(endpoint, model)));
+        this.healthMonitor = healthMonitor;
+        this.telemetry = telemetry;
+        this.defaultModel = defaultModel;
+        this.settings = settings;
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return members.get(0).model.getDefaultOptions();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String model = modelOf(prompt);
+        Member first = pick(model, null, false);
+        try {
+            return first.call(prompt, model);
+        } catch (RuntimeException e) {
+            // hedge에 진 요청이나 deadline으로 끊긴 요청은 다른 엔드포인트로 다시 보내지 않음
+            if (cancelled(e)) throw e;
+            Member second = pick(model, first, false);
+            if (second == first) throw e;
+            retries.incrementAndGet();
+            log.info("[OllamaEndpointBalancer] {} 실패 → {} 로 재시도: {}", first.endpoint.url(), second.endpoint.url(), e.toString());
+            return second.call(prompt, model);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            String model = modelOf(prompt);
+            Member first = pick(model, null, true);
+            AtomicBoolean emitted = new AtomicBoolean();
+            return first.stream(prompt, model)
+                    .doOnNext(r -> emitted.set(true))
+                    .onErrorResume(e -> {
+                        // 이미 조각을 보냈으면 이어 붙일 수 없으므로 그대로 실패
+                        if (emitted.get()) return Flux.error(e);
+                        Member second = pick(model, first, true);
+                        if (second == first) return Flux.error(e);
+                        retries.incrementAndGet();
+                        log.info("[OllamaEndpointBalancer] {} 실패 → {} 로 재시도 (stream): {}", first.endpoint.url(), second.endpoint.url(), e.toString());
+                        return second.stream(prompt, model);
+                    });
+        });
+    }
+
+    public BalancerStats stats() {
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Member m : members) stats.add(m.stats());
+        return new BalancerStats(stats, retries.get());
+    }
+
+    /**
+     * 점수가 가장 낮은 엔드포인트, exclude는 재시도 시 방금 실패한 엔드포인트.
+     * 다른 후보가 없으면 exclude를 그대로 반환
+     */
+    private Member pick(String model, Member exclude, boolean stream) {
+        long now = System.nanoTime();
+        double seed = medianLatency(model, stream);
+        Member best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Member m : members) {
+            if (m == exclude || !m.eligible(model, now)) continue;
+            double score = m.score(stream, seed);
+            if (score < bestScore) {
+                best = m;
+                bestScore = score;
+            }
+        }
+        if (best != null) return best;
+        // 모두 제외 상태: 설정상 모델을 제공하는 엔드포인트 중 가장 먼저 복귀 예정인 곳
+        for (Member m : members) {
+            if (m == exclude || !m.endpoint.declares(model)) continue;
+            if (best == null || m.ejectedUntil < best.ejectedUntil) best = m;
+        }
+        if (best != null) return best;
+        if (exclude != null) return exclude;
+        throw new IllegalStateException("모델 " + model + " 을 제공하는 Ollama 엔드포인트가 없습니다");
+    }
+
+    /**
+     * 모델을 제공하는 엔드포인트들의 지연 EWMA 중앙값, 표본이 있는 엔드포인트가 없으면 0
+     */
+    private double medianLatency(String model, boolean stream) {
+        List<Double> seeded = new ArrayList<>();
+        for (Member m : members) {
+            double ewma = m.ewma(stream);
+            if (ewma > 0 && m.endpoint.declares(model)) seeded.add(ewma);
+        }
+        if (seeded.isEmpty()) return 0;
+        Collections.sort(seeded);
+        int mid = seeded.size() / 2;
+        return seeded.size() % 2 == 1 ? seeded.get(mid) : (seeded.get(mid - 1) + seeded.get(mid)) / 2;
+    }
+
+    private String modelOf(Prompt prompt) {
+        ChatOptions options = prompt.getOptions();
+        return options != null && options.getModel() != null ? options.getModel() : defaultModel;
+    }
+
+    /**
+     * 호출한 쪽이 요청을 취소했는지 (RoutingChatModel이 hedge에 진 요청 / deadline 초과 요청의 스레드를 interrupt함).
+     * 엔드포인트 실패가 아니므로 벌점, 연속 실패, 재시도 대상에서 뺀다. 소켓 read-timeout은 실패로 본다.
+     */
+    static boolean cancelled(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException
+                    || t instanceof ClosedByInterruptException
+                    || (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 엔드포인트 하나: 진행 중 요청 수, 지연 EWMA (call / stream), 연속 실패
+     */
+    private final class Member {
+        final OllamaEndpoints.Endpoint endpoint;
+        final ChatModel model;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private double callEwmaNanos;
+        private double streamEwmaNanos;
+        private int consecutiveFailures;
+        private volatile long ejectedUntil;
+
+        Member(OllamaEndpoints.Endpoint endpoint, ChatModel model) {
+            this.endpoint = endpoint;
+            this.model = model;
+        }
+
+        ChatResponse call(Prompt prompt, String modelName) {
+            long t0 = start();
+            try {
+                ChatResponse response = model.call(prompt);
+                onSuccess(false, System.nanoTime() - t0);
+                telemetry.record(modelName, endpoint.url(), response, t0, 0);
+                return response;
+            } catch (RuntimeException e) {
+                if (!cancelled(e)) onFailure(false, modelName, e);
+                throw e;
+            } finally {
+                outstanding.decrementAndGet();
+            }
+        }
+
+        // stream은 첫 조각까지의 시간을 지연으로 기록 (대기열 적체가 가장 먼저 드러나는 값)
+        Flux<ChatResponse> stream(Prompt prompt, String modelName) {
+            return Flux.defer(() -> {
+                long t0 = start();
+                long[] firstAt = {0};
+                ChatResponse[] last = {null};
+                return model.stream(prompt)
+                        .doOnNext(r -> {
+                            if (firstAt[0] == 0) {
+                                firstAt[0] = System.nanoTime();
+                                onSuccess(true, firstAt[0] - t0);
+                            }
+                            last[0] = r;
+                        })
+                        // 토큰 수 / 생성 시간은 마지막(done) 조각의 메타데이터에만 있음
+                        .doOnComplete(() -> telemetry.record(modelName, endpoint.url(), last[0], t0, firstAt[0]))
+                        .doOnError(e -> onFailure(true, modelName, e))
+                        .doFinally(signal -> outstanding.decrementAndGet());
+            });
+        }
+
+        private long start() {
+            outstanding.incrementAndGet();
+            calls.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        boolean eligible(String model, long now) {
+            if (!endpoint.declares(model)) return false;
+            LLMHealthMonitor.EndpointHealth health = healthMonitor.endpoint(endpoint.url());
+            if (health != null) {
+                if (health.status() == LLMHealthMonitor.Status.DOWN) return false;
+                // models 설정이 없으면 /api/tags 결과로 판단
+                if (endpoint.models().isEmpty() && !LLMHealthMonitor.hasModel(health.models(), model)) return false;
+            }
+            if (ejected(now)) return false;
+            // 제외 기간이 끝난 뒤 아직 성공하지 못했으면 시험 요청 하나만 (진행 중이면 다른 엔드포인트로)
+            return !onProbation() || outstanding.get() == 0;
+        }
+
+        private synchronized boolean onProbation() {
+            return consecutiveFailures >= settings.ejectAfter();
+        }
+
+        boolean ejected(long now) {
+            long until = ejectedUntil;
+            return until != 0 && now - until < 0;
+        }
+
+        // seed: 표본이 없을 때 쓸 지연 (다른 엔드포인트의 중앙값),
+        // 그것도 없으면 지연 1로 두고 진행 중 요청 수 / weight만으로 비교
+        synchronized double score(boolean stream, double seed) {
+            double ewma = ewma(stream);
+            double latency = ewma != 0 ? ewma : seed != 0 ? seed : 1;
+            return (outstanding.get() + 1) * latency / endpoint.weight();
+        }
+
+        synchronized double ewma(boolean stream) {
+            return stream ? streamEwmaNanos : callEwmaNanos;
+        }
+
+        private synchronized void onSuccess(boolean stream, long nanos) {
+            double ewma = ewma(stream);
+            setEwma(stream, ewma == 0 ? nanos : settings.ewmaAlpha() * nanos + (1 - settings.ewmaAlpha()) * ewma);
+            consecutiveFailures = 0;
+            ejectedUntil = 0;
+        }
+
+        private void onFailure(boolean stream, String modelName, Throwable e) {
+            // 중앙값 계산이 다른 Member의 락을 잡으므로 이 Member의 락 밖에서
+            double seed = medianLatency(modelName, stream);
+            synchronized (this) {
+                double base = ewma(stream) != 0 ? ewma(stream) : seed;
+                if (base > 0) setEwma(stream, base * FAILURE_PENALTY);
+                recordFailure(e);
+            }
+        }
+
+        private void setEwma(boolean stream, double value) {
+            if (stream) streamEwmaNanos = value;
+            else callEwmaNanos = value;
+        }
+
+        private void recordFailure(Throwable e) {
+            failures.incrementAndGet();
+            if (++consecutiveFailures >= settings.ejectAfter() && !ejected(System.nanoTime())) {
+                ejectedUntil = System.nanoTime() + settings.ejectDuration().toNanos();
+                log.warn("[OllamaEndpointBalancer] {} 연속 {}회 실패 → {}s 동안 제외: {}",
+                        endpoint.url(), consecutiveFailures, settings.ejectDuration().toSeconds(), e.toString());
+            }
+        }
+
+        synchronized EndpointStats stats() {
+            LLMHealthMonitor.EndpointHealth health = healthMonitor.endpoint(endpoint.url());
+            return new EndpointStats(endpoint.url(), endpoint.weight(), health == null ? "UNKNOWN" : health.status().name(),
+                    ejected(System.nanoTime()), outstanding.get(), callEwmaNanos / 1_000_000, streamEwmaNanos / 1_000_000,
+                    calls.get(), failures.get());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.springframework.ai.mcp.service;
+
+import java.util.List;
+
+/**
+ * 한 번의 git diff 결과로 만든 저장소 변경 스냅샷 (불변).
+ * diff 본문, name-status, numstat이 모두 같은 출력에서 나오므로 서로 어긋나지 않는다.
+ * truncated가 true이면 diff 본문은 DiffBudget에 맞게 일부 생략되었고, changes는 항상 전체 기준이다.
+ */
+public record RepositorySnapshot(String diff, List<FileChange> changes, boolean staged, boolean truncated) {
+
+    public RepositorySnapshot {
+        diff = diff == null ? "" : diff;
+        changes = List.copyOf(changes);
+    }
+
+    /**
+     * 파일 단위 변경 정보 (status: A/M/D/R, 바이너리 파일은 added/deleted = -1)
+     */
+    public record FileChange(char status, String path, int added, int deleted) {
+        public boolean binary() {
+            return added < 0;
+        }
+    }
+
+    public static RepositorySnapshot empty(boolean staged) {
+        return new RepositorySnapshot("", List.of(), staged, false);
+    }
+
+    public boolean isEmpty() {
+        return diff.isBlank() && changes.isEmpty();
+    }
+
+    public List<String> files() {
+        return changes.stream().map(FileChange::path).toList();
+    }
+
+    /**
+     * 이미 메모리에 있는 unified diff 문자열로 스냅샷 생성 (크기 제한 없음)
+     */
+    public static RepositorySnapshot fromUnifiedDiff(String diff, boolean staged) {
+        if (diff == null || diff.isBlank()) return empty(staged);
+        SnapshotCollector collector = new SnapshotCollector(DiffBudget.UNLIMITED, staged);
+        diff.lines().forEach(collector);
+        return collector.build();
+    }
+}
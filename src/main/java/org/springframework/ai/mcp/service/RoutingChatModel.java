@@ -0,0 +1,418 @@
+package org.springframework.ai.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주 LLM(Ollama)과 보조 LLM(OpenAI 호환: llama.cpp, vLLM 등) 사이의 라우터.
+ * - 제공자마다 circuit breaker: 최근 호출의 실패율이 기준을 넘으면 open-duration 동안 호출하지 않는다.
+ * - hedging: 주 제공자가 자신의 p95 지연 안에 끝나지 않으면 보조 제공자에도 같은 요청을 보내고 먼저 끝난 쪽을 쓴다.
+ *   p95는 call(전체 응답까지)과 stream(첫 조각까지)을 따로 집계한다. 진 쪽 요청은 취소한다:
+ *   stream은 구독 취소로 HTTP 요청이 닫히고, call은 요청 중인 가상 스레드를 interrupt해 소켓을 닫는다
+ *   (가상 스레드의 java.net.Socket 블로킹 I/O는 interrupt되면 소켓을 닫고 예외로 빠져나옴, JDK 21).
+ * - deadline: 전체 호출은 설정된 시간 안에 끝나거나 실패하므로 꼬리 지연이 소켓 read-timeout(최대 300s)에 묶이지 않는다.
+ * 보조 제공자가 없으면 breaker와 deadline만 적용된다.
+ */
+@Slf4j
+public class RoutingChatModel implements ChatModel {
+
+    /**
+     * 라우터 설정 (hedgeInitialDelay: p95 계산에 필요한 표본이 모이기 전 사용할 hedge 지연)
+     */
+    public record Settings(Duration deadline, Duration streamIdleTimeout, boolean hedgeEnabled,
+                           Duration hedgeInitialDelay, Duration hedgeMinDelay,
+                           int breakerWindow, double breakerFailureRate, int breakerMinCalls, Duration breakerOpenDuration) {}
+
+    /**
+     * 제공자별 상태
+     */
+    public record ProviderStats(String name, String breaker, long calls, long failures,
+                                double callP95Millis, double streamFirstChunkP95Millis) {}
+
+    public record RouterStats(List<ProviderStats> providers, long hedges, long hedgeWins, long shortCircuits) {}
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final Provider primary;
+    private final Provider secondary;
+    private final Settings settings;
+    // 호출마다 수 분까지 블로킹되므로 가상 스레드 (hedge 요청도 스레드 하나씩)
+    private final ExecutorService callPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("llm-router-", 0).factory());
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong shortCircuits = new AtomicLong();
+
+    /**
+     * secondary는 null 가능
+     */
+    public RoutingChatModel(String primaryName, ChatModel primary, String secondaryName, ChatModel secondary, Settings settings) {
+        this.settings = settings;
+        this.primary = new Provider(primaryName, primary, settings);
+        this.secondary = secondary == null ? null : new Provider(secondaryName, secondary, settings);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return primary.model.getDefaultOptions();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long deadline = System.nanoTime() + settings.deadline().toNanos();
+        if (!primary.breaker.allow()) {
+            shortCircuits.incrementAndGet();
+            if (!secondaryAllowed()) {
+                throw new IllegalStateException("LLM 제공자 circuit open (" + primary.name + ")");
+            }
+            return await(secondary.submit(prompt, callPool), deadline);
+        }
+
+        CompletableFuture<ChatResponse> first = primary.submit(prompt, callPool);
+        if (secondary == null) {
+            return await(first, deadline);
+        }
+
+        // 주 제공자가 평소(p95)보다 느리면 보조 제공자로 hedge, 실패하면 바로 전환
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        long hedgeAfter = settings.hedgeEnabled() ? Math.min(primary.hedgeDelay(primary.callLatency).toNanos(), remaining) : remaining;
+        try {
+            return first.get(hedgeAfter, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            if (!settings.hedgeEnabled() || !secondaryAllowed()) {
+                return await(first, deadline);
+            }
+            hedges.incrementAndGet();
+            log.info("[RoutingChatModel] {} 응답 지연 ({} ms 초과) → {} 로 hedge", primary.name, hedgeAfter / 1_000_000, secondary.name);
+        } catch (ExecutionException failed) {
+            if (!secondaryAllowed()) throw unwrap(failed);
+            log.info("[RoutingChatModel] {} 실패 → {} 로 전환: {}", primary.name, secondary.name, failed.getCause().toString());
+            return await(secondary.submit(prompt, callPool), deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel(true);
+            throw new IllegalStateException(e);
+        }
+
+        CompletableFuture<ChatResponse> second = secondary.submit(prompt, callPool);
+        try {
+            ChatResponse response = await(firstSuccessful(first, second), deadline);
+            if (second.isDone() && !second.isCompletedExceptionally() && second.getNow(null) == response) {
+                hedgeWins.incrementAndGet();
+            }
+            return response;
+        } finally {
+            // 진 쪽(또는 시간 초과 시 둘 다)의 HTTP 요청 중단, 이미 끝났으면 아무 일도 없음
+            first.cancel(true);
+            second.cancel(true);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        if (!primary.breaker.allow()) {
+            shortCircuits.incrementAndGet();
+            return Flux.defer(() -> secondaryAllowed()
+                            ? secondary.stream(prompt)
+                            : Flux.<ChatResponse>error(new IllegalStateException("LLM 제공자 circuit open (" + primary.name + ")")))
+                    .timeout(settings.streamIdleTimeout());
+        }
+
+        if (secondary == null) {
+            return primary.stream(prompt).timeout(settings.streamIdleTimeout());
+        }
+
+        // 주 제공자가 p95 안에 첫 조각을 못 보내거나 실패하면 보조 제공자 시작,
+        // 먼저 값을 보낸 쪽을 쓰고 나머지는 취소 (HTTP 요청도 함께 취소됨)
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Flux<ChatResponse> first = primary.stream(prompt).doOnError(e -> primaryFailed.tryEmitEmpty());
+        Mono<Void> trigger = settings.hedgeEnabled()
+                ? Mono.firstWithSignal(Mono.delay(primary.hedgeDelay(primary.streamLatency)).then(), primaryFailed.asMono())
+                : primaryFailed.asMono();
+        AtomicBoolean secondaryUsed = new AtomicBoolean();
+        Flux<ChatResponse> hedge = trigger.thenMany(Flux.defer(() -> {
+            if (!secondaryAllowed()) {
+                return Flux.<ChatResponse>error(new IllegalStateException("보조 LLM 제공자 사용 불가"));
+            }
+            hedges.incrementAndGet();
+            log.info("[RoutingChatModel] {} 첫 응답 지연/실패 → {} 로 hedge (stream)", primary.name, secondary.name);
+            return secondary.stream(prompt)
+                    .doOnNext(r -> {
+                        if (secondaryUsed.compareAndSet(false, true)) hedgeWins.incrementAndGet();
+                    });
+        }));
+        return Flux.firstWithValue(first, hedge).timeout(settings.streamIdleTimeout());
+    }
+
+    public RouterStats stats() {
+        List<ProviderStats> providers = new ArrayList<>();
+        providers.add(primary.stats());
+        if (secondary != null) providers.add(secondary.stats());
+        return new RouterStats(providers, hedges.get(), hedgeWins.get(), shortCircuits.get());
+    }
+
+    public void shutdown() {
+        callPool.shutdownNow();
+    }
+
+    private ChatResponse await(CompletableFuture<ChatResponse> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("LLM 응답 시간 초과 (" + settings.deadline().toSeconds() + "s)", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean secondaryAllowed() {
+        return secondary != null && secondary.breaker.allow();
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+    }
+
+    // 둘 중 먼저 성공한 결과, 둘 다 실패하면 마지막 실패
+    private static CompletableFuture<ChatResponse> firstSuccessful(CompletableFuture<ChatResponse> a, CompletableFuture<ChatResponse> b) {
+        CompletableFuture<ChatResponse> result = new CompletableFuture<>();
+        AtomicLong failures = new AtomicLong();
+        for (CompletableFuture<ChatResponse> f : List.of(a, b)) {
+            f.whenComplete((r, e) -> {
+                if (e == null) result.complete(r);
+                else if (failures.incrementAndGet() == 2) result.completeExceptionally(e);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 제공자 하나: breaker + 최근 지연 분포 (call: 전체 응답까지, stream: 첫 조각까지)
+     */
+    private static final class Provider {
+        final String name;
+        final ChatModel model;
+        final CircuitBreaker breaker;
+        private final Settings settings;
+        final LatencyWindow callLatency = new LatencyWindow();
+        final LatencyWindow streamLatency = new LatencyWindow();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        Provider(String name, ChatModel model, Settings settings) {
+            this.name = name;
+            this.model = model;
+            this.settings = settings;
+            this.breaker = new CircuitBreaker(settings);
+        }
+
+        /**
+         * 반환된 future를 cancel하면 요청 중인 스레드를 interrupt한다
+         * (CompletableFuture.supplyAsync의 cancel은 실행 중인 작업을 멈추지 않으므로 직접 연결)
+         */
+        CompletableFuture<ChatResponse> submit(Prompt prompt, ExecutorService pool) {
+            CompletableFuture<ChatResponse> result = new CompletableFuture<>();
+            Future<?> task = pool.submit(() -> {
+                long t0 = System.nanoTime();
+                calls.incrementAndGet();
+                try {
+                    ChatResponse response = model.call(prompt);
+                    callLatency.record(System.nanoTime() - t0);
+                    breaker.onSuccess();
+                    result.complete(response);
+                } catch (RuntimeException e) {
+                    // 취소로 끊긴 요청은 제공자 실패가 아님
+                    if (result.isCancelled()) return;
+                    failures.incrementAndGet();
+                    breaker.onFailure();
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((r, e) -> {
+                if (!result.isCancelled()) return;
+                task.cancel(true);
+                breaker.onCancel();
+            });
+            return result;
+        }
+
+        // stream은 첫 조각까지의 시간을 지연으로 기록
+        Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                long t0 = System.nanoTime();
+                calls.incrementAndGet();
+                boolean[] first = {true};
+                return model.stream(prompt)
+                        .doOnNext(r -> {
+                            if (first[0]) {
+                                first[0] = false;
+                                streamLatency.record(System.nanoTime() - t0);
+                            }
+                        })
+                        .doOnComplete(breaker::onSuccess)
+                        .doOnCancel(breaker::onCancel)
+                        .doOnError(e -> {
+                            failures.incrementAndGet();
+                            breaker.onFailure();
+                        });
+            });
+        }
+
+        Duration hedgeDelay(LatencyWindow latency) {
+            long p95 = latency.p95Nanos();
+            Duration delay = p95 < 0 ? settings.hedgeInitialDelay() : Duration.ofNanos(p95);
+            return delay.compareTo(settings.hedgeMinDelay()) < 0 ? settings.hedgeMinDelay() : delay;
+        }
+
+        ProviderStats stats() {
+            return new ProviderStats(name, breaker.state().name(), calls.get(), failures.get(),
+                    callLatency.p95Millis(), streamLatency.p95Millis());
+        }
+    }
+
+    /**
+     * 최근 100건 지연 (ring buffer)
+     */
+    static final class LatencyWindow {
+        private final long[] latencies = new long[100];
+        private int latencyCount;
+        private int latencyNext;
+
+        synchronized void record(long nanos) {
+            latencies[latencyNext] = nanos;
+            latencyNext = (latencyNext + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+        }
+
+        // 표본이 부족하면 -1
+        synchronized long p95Nanos() {
+            if (latencyCount < MIN_SAMPLES) return -1;
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+        }
+
+        double p95Millis() {
+            long p95 = p95Nanos();
+            return p95 < 0 ? 0 : p95 / 1_000_000.0;
+        }
+    }
+
+    /**
+     * 최근 window개 호출 결과 기준 circuit breaker
+     * CLOSED → (실패율 초과) OPEN → (openDuration 경과) HALF_OPEN: 시험 호출 1건 → 성공 시 CLOSED, 실패 시 OPEN
+     */
+    static final class CircuitBreaker {
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final boolean[] outcomes; // true = 실패
+        private final double failureRate;
+        private final int minCalls;
+        private final long openNanos;
+        private int count;
+        private int next;
+        private int failed;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(Settings settings) {
+            this.outcomes = new boolean[Math.max(1, settings.breakerWindow())];
+            this.failureRate = settings.breakerFailureRate();
+            this.minCalls = settings.breakerMinCalls();
+            this.openNanos = settings.breakerOpenDuration().toNanos();
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean allow() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) return false;
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return true;
+                default: // HALF_OPEN: 시험 호출이 끝날 때까지 나머지는 차단
+                    if (trialInFlight) return false;
+                    trialInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                reset();
+                return;
+            }
+            add(false);
+        }
+
+        // 시험 호출이 결과 없이 취소되면 다음 호출이 다시 시험할 수 있게 함
+        synchronized void onCancel() {
+            if (state == State.HALF_OPEN) trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            add(true);
+            if (count >= minCalls && failed >= failureRate * count) open();
+        }
+
+        private void add(boolean failure) {
+            if (count == outcomes.length) {
+                if (outcomes[next]) failed--;
+            } else {
+                count++;
+            }
+            outcomes[next] = failure;
+            if (failure) failed++;
+            next = (next + 1) % outcomes.length;
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+        }
+
+        private void reset() {
+            state = State.CLOSED;
+            trialInFlight = false;
+            count = 0;
+            next = 0;
+            failed = 0;
+            Arrays.fill(outcomes, false);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.springframework.ai.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.CommitSuggestionResponse;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.SuggestionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 동시에 들어온 같은 커밋 메시지 요청을 하나의 LLM 생성으로 합친다 (single-flight).
+ * 키는 제안 개수를 뺀 요청 식별자(CommitSuggestionCache.snapshotKey)이고,
+ * 진행 중인 생성의 제안 개수가 요청 개수 이상이면 그 생성에 합류해 앞쪽 제안만 받는다.
+ * 합류한 요청도 이미 나온 제안을 먼저 받은 뒤 이후 제안을 스트리밍으로 받는다.
+ */
+@Slf4j
+final class SingleFlight {
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong joined = new AtomicLong();
+
+    /**
+     * 실행 결과 (joined면 다른 요청의 생성 결과를 공유받은 것)
+     */
+    record Result(CommitSuggestionResponse response, boolean joined) {}
+
+    long joined() {
+        return joined.get();
+    }
+
+    /**
+     * key로 진행 중인 생성이 있으면 합류하고, 없으면 generation을 직접 실행한다.
+     * generation에는 모든 참여자에게 제안을 나눠주는 listener가 전달된다.
+     */
+    Result run(String key, int count, SuggestionListener listener,
+               Function<SuggestionListener, CommitSuggestionResponse> generation) {
+        while (true) {
+            Flight current = flights.get(key);
+            if (current != null && current.count >= count) {
+                joined.incrementAndGet();
+                log.info("[SingleFlight] 진행 중인 생성에 합류 - key={}, 요청 {}개 / 진행 {}개", key.substring(0, 12), count, current.count);
+                return new Result(current.await(listener, count), true);
+            }
+
+            // 진행 중인 생성이 더 적은 개수면 새로 시작하고, 이후 요청은 더 큰 쪽에 합류하게 교체
+            Flight mine = new Flight(count);
+            boolean leader = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (leader) {
+                return new Result(mine.lead(listener, generation, () -> flights.remove(key, mine)), false);
+            }
+        }
+    }
+
+    /**
+     * 리스너 호출(SSE 전송, MCP progress 알림)은 블로킹 I/O이므로 락 밖에서 한다.
+     * 리더는 생성 스레드에서 직접 받고, 합류한 요청은 자기 큐에 쌓인 제안을 자기 스레드에서 꺼내 받으므로
+     * 느린 참여자 하나가 LLM 스트림이나 다른 참여자를 막지 않는다. 락은 emitted와 큐 순서만 지킨다.
+     */
+    private static final class Flight implements SuggestionListener {
+        private static final Event RESET = new Event(0, null);
+        private static final Event DONE = new Event(-1, null);
+
+        final int count;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final CompletableFuture<CommitSuggestionResponse> result = new CompletableFuture<>();
+        private final List<String> emitted = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private volatile SuggestionListener leader;
+        private boolean finished;
+        private RuntimeException lastFailure;
+
+        Flight(int count) {
+            this.count = count;
+        }
+
+        private record Event(int index, String message) {}
+
+        /**
+         * 합류한 요청 하나 (limit: 받을 제안 개수)
+         */
+        private record Subscriber(SuggestionListener listener, int limit, BlockingQueue<Event> queue) {}
+
+        CommitSuggestionResponse lead(SuggestionListener listener,
+                                      Function<SuggestionListener, CommitSuggestionResponse> generation,
+                                      Runnable done) {
+            leader = listener;
+            try {
+                CommitSuggestionResponse response = generation.apply(this);
+                result.complete(response);
+                return response;
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                throw e;
+            } finally {
+                finish();
+                done.run();
+            }
+        }
+
+        CommitSuggestionResponse await(SuggestionListener listener, int limit) {
+            Subscriber subscriber = subscribe(listener, limit);
+            try {
+                drain(subscriber);
+            } finally {
+                lock.lock();
+                try {
+                    subscribers.remove(subscriber);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return result.join();
+        }
+
+        // 이미 나온 제안을 큐에 먼저 넣고 등록하므로 이후 제안과 순서가 섞이지 않음
+        private Subscriber subscribe(SuggestionListener listener, int limit) {
+            lock.lock();
+            try {
+                Subscriber subscriber = new Subscriber(listener, limit, new LinkedBlockingQueue<>());
+                for (int i = 0; i < emitted.size() && i < limit; i++) {
+                    subscriber.queue().add(new Event(i + 1, emitted.get(i)));
+                }
+                if (finished) subscriber.queue().add(DONE);
+                else subscribers.add(subscriber);
+                return subscriber;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 생성이 끝날 때까지 이 참여자의 제안을 호출한 스레드에서 전달.
+         * 리스너가 실패하면(SSE 연결 끊김 등) 이 참여자만 빠지고 결과는 그대로 기다린다.
+         */
+        private void drain(Subscriber subscriber) {
+            try {
+                for (Event e = subscriber.queue().take(); e != DONE; e = subscriber.queue().take()) {
+                    if (e == RESET) subscriber.listener().onReset();
+                    else subscriber.listener().onSuggestion(e.index(), e.message());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    lastFailure = e;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void onSuggestion(int index, String message) {
+            lock.lock();
+            try {
+                emitted.add(message);
+                for (Subscriber s : subscribers) {
+                    if (index <= s.limit()) s.queue().add(new Event(index, message));
+                }
+            } finally {
+                lock.unlock();
+            }
+            deliverToLeader(l -> {
+                if (index <= count) l.onSuggestion(index, message);
+            });
+        }
+
+        @Override
+        public void onReset() {
+            lock.lock();
+            try {
+                emitted.clear();
+                for (Subscriber s : subscribers) s.queue().add(RESET);
+            } finally {
+                lock.unlock();
+            }
+            deliverToLeader(SuggestionListener::onReset);
+        }
+
+        /**
+         * 리더 리스너가 실패하면 리더만 제외한다.
+         * 모든 참여자가 떠나면 예외를 던져 생성을 중단한다.
+         */
+        private void deliverToLeader(Consumer<SuggestionListener> action) {
+            SuggestionListener l = leader;
+            if (l != null) {
+                try {
+                    action.accept(l);
+                } catch (RuntimeException e) {
+                    leader = null;
+                    lock.lock();
+                    try {
+                        lastFailure = e;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+            RuntimeException abandoned;
+            lock.lock();
+            try {
+                abandoned = leader == null && subscribers.isEmpty() ? lastFailure : null;
+            } finally {
+                lock.unlock();
+            }
+            if (abandoned != null) throw abandoned;
+        }
+
+        private void finish() {
+            lock.lock();
+            try {
+                finished = true;
+                for (Subscriber s : subscribers) s.queue().add(DONE);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
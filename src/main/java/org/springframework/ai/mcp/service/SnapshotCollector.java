@@ -0,0 +1,181 @@
+package org.springframework.ai.mcp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * git diff 출력을 한 줄씩 받아 RepositorySnapshot을 만드는 단일 패스 수집기.
+ * 파일이 끝날 때마다 유지(keep) / 잘라내기(truncate) / 요약(summarize)을 결정하므로
+ * 메모리에는 현재 파일의 앞부분(maxFileLines)과 budget 안의 출력만 남는다.
+ */
+final class SnapshotCollector implements Consumer<String> {
+    // 내용보다 변경량이 의미 있는 생성/잠금 파일은 항상 요약
+    private static final List<String> SUMMARIZED_SUFFIXES = List.of(
+            "package-lock.json", "yarn.lock", "pnpm-lock.yaml", "gradle.lockfile", "Cargo.lock",
+            "go.sum", "poetry.lock", ".min.js", ".min.css", ".map");
+
+    private final DiffBudget budget;
+    private final boolean staged;
+    private final StringBuilder out = new StringBuilder();
+    private final List<RepositorySnapshot.FileChange> changes = new ArrayList<>();
+    private long outBytes;
+    private int outLines;
+    private int omittedFiles;
+    private boolean truncated;
+    private FileState cur;
+
+    SnapshotCollector(DiffBudget budget, boolean staged) {
+        this.budget = budget;
+        this.staged = staged;
+    }
+
+    @Override
+    public void accept(String line) {
+        // 헤더(diff --git, rename to, +++ b/ 등)는 경로를 담고 있으므로 원래 줄로 분류하고 자르지 않음
+        if (line.startsWith("diff --git ")) {
+            finishFile();
+            cur = new FileState(pathFromDiffHeader(line));
+        } else if (cur == null) {
+            return;
+        } else if (cur.inHunk) {
+            if (line.startsWith("+")) cur.added++;
+            else if (line.startsWith("-")) cur.deleted++;
+        } else if (line.startsWith("@@")) {
+            cur.inHunk = true;
+        } else if (line.startsWith("new file mode")) {
+            cur.status = 'A';
+        } else if (line.startsWith("deleted file mode")) {
+            cur.status = 'D';
+        } else if (line.startsWith("rename to ")) {
+            cur.status = 'R';
+            cur.path = line.substring("rename to ".length());
+        } else if (line.startsWith("+++ b/")) {
+            cur.path = line.substring("+++ b/".length());
+        } else if (line.startsWith("--- a/") && cur.status == 'D') {
+            cur.path = line.substring("--- a/".length());
+        } else if (line.startsWith("Binary files") || line.startsWith("GIT binary patch")) {
+            cur.binary = true;
+        }
+        cur.totalLines++;
+        if (cur.lines.size() < budget.maxFileLines()) {
+            // 줄 길이 한도는 hunk 본문에만
+            if (cur.inHunk && utf8Length(line) > budget.maxLineBytes()) {
+                line = truncateUtf8(line, budget.maxLineBytes()) + " …";
+            }
+            cur.lines.add(line);
+        }
+    }
+
+    RepositorySnapshot build() {
+        finishFile();
+        if (omittedFiles > 0) {
+            out.append("... (diff 크기 제한으로 ").append(omittedFiles).append("개 파일 내용 생략)\n");
+        }
+        return new RepositorySnapshot(out.toString(), changes, staged, truncated);
+    }
+
+    private void finishFile() {
+        if (cur == null) return;
+        FileState f = cur;
+        cur = null;
+        changes.add(f.toChange());
+
+        boolean summarize = isSummarized(f.path);
+        int emitted = 0;
+        for (String line : f.lines) {
+            // 요약 대상은 diff --git 헤더만 남김
+            if (summarize && emitted > 0) break;
+            if (!write(line)) break;
+            emitted++;
+        }
+        int omitted = f.totalLines - emitted;
+        if (omitted <= 0) return;
+
+        truncated = true;
+        if (emitted == 0) {
+            omittedFiles++;
+            return;
+        }
+        String stat = f.binary ? "binary" : "+" + f.added + "/-" + f.deleted;
+        String note = summarize
+                ? "... (생성/잠금 파일로 내용 생략, " + stat + ")"
+                : "... (이하 " + omitted + "줄 생략, 전체 " + stat + ")";
+        if (!write(note)) omittedFiles++;
+    }
+
+    private boolean write(String line) {
+        long bytes = utf8Length(line) + 1;
+        if (outBytes + bytes > budget.maxBytes() || outLines + 1 > budget.maxLines()) {
+            return false;
+        }
+        out.append(line).append('\n');
+        outBytes += bytes;
+        outLines++;
+        return true;
+    }
+
+    private static boolean isSummarized(String path) {
+        for (String suffix : SUMMARIZED_SUFFIXES) {
+            if (path.endsWith(suffix)) return true;
+        }
+        return path.startsWith("vendor/") || path.contains("/vendor/")
+                || path.startsWith("node_modules/") || path.contains("/node_modules/");
+    }
+
+    static long utf8Length(String s) {
+        long n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) n += 1;
+            else if (c < 0x800) n += 2;
+            else if (Character.isHighSurrogate(c)) { n += 4; i++; }
+            else n += 3;
+        }
+        return n;
+    }
+
+    /**
+     * UTF-8로 maxBytes 이하가 되도록 문자 경계에서 자름 (서로게이트 쌍은 나누지 않음)
+     */
+    static String truncateUtf8(String s, int maxBytes) {
+        long n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int bytes = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            if (n + bytes > maxBytes) return s.substring(0, i);
+            n += bytes;
+            if (bytes == 4) i++;
+        }
+        return s;
+    }
+
+    /**
+     * "diff --git a/경로 b/경로" → "경로" (공백이 없는 일반적인 경로 기준, 이후 +++ 헤더로 보정)
+     */
+    static String pathFromDiffHeader(String line) {
+        int b = line.lastIndexOf(" b/");
+        return b >= 0 ? line.substring(b + 3) : line.substring("diff --git ".length());
+    }
+
+    private static final class FileState {
+        final List<String> lines = new ArrayList<>();
+        String path;
+        char status = 'M';
+        int added;
+        int deleted;
+        int totalLines;
+        boolean binary;
+        boolean inHunk;
+
+        FileState(String path) {
+            this.path = path;
+        }
+
+        RepositorySnapshot.FileChange toChange() {
+            return binary
+                    ? new RepositorySnapshot.FileChange(status, path, -1, -1)
+                    : new RepositorySnapshot.FileChange(status, path, added, deleted);
+        }
+    }
+}
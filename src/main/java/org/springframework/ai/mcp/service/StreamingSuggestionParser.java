@@ -0,0 +1,51 @@
+package org.springframework.ai.mcp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 스트리밍 응답 조각을 받아 "N. 메시지" 형식의 줄이 완성될 때마다 제안으로 꺼내는 파서.
+ * 줄바꿈이 오기 전의 미완성 줄만 버퍼에 남는다.
+ */
+final class StreamingSuggestionParser {
+    private static final Pattern NUMBERED = Pattern.compile("^\\d+\\.\\s+(.*)$");
+
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * 새 조각을 추가하고 이번에 완성된 제안들을 반환
+     */
+    List<String> accept(String chunk) {
+        List<String> completed = new ArrayList<>();
+        if (chunk == null || chunk.isEmpty()) return completed;
+        pending.append(chunk);
+        int eol;
+        while ((eol = pending.indexOf("\n")) >= 0) {
+            String message = parseLine(pending.substring(0, eol));
+            pending.delete(0, eol + 1);
+            if (message != null) completed.add(message);
+        }
+        return completed;
+    }
+
+    /**
+     * 스트림 종료 시 마지막 줄(줄바꿈 없이 끝난 경우) 처리
+     */
+    List<String> finish() {
+        String message = parseLine(pending.toString());
+        pending.setLength(0);
+        return message == null ? List.of() : List.of(message);
+    }
+
+    /**
+     * 번호 목록 한 줄에서 커밋 메시지 추출, 해당 형식이 아니면 null
+     */
+    static String parseLine(String line) {
+        Matcher m = NUMBERED.matcher(line.trim());
+        if (!m.matches()) return null;
+        String message = m.group(1);
+        return message.isBlank() ? null : message;
+    }
+}
@@ -0,0 +1,189 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LLM 호출별 토큰 / 처리량 / 첫 토큰 지연 집계 (모델별 최근 window개 호출 기준).
+ * Ollama 응답 메타데이터(prompt-eval-count, eval-count, eval-duration, load-duration 등)를 그대로 사용하므로
+ * 느려진 원인이 프롬프트 증가(prompt 토큰), GPU 경합(tokens/s 하락), 모델 재로딩(load) 중 무엇인지 구분할 수 있다.
+ * 첫 토큰 지연은 스트리밍이면 클라이언트에서 잰 값, 아니면 Ollama가 보고한 load + prompt-eval 시간.
+ */
+@Slf4j
+@Component
+public class TokenTelemetry {
+    // Spring AI OllamaChatModel이 ChatResponseMetadata에 넣는 키
+    private static final String PROMPT_EVAL_DURATION = "prompt-eval-duration";
+    private static final String EVAL_DURATION = "eval-duration";
+    private static final String LOAD_DURATION = "load-duration";
+    private static final String PROMPT_EVAL_COUNT = "prompt-eval-count";
+    private static final String EVAL_COUNT = "eval-count";
+    // 이보다 긴 load-duration은 모델을 다시 올린 것으로 본다 (상주 중이면 수 ms)
+    private static final Duration RELOAD_THRESHOLD = Duration.ofSeconds(1);
+
+    /**
+     * 호출 한 건 (ttftNanos: 첫 토큰까지, loadNanos: 모델 로딩, evalNanos: 출력 토큰 생성 시간)
+     */
+    public record Sample(long promptTokens, long completionTokens, long ttftNanos, long loadNanos, long evalNanos, long totalNanos) {
+        double tokensPerSecond() {
+            return evalNanos <= 0 ? 0 : completionTokens * 1e9 / evalNanos;
+        }
+    }
+
+    /**
+     * 모델별 통계. total*는 누적, 나머지는 최근 window개 호출 기준
+     */
+    public record ModelTokenStats(String model, long calls, long totalPromptTokens, long totalCompletionTokens,
+                                  int window, double avgPromptTokens, double avgCompletionTokens,
+                                  double tokensPerSecondP50, double tokensPerSecondP5,
+                                  double ttftP50Millis, double ttftP95Millis,
+                                  long reloads, double avgLoadMillis, double maxLoadMillis) {}
+
+    private final MeterRegistry registry;
+    private final int window;
+    private final Map<String, ModelWindow> models = new ConcurrentHashMap<>();
+
+    public TokenTelemetry(MeterRegistry registry, @Value("${mcp.telemetry.window:200}") int window) {
+        this.registry = registry;
+        this.window = Math.max(1, window);
+    }
+
+    /**
+     * 호출 한 건 기록. last는 마지막 응답 (스트리밍이면 done 조각, 메타데이터가 여기에만 있음).
+     * firstTokenNanos가 0이면 Ollama가 보고한 시간으로 첫 토큰 지연을 계산한다.
+     */
+    public void record(String fallbackModel, String endpoint, ChatResponse last, long startNanos, long firstTokenNanos) {
+        if (last == null || last.getMetadata() == null) return;
+        ChatResponseMetadata metadata = last.getMetadata();
+        String model = metadata.getModel() != null && !metadata.getModel().isBlank() ? metadata.getModel() : fallbackModel;
+
+        Usage usage = metadata.getUsage();
+        long promptTokens = count(metadata, PROMPT_EVAL_COUNT, usage != null ? usage.getPromptTokens() : null);
+        long completionTokens = count(metadata, EVAL_COUNT, usage != null ? usage.getCompletionTokens() : null);
+        long load = nanos(metadata, LOAD_DURATION);
+        long eval = nanos(metadata, EVAL_DURATION);
+        long ttft = firstTokenNanos != 0 ? firstTokenNanos - startNanos : load + nanos(metadata, PROMPT_EVAL_DURATION);
+        Sample sample = new Sample(promptTokens, completionTokens, ttft, load, eval, System.nanoTime() - startNanos);
+
+        models.computeIfAbsent(model, m -> new ModelWindow(window)).add(sample);
+        publish(model, endpoint, sample);
+        if (load > RELOAD_THRESHOLD.toNanos()) {
+            log.info("[TokenTelemetry] {} 모델 로딩 {} ms ({})", model, load / 1_000_000, endpoint);
+        }
+    }
+
+    /**
+     * 이 응답을 만들면서 Ollama가 모델을 메모리에 다시 올렸는지 (load-duration 기준, 메타데이터가 없으면 false)
+     */
+    public static boolean reloaded(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) return false;
+        return nanos(response.getMetadata(), LOAD_DURATION) > RELOAD_THRESHOLD.toNanos();
+    }
+
+    @Tool(description = "모델별 LLM 토큰 사용량, 초당 생성 토큰 수, 첫 토큰 지연, 모델 재로딩 통계를 조회합니다")
+    public List<ModelTokenStats> getTokenStats() {
+        List<ModelTokenStats> stats = new ArrayList<>();
+        new TreeMap<>(models).forEach((model, w) -> stats.add(w.stats(model)));
+        return stats;
+    }
+
+    private void publish(String model, String endpoint, Sample sample) {
+        DistributionSummary.builder("llm.tokens").tag("model", model).tag("type", "prompt")
+                .register(registry).record(sample.promptTokens());
+        DistributionSummary.builder("llm.tokens").tag("model", model).tag("type", "completion")
+                .register(registry).record(sample.completionTokens());
+        DistributionSummary.builder("llm.tokens_per_second").tag("model", model).tag("endpoint", endpoint)
+                .publishPercentiles(0.05, 0.5)
+                .register(registry).record(sample.tokensPerSecond());
+        Timer.builder("llm.time_to_first_token").tag("model", model).tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry).record(Duration.ofNanos(sample.ttftNanos()));
+        Timer.builder("llm.load").tag("model", model).tag("endpoint", endpoint)
+                .register(registry).record(Duration.ofNanos(sample.loadNanos()));
+    }
+
+    // 메타데이터 값이 없으면 Usage 값
+    private static long count(ChatResponseMetadata metadata, String key, Integer fallback) {
+        Object value = metadata.get(key);
+        if (value instanceof Number n) return n.longValue();
+        return fallback != null ? fallback : 0L;
+    }
+
+    private static long nanos(ChatResponseMetadata metadata, String key) {
+        Object value = metadata.get(key);
+        if (value instanceof Duration d) return d.toNanos();
+        if (value instanceof Number n) return n.longValue(); // Ollama 원본 값은 ns
+        return 0L;
+    }
+
+    /**
+     * 모델 하나의 최근 호출 (ring buffer) + 누적 합계
+     */
+    private static final class ModelWindow {
+        private final Sample[] samples;
+        private int count;
+        private int next;
+        private long calls;
+        private long totalPrompt;
+        private long totalCompletion;
+        private long reloads;
+
+        ModelWindow(int window) {
+            this.samples = new Sample[window];
+        }
+
+        synchronized void add(Sample sample) {
+            samples[next] = sample;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            calls++;
+            totalPrompt += sample.promptTokens();
+            totalCompletion += sample.completionTokens();
+            if (sample.loadNanos() > RELOAD_THRESHOLD.toNanos()) reloads++;
+        }
+
+        synchronized ModelTokenStats stats(String model) {
+            double[] tps = new double[count];
+            double[] ttft = new double[count];
+            double prompt = 0, completion = 0, load = 0, maxLoad = 0;
+            for (int i = 0; i < count; i++) {
+                Sample s = samples[i];
+                tps[i] = s.tokensPerSecond();
+                ttft[i] = s.ttftNanos() / 1e6;
+                prompt += s.promptTokens();
+                completion += s.completionTokens();
+                load += s.loadNanos() / 1e6;
+                maxLoad = Math.max(maxLoad, s.loadNanos() / 1e6);
+            }
+            int n = Math.max(1, count);
+            return new ModelTokenStats(model, calls, totalPrompt, totalCompletion, count,
+                    prompt / n, completion / n,
+                    percentile(tps, 0.5), percentile(tps, 0.05),
+                    percentile(ttft, 0.5), percentile(ttft, 0.95),
+                    reloads, load / n, maxLoad);
+        }
+
+        private static double percentile(double[] values, double p) {
+            if (values.length == 0) return 0;
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(sorted.length * p) - 1)];
+        }
+    }
+}
@@ -1,64 +1,262 @@
 package org.springframework.ai.mcp.util;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * git CLI 실행기. 실행은 모두 비동기(CompletableFuture)이고 동기 메서드는 그 결과를 기다리는 래퍼다.
+ * - 마감 시간은 시작 시점 기준 wall-clock이라 git이 파이프를 열어 둔 채 멈춰도 지켜지며, 넘으면 자식 프로세스까지 강제 종료한다.
+ * - 출력(stdout+stderr)이 maxOutputBytes를 넘으면 그 자리에서 읽기를 멈추고 프로세스 트리를 종료한다.
+ * - stderr는 stdout에 합쳐 파이프 하나만 드레인한다. JDK의 프로세스 파이프는 selector에 등록할 수 없으므로
+ *   드레인은 가상 스레드에서 하고, 종료 대기는 Process.onExit()로 스레드 없이 한다.
+ */
+@Slf4j
 public final class AutoGitExecutor {
+    private static final ExecutorService PIPES = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("git-pipe-", 0).factory());
+    static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "git-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+    // exec 실패 시 진단용으로 남길 출력 앞부분
+    private static final int EXEC_LOG_BYTES = 8192;
+
+    /**
+     * readTimeout: diff 등 조회 명령, writeTimeout: commit 등 변경 명령 (hook 실행 포함),
+     * maxOutputBytes: 명령 하나의 출력 상한
+     */
+    public record Limits(Duration readTimeout, Duration writeTimeout, long maxOutputBytes) {
+        public static final Limits DEFAULT = new Limits(Duration.ofSeconds(30), Duration.ofSeconds(60), 256L * 1024 * 1024);
+    }
+
+    /**
+     * truncated면 출력 상한에 걸려 중간에 종료된 것 (exitCode는 강제 종료 코드)
+     */
+    public record Result(int exitCode, long bytes, boolean truncated) {}
+
+    public static final class GitTimeoutException extends IOException {
+        GitTimeoutException(List<String> args, Duration timeout) {
+            super("Git command timed out after " + timeout.toMillis() + " ms: git " + String.join(" ", args));
+        }
+    }
+
     private final File workingDirectory;
+    private final Limits limits;
 
     public AutoGitExecutor() {
-        this.workingDirectory = GitRootResolver.resolve();
+        this(GitRootResolver.resolve());
+    }
+
+    public AutoGitExecutor(Limits limits) {
+        this(GitRootResolver.resolve(), limits);
+    }
+
+    public AutoGitExecutor(File workingDirectory) {
+        this(workingDirectory, Limits.DEFAULT);
+    }
+
+    public AutoGitExecutor(File workingDirectory, Limits limits) {
+        this.workingDirectory = workingDirectory;
+        this.limits = limits;
+    }
+
+    public File getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * 같은 저장소의 `git cat-file --batch` 코프로세스 (응답 마감 시간은 readTimeout). 닫는 것은 호출 측 책임
+     */
+    public GitCatFileBatch catFileBatch() {
+        return new GitCatFileBatch(workingDirectory, limits.readTimeout());
     }
 
     public String execCapture(List<String> args) throws IOException, InterruptedException {
-        List<String> cmd = new ArrayList<>();
-        cmd.add("git");
-        cmd.addAll(args);
-        ProcessBuilder pb = new ProcessBuilder(cmd);
-        pb.directory(this.workingDirectory);
-        pb.redirectErrorStream(true);
+        return await(captureAsync(args));
+    }
 
-        Process p = pb.start();
+    /**
+     * 출력 전체를 버퍼링하지 않고 한 줄씩 consumer에 전달 (한 줄 최대 maxLineBytes)
+     */
+    public void execStream(List<String> args, int maxLineBytes, Consumer<String> lines) throws IOException, InterruptedException {
+        checkExit(args, await(streamAsync(args, maxLineBytes, lines)));
+    }
+
+    public int exec(List<String> args) throws IOException, InterruptedException {
+        return await(execAsync(args));
+    }
+
+    /**
+     * 출력 전체를 문자열로 받는다. 출력 상한을 넘으면 잘린 결과 대신 IOException으로 끝난다.
+     */
+    public CompletableFuture<String> captureAsync(List<String> args) {
         ByteArrayOutputStream bout = new ByteArrayOutputStream();
-        try (InputStream in = p.getInputStream()) {
-            in.transferTo(bout);
+        return map(run(args, limits.readTimeout(), limits.maxOutputBytes(), bout), result -> {
+            if (result.truncated()) {
+                throw new CompletionException(new IOException("Git output exceeded " + limits.maxOutputBytes() + " bytes: git " + String.join(" ", args)));
+            }
+            return bout.toString(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * 줄 단위 스트리밍. 출력 상한을 넘으면 그때까지 전달한 줄로 정상 종료한다 (truncated=true).
+     * lines는 드레인 스레드에서 호출되며, future가 끝나기 전에 마지막 줄까지 전달된다.
+     */
+    public CompletableFuture<Result> streamAsync(List<String> args, int maxLineBytes, Consumer<String> lines) {
+        return run(args, limits.readTimeout(), limits.maxOutputBytes(), new LineSplitter(lines, maxLineBytes));
+    }
+
+    /**
+     * streamAsync 결과 확인. 출력 상한으로 끊긴 경우(강제 종료 코드)가 아닌데 git이 실패했으면 IOException.
+     * 실패한 git diff를 빈 diff로 착각하지 않기 위함 (오류 메시지는 stdout에 합쳐져 lines로 이미 전달됨)
+     */
+    public static void checkExit(List<String> args, Result result) throws IOException {
+        if (!result.truncated() && result.exitCode() != 0) {
+            throw new IOException("Git command failed (exit " + result.exitCode() + "): git " + String.join(" ", args));
         }
-        boolean finished = p.waitFor(30, TimeUnit.SECONDS);
-        if (!finished) {
-            p.destroyForcibly();
-            throw new IOException("Git command timed out");
+    }
+
+    /**
+     * 종료 코드만 필요한 변경 명령. 출력은 실패 시 진단용으로 앞부분만 보관하고 나머지는 버린다.
+     */
+    public CompletableFuture<Integer> execAsync(List<String> args) {
+        BoundedBuffer head = new BoundedBuffer(EXEC_LOG_BYTES);
+        return map(run(args, limits.writeTimeout(), Long.MAX_VALUE, head), result -> {
+            if (result.exitCode() != 0) {
+                log.warn("[AutoGitExecutor] git {} 실패 (exit={})\n{}", String.join(" ", args), result.exitCode(), head);
+            }
+            return result.exitCode();
+        });
+    }
+
+    /**
+     * 프로세스를 시작하고 출력을 sink로 드레인한다. sink는 드레인이 끝나면 닫힌다.
+     * 마감 시간 초과 시 GitTimeoutException, 호출 측이 future를 취소하면 프로세스 트리를 종료한다.
+     */
+    public CompletableFuture<Result> run(List<String> args, Duration timeout, long maxOutputBytes, OutputStream sink) {
+        Process p;
+        try {
+            p = start(args);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return bout.toString(StandardCharsets.UTF_8);
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        ScheduledFuture<?> deadline = DEADLINES.schedule(() -> {
+            if (result.completeExceptionally(new GitTimeoutException(args, timeout))) destroyTree(p);
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((r, e) -> {
+            deadline.cancel(false);
+            if (e instanceof CancellationException) destroyTree(p);
+        });
+
+        PIPES.execute(() -> {
+            long bytes = 0;
+            boolean truncated = false;
+            try (InputStream in = p.getInputStream(); OutputStream out = sink) {
+                byte[] buf = new byte[8192];
+                int n;
+                while (!result.isDone() && (n = in.read(buf)) != -1) {
+                    if (n > maxOutputBytes - bytes) {
+                        out.write(buf, 0, (int) (maxOutputBytes - bytes));
+                        bytes = maxOutputBytes;
+                        truncated = true;
+                        destroyTree(p);
+                        break;
+                    }
+                    out.write(buf, 0, n);
+                    bytes += n;
+                }
+            } catch (IOException | RuntimeException e) {
+                // 마감/취소로 프로세스를 죽인 경우 result는 이미 끝나 있으므로 무시됨
+                if (result.completeExceptionally(e)) destroyTree(p);
+                return;
+            }
+            long total = bytes;
+            boolean cut = truncated;
+            p.onExit().thenAccept(exited -> result.complete(new Result(exited.exitValue(), total, cut)));
+        });
+        return result;
     }
 
-    public int exec(List<String> args) throws IOException, InterruptedException {
+    private Process start(List<String> args) throws IOException {
         List<String> cmd = new ArrayList<>();
         cmd.add("git");
         cmd.addAll(args);
         ProcessBuilder pb = new ProcessBuilder(cmd);
         pb.directory(this.workingDirectory);
         pb.redirectErrorStream(true);
+        return pb.start();
+    }
 
-        Process p = pb.start();
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = r.readLine()) != null) {
-                output.append(line).append('\n');
-            }
+    // git이 띄운 hook, pager, credential helper 등 자식까지 종료
+    static void destroyTree(Process p) {
+        p.descendants().forEach(ProcessHandle::destroyForcibly);
+        p.destroyForcibly();
+    }
+
+    // 변환된 future를 취소해도 원래 실행(프로세스)이 취소되도록 연결
+    private static <T, R> CompletableFuture<R> map(CompletableFuture<T> source, Function<T, R> fn) {
+        CompletableFuture<R> mapped = source.thenApply(fn);
+        mapped.whenComplete((r, e) -> {
+            if (mapped.isCancelled()) source.cancel(true);
+        });
+        return mapped;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 앞쪽 limit 바이트만 보관하고 나머지는 버리는 버퍼
+     */
+    private static final class BoundedBuffer extends ByteArrayOutputStream {
+        private final int limit;
+
+        BoundedBuffer(int limit) {
+            this.limit = limit;
         }
-        boolean finished = p.waitFor(60, TimeUnit.SECONDS);
-        if (!finished) {
-            p.destroyForcibly();
-            throw new IOException("Git command timed out");
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, Math.max(0, Math.min(len, limit - count)));
         }
-        int exit = p.exitValue();
-        if (exit != 0) {
-            System.err.println("[Git Debug] Exit=" + exit + "\n" + output);
+
+        @Override
+        public synchronized void write(int b) {
+            if (count < limit) super.write(b);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return toString(StandardCharsets.UTF_8);
         }
-        return exit;
     }
 }
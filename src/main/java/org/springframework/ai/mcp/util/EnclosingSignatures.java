@@ -0,0 +1,83 @@
+package org.springframework.ai.mcp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 파일 내용에서 특정 줄을 감싸는 클래스/메서드 선언을 찾는다 (언어 무관 휴리스틱).
+ * 대상 줄에서 위로 올라가며 들여쓰기가 더 얕은 선언 줄을 차례로 모으므로 중괄호 언어와 Python 모두 동작한다.
+ * 결과는 바깥 → 안쪽 순서 (예: [public class Foo, public void bar(int x)]).
+ */
+public final class EnclosingSignatures {
+    private static final int MAX_SIGNATURE_CHARS = 120;
+
+    private static final Pattern TYPE_DECL = Pattern.compile(
+            "(?:[\\w@<>,.\\[\\]()\"=]+\\s+)*(?:class|interface|enum|record|struct|trait|impl|object|module|namespace)\\s+[\\w$.<>]+.*");
+    private static final Pattern FUNCTION_KEYWORD = Pattern.compile(
+            "(?:[\\w@]+\\s+)*(?:def|func|fn|function|fun|sub)\\s*[\\w$.*]*\\s*[(<].*");
+    // Java/C#/C++/Kotlin 등: [수식어/타입...] 이름(
+    private static final Pattern METHOD_DECL = Pattern.compile("(?:[\\w@<>\\[\\],.?*&:]+\\s+)+[\\w$~]+\\s*\\(.*");
+    // JS/TS: const foo = (...) => / async x =>
+    private static final Pattern ARROW_FUNCTION = Pattern.compile(
+            "(?:export\\s+)?(?:const|let|var)\\s+[\\w$]+\\s*=\\s*(?:async\\s*)?(?:\\([^)]*\\)|[\\w$]+)\\s*=>.*");
+    private static final Pattern CONTROL_KEYWORD = Pattern.compile(
+            "(?:return|if|else|for|foreach|while|do|switch|case|catch|try|finally|new|throw|throws|synchronized|await|yield|assert|import|package|using|goto)\\b.*");
+    private static final Pattern COMMENT = Pattern.compile("(?://|/\\*|\\*|#(?!\\[)|--|<!--).*");
+
+    private EnclosingSignatures() {}
+
+    /**
+     * lines[index]를 감싸는 선언 목록. 선언 줄 자체가 대상이면 그 바깥 선언부터
+     */
+    public static List<String> of(List<String> lines, int index) {
+        List<String> chain = new ArrayList<>();
+        if (index < 0 || index >= lines.size()) return chain;
+        int indent = indentOf(lines.get(index));
+        for (int i = index - 1; i >= 0 && indent > 0; i--) {
+            String line = lines.get(i);
+            if (line.isBlank()) continue;
+            int lineIndent = indentOf(line);
+            if (lineIndent >= indent) continue;
+            String trimmed = line.trim();
+            if (isDeclaration(trimmed)) {
+                chain.add(0, clip(trimmed));
+                indent = lineIndent;
+            }
+        }
+        return chain;
+    }
+
+    static boolean isDeclaration(String trimmed) {
+        if (COMMENT.matcher(trimmed).matches() || CONTROL_KEYWORD.matcher(trimmed).matches()) return false;
+        if (TYPE_DECL.matcher(trimmed).matches()
+                || FUNCTION_KEYWORD.matcher(trimmed).matches()
+                || ARROW_FUNCTION.matcher(trimmed).matches()) {
+            return true;
+        }
+        // 호출문/대입문(foo(x); / a = b(c) {) 제외
+        if (!METHOD_DECL.matcher(trimmed).matches() || trimmed.endsWith(";")) return false;
+        int paren = trimmed.indexOf('(');
+        return trimmed.lastIndexOf('=', paren) < 0;
+    }
+
+    private static String clip(String signature) {
+        String s = signature;
+        // 블록 시작 기호 ({, Python의 :)는 뺌
+        if (s.endsWith("{") || s.endsWith(":")) s = s.substring(0, s.length() - 1).stripTrailing();
+        return s.length() <= MAX_SIGNATURE_CHARS ? s : s.substring(0, MAX_SIGNATURE_CHARS) + " …";
+    }
+
+    // 빈 줄은 가장 깊은 것으로 취급 (바로 위 선언이 감싸는 것으로 봄)
+    private static int indentOf(String line) {
+        if (line.isBlank()) return Integer.MAX_VALUE;
+        int n = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') n++;
+            else if (c == '\t') n += 4;
+            else break;
+        }
+        return n;
+    }
+}
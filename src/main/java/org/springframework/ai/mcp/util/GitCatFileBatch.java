@@ -0,0 +1,169 @@
+package org.springframework.ai.mcp.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 저장소 하나에 붙어 오래 살아 있는 `git cat-file --batch` 코프로세스 (AutoGitExecutor.catFileBatch로 생성).
+ * 객체마다 git을 새로 띄우지 않고 stdin에 객체 이름 한 줄을 쓰고 stdout에서 "<oid> <type> <size>\n<내용>\n"을 읽는다.
+ * 요청은 한 번에 하나씩 처리하고, 응답이 마감 시간 안에 오지 않거나 프로토콜이 어긋나면 프로세스를 종료한 뒤
+ * 다음 요청에서 다시 띄운다. 프로세스는 첫 요청 때 시작한다.
+ */
+public final class GitCatFileBatch implements AutoCloseable {
+    private static final int MAX_HEADER_BYTES = 1024;
+
+    private final File workingDirectory;
+    private final Duration timeout;
+    // 응답을 기다리는 동안 블로킹되므로 synchronized 대신 (가상 스레드 pinning 방지)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong starts = new AtomicLong();
+    private Process process;
+    private OutputStream stdin;
+    private InputStream stdout;
+    private boolean closed;
+
+    GitCatFileBatch(File workingDirectory, Duration timeout) {
+        this.workingDirectory = workingDirectory;
+        this.timeout = timeout;
+    }
+
+    /**
+     * blob 내용. 객체가 없거나(missing, 작업 트리에만 있는 내용 등) 모호하거나 blob이 아니면 empty,
+     * maxBytes보다 크면 내용을 읽어 버리고 empty
+     */
+    public Optional<byte[]> readBlob(String object, int maxBytes) throws IOException {
+        if (object.isEmpty() || object.indexOf('\n') >= 0) return Optional.empty();
+        lock.lock();
+        try {
+            if (closed) throw new IOException("git cat-file --batch가 이미 종료됨");
+            Process p = ensureStarted();
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> deadline = AutoGitExecutor.DEADLINES.schedule(() -> {
+                timedOut.set(true);
+                AutoGitExecutor.destroyTree(p);
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                stdin.write((object + "\n").getBytes(StandardCharsets.UTF_8));
+                stdin.flush();
+                String header = readHeader();
+                reads.incrementAndGet();
+                // "<object> missing" / "<object> ambiguous" 뒤에는 내용이 없음
+                if (header.endsWith(" missing") || header.endsWith(" ambiguous")) return Optional.empty();
+                String[] parts = header.split(" ");
+                if (parts.length != 3) throw new IOException("git cat-file --batch 응답 형식 오류: " + header);
+                long size = Long.parseLong(parts[2]);
+                boolean keep = "blob".equals(parts[1]) && size <= maxBytes;
+                byte[] content = keep ? stdout.readNBytes((int) size) : null;
+                if (!keep) skipFully(size);
+                if (stdout.read() != '\n' || (keep && content.length != size)) {
+                    throw new IOException("git cat-file --batch 응답 형식 오류: " + header);
+                }
+                return Optional.ofNullable(content);
+            } catch (IOException | RuntimeException e) {
+                // 마감 시간에 걸렸거나 스트림이 어긋남 → 다음 요청에서 새로 시작
+                stop();
+                if (timedOut.get()) {
+                    throw new IOException("git cat-file --batch 응답이 " + timeout.toMillis() + " ms 안에 오지 않음: " + object, e);
+                }
+                throw e instanceof IOException io ? io : new IOException(e);
+            } finally {
+                deadline.cancel(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long reads() {
+        return reads.get();
+    }
+
+    public long starts() {
+        return starts.get();
+    }
+
+    public boolean isRunning() {
+        lock.lock();
+        try {
+            return process != null && process.isAlive();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            stop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Process ensureStarted() throws IOException {
+        if (process != null && process.isAlive()) return process;
+        stop();
+        ProcessBuilder pb = new ProcessBuilder(List.of("git", "cat-file", "--batch"));
+        pb.directory(workingDirectory);
+        // stdout은 응답 전용, stderr는 섞이면 프로토콜이 깨지므로 버림
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+        process = pb.start();
+        stdin = process.getOutputStream();
+        stdout = new BufferedInputStream(process.getInputStream(), 64 * 1024);
+        starts.incrementAndGet();
+        return process;
+    }
+
+    private void stop() {
+        if (process == null) return;
+        // stdin을 닫으면 cat-file이 스스로 종료하지만 응답 중일 수 있으므로 트리째 종료
+        try {
+            stdin.close();
+        } catch (IOException ignored) {
+            // 이미 종료됨
+        }
+        AutoGitExecutor.destroyTree(process);
+        process = null;
+        stdin = null;
+        stdout = null;
+    }
+
+    private String readHeader() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = stdout.read()) != '\n') {
+            if (b == -1) throw new EOFException("git cat-file --batch 종료됨");
+            if (header.size() >= MAX_HEADER_BYTES) throw new IOException("git cat-file --batch 헤더가 너무 김");
+            header.write(b);
+        }
+        return header.toString(StandardCharsets.UTF_8);
+    }
+
+    private void skipFully(long n) throws IOException {
+        while (n > 0) {
+            long skipped = stdout.skip(n);
+            if (skipped <= 0) {
+                if (stdout.read() == -1) throw new EOFException("git cat-file --batch 종료됨");
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+}
@@ -2,65 +2,291 @@ package org.springframework.ai.mcp.util;
 
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Component
 public class GitDiffParser {
 
+    private static final List<String> STRUCTURAL_EXTENSIONS = List.of(".java", ".kt", ".groovy", ".scala");
+
+    // 파일 수와 diff 크기가 이 이상일 때만 fork-join으로 파일별 병렬 처리
+    private static final int PARALLEL_MIN_FILES = 16;
+    private static final int PARALLEL_MIN_CHARS = 64 * 1024;
+
+    // 정규식은 모두 클래스 로딩 시 한 번만 컴파일
+    private static final Pattern FIELD_WITH_MODIFIER = Pattern.compile(".*(private|public|protected)\\s+\\w+\\s+\\w+.*;.*");
+    private static final Pattern FIELD_WITH_INIT = Pattern.compile(".*\\w+\\s+\\w+\\s*=.*;.*");
+    private static final Pattern FIELD_NAME = Pattern.compile("\\b(private|public|protected)?\\s*\\w+\\s+(\\w+)\\s*[=;]");
+    private static final Pattern METHOD_WITH_MODIFIER = Pattern.compile(".*\\b(public|private|protected)\\s+.*\\w+\\s*\\([^)]*\\).*");
+    private static final Pattern METHOD_LOOSE = Pattern.compile(".*\\w+\\s*\\([^)]*\\)\\s*\\{?.*");
+    private static final Pattern METHOD_NAME = Pattern.compile("\\b(\\w+)\\s*\\(");
+    private static final Pattern ANNOTATION = Pattern.compile("@(\\w+)");
+    private static final Pattern CLASS_NAME = Pattern.compile("\\b(class|interface|enum|record)\\s+(\\w+)");
+    private static final Pattern CLASS_DECL = Pattern.compile("(\\w+\\s+)*(class|interface|enum|record)\\s+\\w+.*");
+    private static final Pattern CONTROL_KEYWORD = Pattern.compile("(return|if|for|while|switch|catch|new|else|throw|synchronized|try|this|super)\\b.*");
+    private static final Pattern ABSTRACT_DECL = Pattern.compile("[\\w<>\\[\\],?\\s]+\\s+\\w+\\s*\\(.*\\)\\s*;");
+    private static final Pattern DECL = Pattern.compile("[\\w<>\\[\\],?@.\\s]+\\s+\\w+\\s*\\(.*");
+    private static final Pattern MODIFIER_PREFIX = Pattern.compile("(private|public|protected)\\s+.*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * unified diff를 구조적 변경 목록으로 요약
+     * 예: "Foo.java: 메서드 추가 getName(String) (Foo)", "Foo.java: @Tool 추가 → method baz"
+     * 코드 파일이 아니면 파일별 +/- 줄 수만 남긴다.
+     * 파일 경계(diff --git)로 나눈 뒤 파일 단위로 독립 처리하므로 큰 diff는 fork-join 풀에서 병렬로 처리된다.
+     */
+    public List<String> summarize(String diff) {
+        if (diff == null || diff.isBlank()) return new ArrayList<>();
+
+        int[] bounds = fileBoundaries(diff);
+        int files = bounds.length - 1;
+        IntStream indices = IntStream.range(0, files);
+        if (files >= PARALLEL_MIN_FILES && diff.length() >= PARALLEL_MIN_CHARS) {
+            indices = indices.parallel();
+        }
+        List<List<String>> perFile = indices
+                .mapToObj(i -> new FileLexer(diff, bounds[i], bounds[i + 1]).run())
+                .toList();
+
+        List<String> summary = new ArrayList<>();
+        perFile.forEach(summary::addAll);
+        return summary;
+    }
+
     /**
-     * 필드 선언인지 판단
+     * 각 파일 diff의 시작 offset (마지막 원소는 diff 길이)
      */
-    private boolean isFieldDeclaration(String line) {
-        String trimmed = line.trim();
-        // 간단한 휴리스틱: 접근제어자 + 타입 + 변수명; 패턴
-        return trimmed.matches(".*(private|public|protected)\\s+\\w+\\s+\\w+.*;.*") ||
-                trimmed.matches(".*\\w+\\s+\\w+\\s*=.*;.*"); // 초기화 포함
+    private static int[] fileBoundaries(String diff) {
+        List<Integer> starts = new ArrayList<>();
+        if (diff.startsWith("diff --git")) starts.add(0);
+        int idx = 0;
+        while ((idx = diff.indexOf("\ndiff --git", idx)) >= 0) {
+            starts.add(++idx);
+        }
+        int[] bounds = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) bounds[i] = starts.get(i);
+        bounds[starts.size()] = diff.length();
+        return bounds;
+    }
+
+    /**
+     * 파일 하나의 diff 구간을 한 번 훑는 lexer.
+     * 줄은 offset 구간으로만 다루고 Matcher는 region을 바꿔가며 재사용하므로,
+     * 구조적 변경으로 판정된 줄에서만 문자열을 만든다.
+     */
+    private final class FileLexer {
+        private final String text;
+        private final int from;
+        private final int to;
+        private final Matcher classDecl;
+        private final Matcher controlKeyword;
+        private final Matcher abstractDecl;
+        private final Matcher decl;
+        private final Matcher methodWithModifier;
+        private final Matcher methodLoose;
+        private final Matcher modifierPrefix;
+        private final Matcher fieldWithModifier;
+        private final Matcher fieldWithInit;
+
+        FileLexer(String text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.classDecl = CLASS_DECL.matcher(text);
+            this.controlKeyword = CONTROL_KEYWORD.matcher(text);
+            this.abstractDecl = ABSTRACT_DECL.matcher(text);
+            this.decl = DECL.matcher(text);
+            this.methodWithModifier = METHOD_WITH_MODIFIER.matcher(text);
+            this.methodLoose = METHOD_LOOSE.matcher(text);
+            this.modifierPrefix = MODIFIER_PREFIX.matcher(text);
+            this.fieldWithModifier = FIELD_WITH_MODIFIER.matcher(text);
+            this.fieldWithInit = FIELD_WITH_INIT.matcher(text);
+        }
+
+        List<String> run() {
+            int headerEnd = lineEnd(from);
+            FileSummary file = new FileSummary(extractFilePath(text.substring(from, headerEnd)));
+            boolean inHunk = false;
+
+            int pos = headerEnd + 1;
+            while (pos < to) {
+                int ls = pos;
+                int le = lineEnd(ls);
+                pos = le + 1;
+                if (ls == le) continue;
+
+                char sign = text.charAt(ls);
+                if (sign == '@' && text.startsWith("@@", ls)) {
+                    inHunk = true;
+                    // hunk 헤더 뒤의 함수/클래스 문맥
+                    int close = indexOf("@@", ls + 2, le);
+                    String className = null;
+                    if (close >= 0 && indexOf("class ", close + 2, le) >= 0) {
+                        className = extractClassName(text.substring(close + 2, le));
+                    }
+                    file.startHunk(className);
+                    continue;
+                }
+                if (!inHunk || (sign != ' ' && sign != '+' && sign != '-')) continue;
+
+                // 부호 다음부터 trim한 코드 구간 [ts, te)
+                int ts = ls + 1;
+                int te = le;
+                while (ts < te && Character.isWhitespace(text.charAt(ts))) ts++;
+                while (te > ts && Character.isWhitespace(text.charAt(te - 1))) te--;
+
+                boolean isClassDecl = ts < te && matches(classDecl, ts, te);
+                String className = isClassDecl ? extractClassName(text.substring(ts, te)) : null;
+                // 삭제된 줄은 새 파일의 중첩 구조에 영향을 주지 않음
+                if (sign != '-') file.track(className, text, ls + 1, le);
+                if (sign == ' ') continue;
+
+                boolean added = sign == '+';
+                if (added) file.added++;
+                else file.deleted++;
+                if (!file.structural || ts == te || isComment(ts, te)) continue;
+
+                if (text.startsWith("import ", ts)) {
+                    file.record(added, "import", extractImportName(text.substring(ts, te)));
+                } else if (text.charAt(ts) == '@') {
+                    // 같은 줄에 코드가 이어지면(매개변수 어노테이션 등) 그 코드가 대상
+                    String trimmed = text.substring(ts, te);
+                    String rest = annotationRemainder(trimmed);
+                    String target = findAnnotationTarget(rest.isEmpty() ? followingCode(pos, 5) : List.of(rest));
+                    if (!target.equals("unknown")) {
+                        file.record(added, "annotation", extractAnnotation(trimmed) + " → " + target);
+                    }
+                } else if (isClassDecl) {
+                    file.record(added, "class", className);
+                } else if (isDeclaration(ts, te) && isMethodSignature(ts, te)) {
+                    String trimmed = text.substring(ts, te);
+                    String params = extractParameters(trimmed);
+                    file.record(added, "method", extractMethodName(trimmed) + "(" + ("없음".equals(params) ? "" : params) + ")");
+                } else if (matches(modifierPrefix, ts, te) && isFieldDeclaration(ts, te)) {
+                    String field = extractFieldName(text.substring(ts, te));
+                    if (!field.isBlank() && !field.equals("unknown")) {
+                        file.record(added, "field", field);
+                    }
+                }
+            }
+
+            List<String> out = new ArrayList<>();
+            file.appendTo(out);
+            return out;
+        }
+
+        private int lineEnd(int start) {
+            int eol = text.indexOf('\n', start);
+            return eol < 0 || eol > to ? to : eol;
+        }
+
+        // [start, end) 안에서만 찾음 (String.indexOf는 줄 끝을 넘어 diff 끝까지 훑음)
+        private int indexOf(String needle, int start, int end) {
+            for (int i = start, last = end - needle.length(); i <= last; i++) {
+                if (text.startsWith(needle, i)) return i;
+            }
+            return -1;
+        }
+
+        private boolean matches(Matcher m, int start, int end) {
+            m.region(start, end);
+            return m.matches();
+        }
+
+        private boolean isComment(int ts, int te) {
+            char c = text.charAt(ts);
+            return c == '*' || (c == '/' && ts + 1 < te && (text.charAt(ts + 1) == '/' || text.charAt(ts + 1) == '*'));
+        }
+
+        /**
+         * 필드 선언인지 판단
+         */
+        private boolean isFieldDeclaration(int ts, int te) {
+            // 간단한 휴리스틱: 접근제어자 + 타입 + 변수명; 패턴
+            return matches(fieldWithModifier, ts, te) || matches(fieldWithInit, ts, te); // 초기화 포함
+        }
+
+        /**
+         * 메서드 시그니처인지 판단
+         */
+        private boolean isMethodSignature(int ts, int te) {
+            // 간단한 휴리스틱: public/private + 메서드명 + 괄호
+            return matches(methodWithModifier, ts, te) || matches(methodLoose, ts, te); // 접근제어자 없는 경우도
+        }
+
+        /**
+         * 메서드 호출/제어문이 아닌 선언 형태인지 판단 (isMethodSignature 보조)
+         */
+        private boolean isDeclaration(int ts, int te) {
+            if (matches(controlKeyword, ts, te)) return false;
+            if (text.charAt(te - 1) == ';') {
+                // 인터페이스/추상 메서드 선언은 ';'로 끝나지만 대입/호출이 아닌 경우만 허용
+                for (int i = ts; i < te; i++) {
+                    char c = text.charAt(i);
+                    if (c == '=' || c == '.') return false;
+                }
+                return matches(abstractDecl, ts, te);
+            }
+            return matches(decl, ts, te);
+        }
+
+        /**
+         * pos부터 이어지는 코드 줄(diff 부호 제거) 최대 n개, 어노테이션/삭제 줄은 건너뜀
+         */
+        private List<String> followingCode(int pos, int n) {
+            List<String> result = new ArrayList<>();
+            while (pos < to && result.size() < n) {
+                int ls = pos;
+                int le = lineEnd(ls);
+                pos = le + 1;
+                if (ls == le) continue;
+                char sign = text.charAt(ls);
+                if (sign == '@' || text.startsWith("diff --git", ls)) break;
+                if (sign == '-') continue;
+                String code = text.substring(ls + 1, le);
+                if (code.trim().startsWith("@")) continue;
+                result.add(code);
+            }
+            return result;
+        }
     }
 
     /**
      * 필드명 추출
      */
     private String extractFieldName(String line) {
-        // 정규식으로 필드명 추출
-        Pattern pattern = Pattern.compile("\\b(private|public|protected)?\\s*\\w+\\s+(\\w+)\\s*[=;]");
-        Matcher matcher = pattern.matcher(line.trim());
-
+        Matcher matcher = FIELD_NAME.matcher(line.trim());
         if (matcher.find()) {
             return matcher.group(2);
         }
 
         // 단순 패턴으로 재시도
-        String[] parts = line.trim().split("\\s+");
+        String[] parts = WHITESPACE.split(line.trim());
         for (int i = 0; i < parts.length - 1; i++) {
-            if (parts[i + 1].contains(";") || parts[i + 1].contains("=")) {
-                return parts[i + 1].replaceAll("[=;].*", "");
+            int cut = indexOfAny(parts[i + 1], '=', ';');
+            if (cut >= 0) {
+                return parts[i + 1].substring(0, cut);
             }
         }
 
         return "unknown";
     }
 
-    /**
-     * 메서드 시그니처인지 판단
-     */
-    private boolean isMethodSignature(String line) {
-        // 간단한 휴리스틱: public/private + 메서드명 + 괄호
-        return line.matches(".*\\b(public|private|protected)\\s+.*\\w+\\s*\\([^)]*\\).*") ||
-                line.matches(".*\\w+\\s*\\([^)]*\\)\\s*\\{?.*"); // 접근제어자 없는 경우도
-    }
-
     /**
      * 메서드명 추출
      */
     private String extractMethodName(String line) {
-        // 정규식으로 메서드명 추출
-        Pattern pattern = Pattern.compile("\\b(\\w+)\\s*\\(");
-        Matcher matcher = pattern.matcher(line);
+        Matcher matcher = METHOD_NAME.matcher(line);
 
         // 마지막으로 매칭되는 것이 메서드명 (반환타입이 앞에 있을 수 있음)
         String methodName = "unknown";
@@ -75,9 +301,7 @@ public class GitDiffParser {
      * 어노테이션 추출
      */
     private String extractAnnotation(String line) {
-        Pattern pattern = Pattern.compile("@(\\w+)");
-        Matcher matcher = pattern.matcher(line);
-
+        Matcher matcher = ANNOTATION.matcher(line);
         if (matcher.find()) {
             return "@" + matcher.group(1);
         }
@@ -86,13 +310,23 @@ public class GitDiffParser {
     }
 
     /**
-     * 컨텍스트에서 어노테이션들 추출
+     * "@Name(args) 나머지" → "나머지"
      */
-    private List<String> extractAnnotationsFromContext(List<String> context) {
-        return context.stream()
-                .filter(line -> line.trim().startsWith("@"))
-                .map(this::extractAnnotation)
-                .collect(Collectors.toList());
+    private String annotationRemainder(String trimmed) {
+        int i = 1;
+        while (i < trimmed.length() && (Character.isJavaIdentifierPart(trimmed.charAt(i)) || trimmed.charAt(i) == '.')) i++;
+        if (i < trimmed.length() && trimmed.charAt(i) == '(') {
+            int depth = 0;
+            for (; i < trimmed.length(); i++) {
+                char c = trimmed.charAt(i);
+                if (c == '(') depth++;
+                else if (c == ')' && --depth == 0) {
+                    i++;
+                    break;
+                }
+            }
+        }
+        return i >= trimmed.length() ? "" : trimmed.substring(i).trim();
     }
 
     /**
@@ -101,7 +335,7 @@ public class GitDiffParser {
     private String findAnnotationTarget(List<String> context) {
         // 어노테이션 다음에 오는 첫 번째 의미있는 코드를 찾음
         for (String line : context) {
-            if (isMethodSignature(line)) {
+            if (METHOD_WITH_MODIFIER.matcher(line).matches() || METHOD_LOOSE.matcher(line).matches()) {
                 return "method " + extractMethodName(line);
             }
             if (line.contains("class ")) {
@@ -111,24 +345,6 @@ public class GitDiffParser {
         return "unknown";
     }
 
-    /**
-     * 특정 라인 주변의 컨텍스트 가져오기 (앞뒤 n줄)
-     */
-    private String getLineContext(String[] lines, int currentIndex, int contextSize) {
-        StringBuilder context = new StringBuilder();
-
-        int start = Math.max(0, currentIndex - contextSize);
-        int end = Math.min(lines.length, currentIndex + contextSize + 1);
-
-        for (int i = start; i < end; i++) {
-            if (i != currentIndex) {
-                context.append(lines[i]).append("\n");
-            }
-        }
-
-        return context.toString().trim();
-    }
-
     /**
      * Git diff에서 파일 경로 추출
      * 예: "diff --git a/src/main/java/App.java b/src/main/java/App.java" → "src/main/java/App.java"
@@ -136,94 +352,14 @@ public class GitDiffParser {
     private String extractFilePath(String diffLine) {
         // diff --git a/경로 b/경로 형식에서 파일 경로 추출
         if (diffLine.startsWith("diff --git")) {
-            String[] parts = diffLine.split(" ");
-            if (parts.length >= 4) {
-                String bPath = parts[3]; // b/경로
-                return bPath.startsWith("b/") ? bPath.substring(2) : bPath;
+            int b = diffLine.lastIndexOf(" b/");
+            if (b >= 0) {
+                return diffLine.substring(b + 3);
             }
         }
         return "unknown";
     }
 
-    /**
-     * 특정 라인 주변의 컨텍스트(앞뒤 라인들) 추출
-     */
-    private List<String> getContext(String[] lines, int currentIndex) {
-        List<String> context = new ArrayList<>();
-
-        // 현재 라인 기준으로 앞뒤 5줄씩 가져오기
-        int start = Math.max(0, currentIndex - 5);
-        int end = Math.min(lines.length, currentIndex + 6);
-
-        for (int i = start; i < end; i++) {
-            if (i != currentIndex) { // 현재 라인은 제외
-                context.add(lines[i]);
-            }
-        }
-
-        return context;
-    }
-
-    /**
-     * 메서드 상세 정보 생성
-     */
-    private List<String> createMethodDetails(String methodLine, List<String> annotations) {
-        List<String> details = new ArrayList<>();
-
-        // 메서드 시그니처 분석
-        String methodName = extractMethodName(methodLine);
-        details.add("메서드명: " + methodName);
-
-        // 접근 제어자 추출
-        if (methodLine.contains("public")) {
-            details.add("접근성: public");
-        } else if (methodLine.contains("private")) {
-            details.add("접근성: private");
-        } else if (methodLine.contains("protected")) {
-            details.add("접근성: protected");
-        }
-
-        // 반환 타입 추출
-        String returnType = extractReturnType(methodLine);
-        if (!returnType.equals("unknown")) {
-            details.add("반환타입: " + returnType);
-        }
-
-        // 매개변수 추출
-        String parameters = extractParameters(methodLine);
-        if (!parameters.isEmpty()) {
-            details.add("매개변수: " + parameters);
-        }
-
-        // 어노테이션 정보 추가
-        if (!annotations.isEmpty()) {
-            details.add("어노테이션: " + String.join(", ", annotations));
-        }
-
-        return details;
-    }
-
-    /**
-     * 메서드 시그니처에서 반환 타입 추출
-     */
-    private String extractReturnType(String methodLine) {
-        // 정규식으로 반환 타입 추출
-        // 예: "public String getName()" → "String"
-        Pattern pattern = Pattern.compile("\\b(public|private|protected)?\\s*(static)?\\s*([\\w<>\\[\\]]+)\\s+\\w+\\s*\\(");
-        Matcher matcher = pattern.matcher(methodLine.trim());
-
-        if (matcher.find()) {
-            String returnType = matcher.group(3);
-            // 생성자인 경우 제외
-            if (!returnType.equals("void") && !Character.isUpperCase(returnType.charAt(0))) {
-                return "unknown";
-            }
-            return returnType;
-        }
-
-        return "unknown";
-    }
-
     /**
      * 메서드 매개변수 추출
      */
@@ -239,9 +375,12 @@ public class GitDiffParser {
             }
 
             // 매개변수 간단화 (타입만 추출)
-            return Arrays.stream(params.split(","))
-                    .map(param -> param.trim().split("\\s+")[0]) // 첫 번째 단어(타입)만
-                    .collect(Collectors.joining(", "));
+            StringBuilder types = new StringBuilder();
+            for (String param : params.split(",")) {
+                if (types.length() > 0) types.append(", ");
+                types.append(WHITESPACE.split(param.trim(), 2)[0]); // 첫 번째 단어(타입)만
+            }
+            return types.toString();
         }
 
         return "";
@@ -249,8 +388,7 @@ public class GitDiffParser {
 
     // 기타 유틸리티 메서드들...
     private String extractClassName(String line) {
-        Pattern pattern = Pattern.compile("\\b(class|interface|enum)\\s+(\\w+)");
-        Matcher matcher = pattern.matcher(line);
+        Matcher matcher = CLASS_NAME.matcher(line);
         return matcher.find() ? matcher.group(2) : "unknown";
     }
 
@@ -258,18 +396,92 @@ public class GitDiffParser {
         return line.replace("import", "").replace(";", "").trim();
     }
 
-    private String extractBeanType(String line, List<String> context) {
-        // Bean 반환 타입이나 ToolCallbackProvider 등을 추출
-        if (line.contains("ToolCallbackProvider")) return "ToolCallbackProvider";
-        if (line.contains("Provider")) return "Provider";
+    private static int indexOfAny(String s, char a, char b) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == a || c == b) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 파일 하나의 구조적 변경 누적 (같은 이름이 추가/삭제 양쪽에 있으면 "변경"으로 합침)
+     */
+    private static final class FileSummary {
+        private static final Map<String, String> KIND_LABELS = Map.of(
+                "import", "import", "annotation", "어노테이션", "class", "클래스",
+                "method", "메서드", "field", "필드");
+        private static final List<String> KIND_ORDER = KIND_LABELS.keySet().stream().sorted().toList();
+
+        final String path;
+        final boolean structural;
+        final Map<String, Set<String>> addedByKind = new LinkedHashMap<>();
+        final Map<String, Set<String>> removedByKind = new LinkedHashMap<>();
+        // 현재 위치를 감싸는 클래스들 (이름, 선언 시점의 중괄호 깊이)
+        final Deque<Map.Entry<String, Integer>> scopes = new ArrayDeque<>();
+        String hunkClass;
+        int depth;
+        int added;
+        int deleted;
+
+        FileSummary(String path) {
+            this.path = path;
+            this.structural = STRUCTURAL_EXTENSIONS.stream().anyMatch(path::endsWith);
+        }
 
-        // 반환 타입에서 추출 시도
-        String returnType = extractReturnType(line);
-        if (!returnType.equals("unknown")) {
-            return returnType;
+        void startHunk(String headerClass) {
+            scopes.clear();
+            depth = 0;
+            hunkClass = headerClass;
         }
 
-        return "Bean";
+        /**
+         * 새 파일 기준 줄(+, 문맥)로 클래스 중첩 깊이 추적
+         */
+        void track(String declaredClass, String text, int start, int end) {
+            if (declaredClass != null && !declaredClass.equals("unknown")) {
+                scopes.push(Map.entry(declaredClass, depth));
+            }
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == '{') depth++;
+                else if (c == '}') {
+                    depth--;
+                    while (!scopes.isEmpty() && depth <= scopes.peek().getValue()) scopes.pop();
+                }
+            }
+        }
+
+        String currentClass() {
+            return scopes.isEmpty() ? hunkClass : scopes.peek().getKey();
+        }
+
+        void record(boolean isAdded, String kind, String name) {
+            String currentClass = currentClass();
+            String qualified = currentClass != null && ("method".equals(kind) || "field".equals(kind))
+                    ? name + " (" + currentClass + ")"
+                    : name;
+            (isAdded ? addedByKind : removedByKind).computeIfAbsent(kind, k -> new LinkedHashSet<>()).add(qualified);
+        }
+
+        void appendTo(List<String> out) {
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            int before = out.size();
+            for (String kind : KIND_ORDER) {
+                Set<String> plus = addedByKind.getOrDefault(kind, Set.of());
+                Set<String> minus = removedByKind.getOrDefault(kind, Set.of());
+                String label = KIND_LABELS.get(kind);
+                for (String name : plus) {
+                    String verb = minus.contains(name) ? "변경" : "추가";
+                    out.add(fileName + ": " + label + " " + verb + " " + name);
+                }
+                for (String name : minus) {
+                    if (!plus.contains(name)) out.add(fileName + ": " + label + " 삭제 " + name);
+                }
+            }
+            if (out.size() == before) {
+                out.add(path + ": +" + added + "/-" + deleted + "줄");
+            }
+        }
     }
 }
-
@@ -8,13 +8,13 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
-final class GitRootResolver {
+public final class GitRootResolver {
     /**
      * Resolve a stable working directory that equals the nearest Git repository root
      * regardless of where the launcher (e.g., IntelliJ AI Assistant) starts the JAR.
      * Search order: GIT_WORK_DIR -> -Dgit.work.dir -> user.dir -> JAR location -> PWD.
      */
-    static File resolve() {
+    public static File resolve() {
         List<File> candidates = new ArrayList<>();
 
         String env = System.getenv("GIT_WORK_DIR");
@@ -45,7 +45,7 @@ final class GitRootResolver {
     /**
      * Walk upward from start until a `.git` directory or file is found (worktrees supported).
      */
-    static File findGitRoot(File start) {
+    public static File findGitRoot(File start) {
         File dir = start;
         try {
             while (dir != null) {
@@ -0,0 +1,153 @@
+package org.springframework.ai.mcp.util;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * git 프로세스를 띄우지 않고 JVM 안에서 staged/unstaged diff를 계산하는 엔진.
+ * .git/index, loose object, packfile(mmap)을 JGit으로 직접 읽는다.
+ */
+public final class JGitDiffEngine implements AutoCloseable {
+
+    /**
+     * index 쪽(트리 0)이 없는 항목 제외. untracked 파일은 `git diff`에 나오지 않으므로 해시하기 전에 건너뛰고,
+     * untracked 디렉터리(빌드 출력 등)는 통째로 들어가지 않는다.
+     */
+    private static final TreeFilter IN_INDEX = new TreeFilter() {
+        @Override
+        public boolean include(TreeWalk walk) {
+            return walk.getRawMode(0) != 0;
+        }
+
+        @Override
+        public boolean shouldBeRecursive() {
+            return false;
+        }
+
+        @Override
+        public TreeFilter clone() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "IN_INDEX";
+        }
+    };
+
+    static {
+        // JGit 기본값은 packfile을 힙 버퍼로 복사해 읽음 (packedGitMMAP=false). 창 캐시는 JVM 전역 설정이므로 저장소를 열기 전에 한 번만
+        WindowCacheConfig config = new WindowCacheConfig();
+        config.setPackedGitMMAP(true);
+        config.install();
+    }
+
+    private final Repository repository;
+
+    public JGitDiffEngine(File workTree) throws IOException {
+        this.repository = new FileRepositoryBuilder()
+                .readEnvironment()
+                .findGitDir(workTree)
+                .setMustExist(true)
+                .build();
+    }
+
+    /**
+     * `git diff` (cached=false) 또는 `git diff --cached` (cached=true)와 같은 unified diff 반환
+     */
+    public String diff(boolean cached) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        diff(cached, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * diff를 문자열로 모으지 않고 out으로 바로 흘려보냄 (대용량 diff용)
+     */
+    public void diff(boolean cached, OutputStream out) throws IOException {
+        try (ObjectReader reader = repository.newObjectReader();
+             DiffFormatter fmt = newFormatter(out)) {
+            List<DiffEntry> entries = scan(fmt, reader, cached);
+            fmt.format(entries);
+            fmt.flush();
+        }
+    }
+
+    /**
+     * `git diff --name-only [--cached]`와 같은 변경 파일 목록 반환
+     */
+    public List<String> changedFiles(boolean cached) throws IOException {
+        try (ObjectReader reader = repository.newObjectReader();
+             DiffFormatter fmt = newFormatter(OutputStream.nullOutputStream())) {
+            List<String> files = new ArrayList<>();
+            for (DiffEntry e : scan(fmt, reader, cached)) {
+                files.add(e.getChangeType() == DiffEntry.ChangeType.DELETE ? e.getOldPath() : e.getNewPath());
+            }
+            return files;
+        }
+    }
+
+    public File getWorkTree() {
+        return repository.getWorkTree();
+    }
+
+    @Override
+    public void close() {
+        repository.close();
+    }
+
+    private DiffFormatter newFormatter(OutputStream out) {
+        DiffFormatter fmt = new DiffFormatter(out);
+        // 저장소를 넘겨야 .gitattributes(diff/binary)가 적용되고 working tree 비교에 index stat 정보를 씀
+        fmt.setRepository(repository);
+        // git 2.9+ 기본값과 동일하게 rename 감지
+        fmt.setDetectRenames(true);
+        return fmt;
+    }
+
+    private List<DiffEntry> scan(DiffFormatter fmt, ObjectReader reader, boolean cached) throws IOException {
+        DirCache index = repository.readDirCache();
+        if (cached) {
+            // HEAD tree ↔ index
+            return fmt.scan(headTree(reader), new DirCacheIterator(index));
+        }
+        // index ↔ working tree (stat 정보로 변경 여부 판단, 변경 파일만 해시)
+        // untracked 파일이 rename 후보로 섞이지 않도록 rename 감지는 끈다
+        fmt.setDetectRenames(false);
+        fmt.setPathFilter(IN_INDEX);
+        return fmt.scan(new DirCacheIterator(index), new FileTreeIterator(repository));
+    }
+
+    private AbstractTreeIterator headTree(ObjectReader reader) throws IOException {
+        ObjectId tree = repository.resolve(Constants.HEAD + "^{tree}");
+        if (tree == null) {
+            // 첫 커밋 전: 빈 트리와 비교
+            return new EmptyTreeIterator();
+        }
+        CanonicalTreeParser parser = new CanonicalTreeParser();
+        parser.reset(reader, tree);
+        return parser;
+    }
+}
@@ -0,0 +1,75 @@
+package org.springframework.ai.mcp.util;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 바이트 스트림을 줄 단위로 잘라 consumer에 바로 넘기는 OutputStream.
+ * 한 줄이 maxLineBytes를 넘으면 나머지는 버리므로 출력 크기와 무관하게 메모리 사용량이 일정하다.
+ */
+public final class LineSplitter extends OutputStream {
+    private final Consumer<String> sink;
+    private final int maxLineBytes;
+    private byte[] buf = new byte[256];
+    private int len;
+    private boolean pending;
+
+    public LineSplitter(Consumer<String> sink, int maxLineBytes) {
+        this.sink = sink;
+        this.maxLineBytes = Math.max(1, maxLineBytes);
+    }
+
+    @Override
+    public void write(int b) {
+        if (b == '\n') {
+            emit();
+            return;
+        }
+        pending = true;
+        if (len < maxLineBytes) {
+            if (len == buf.length) {
+                buf = Arrays.copyOf(buf, Math.min(maxLineBytes, buf.length * 2));
+            }
+            buf[len++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int count) {
+        int end = off + count;
+        int start = off;
+        for (int i = off; i < end; i++) {
+            if (b[i] == '\n') {
+                append(b, start, i - start);
+                emit();
+                start = i + 1;
+            }
+        }
+        append(b, start, end - start);
+    }
+
+    @Override
+    public void close() {
+        if (pending) emit();
+    }
+
+    private void append(byte[] b, int off, int count) {
+        if (count <= 0) return;
+        pending = true;
+        int n = Math.min(count, maxLineBytes - len);
+        if (n <= 0) return;
+        if (len + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.min(maxLineBytes, Math.max(buf.length * 2, len + n)));
+        }
+        System.arraycopy(b, off, buf, len, n);
+        len += n;
+    }
+
+    private void emit() {
+        sink.accept(new String(buf, 0, len, StandardCharsets.UTF_8));
+        len = 0;
+        pending = false;
+    }
+}
@@ -0,0 +1,56 @@
+package org.springframework.ai.mcp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OllamaEndpointsTest {
+
+    @Test
+    void singleUrlKeepsDefaults() {
+        OllamaEndpoints endpoints = new OllamaEndpoints("http://localhost:11434/");
+
+        assertEquals(List.of(new OllamaEndpoints.Endpoint("http://localhost:11434", 1, Set.of())), endpoints.list());
+        assertEquals("http://localhost:11434", endpoints.first().url());
+    }
+
+    @Test
+    void parsesWeightsAndModelsPerEndpoint() {
+        List<OllamaEndpoints.Endpoint> endpoints = OllamaEndpoints.parse(
+                " http://gpu1:11434 ; weight=2 , http://gpu2:11434;models=gemma3:12b-it-qat| llama3.1:8b |;weight=0");
+
+        assertEquals(2, endpoints.size());
+        assertEquals(new OllamaEndpoints.Endpoint("http://gpu1:11434", 2, Set.of()), endpoints.get(0));
+        // 가중치는 최소 1
+        assertEquals(new OllamaEndpoints.Endpoint("http://gpu2:11434", 1, Set.of("gemma3:12b-it-qat", "llama3.1:8b")),
+                endpoints.get(1));
+    }
+
+    @Test
+    void declaresAnyModelUnlessRestricted() {
+        List<OllamaEndpoints.Endpoint> endpoints = OllamaEndpoints.parse("http://a:11434, http://b:11434;models=llama3.1:8b");
+
+        assertTrue(endpoints.get(0).declares("gemma3:12b-it-qat"));
+        assertTrue(endpoints.get(1).declares("llama3.1:8b"));
+        assertFalse(endpoints.get(1).declares("gemma3:12b-it-qat"));
+    }
+
+    @Test
+    void skipsEmptyItems() {
+        assertEquals(List.of("http://a:11434", "http://b:11434"),
+                OllamaEndpoints.parse("http://a:11434,, ,http://b:11434,").stream().map(OllamaEndpoints.Endpoint::url).toList());
+    }
+
+    @Test
+    void rejectsUnknownOptionsAndEmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> OllamaEndpoints.parse("http://a:11434;wieght=2"));
+        assertThrows(NumberFormatException.class, () -> OllamaEndpoints.parse("http://a:11434;weight=two"));
+        assertThrows(IllegalArgumentException.class, () -> new OllamaEndpoints(" , "));
+    }
+}
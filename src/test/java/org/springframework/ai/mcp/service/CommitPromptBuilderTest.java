@@ -0,0 +1,138 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.util.GitDiffParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.ai.mcp.service.TestDiffs.fileDiff;
+
+class CommitPromptBuilderTest {
+
+    private static final String OMITTED = "(diff가 커서 일부 내용은 생략되었습니다.";
+
+    private static final String JAVA_DIFF = """
+            diff --git a/src/main/java/com/example/OrderService.java b/src/main/java/com/example/OrderService.java
+            index 6666666..7777777 100644
+            --- a/src/main/java/com/example/OrderService.java
+            +++ b/src/main/java/com/example/OrderService.java
+            @@ -40,3 +40,6 @@ public class OrderService {
+                 private final Repo repo;
+            +    public Order cancel(String id) {
+            +        return repo.cancel(id);
+            +    }
+            """;
+
+    private static CommitPromptBuilder builder(String mode) {
+        // 기본값 (application.yml과 @Value 기본값)
+        return new CommitPromptBuilder(new GitDiffParser(), mode, 16384, 200);
+    }
+
+    // 프롬프트에 들어간 diff 본문 (```와 ``` 사이)
+    private static String embeddedDiff(String prompt) {
+        int start = prompt.indexOf("### Git Diff\n");
+        assertTrue(start >= 0);
+        int open = prompt.indexOf("```\n", start) + 4;
+        return prompt.substring(open, prompt.indexOf("\n```", open));
+    }
+
+    @Test
+    void rawModeHasFullDiffWithoutSummary() {
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(JAVA_DIFF, true);
+        String prompt = builder("raw").build(snapshot, 3);
+
+        assertFalse(prompt.contains("### 구조적 변경 요약"));
+        assertEquals(snapshot.diff(), embeddedDiff(prompt));
+        assertTrue(prompt.contains("- M src/main/java/com/example/OrderService.java (+3/-0)\n"));
+        assertTrue(prompt.endsWith("1. [커밋메시지]\n2. [커밋메시지]\n3. [커밋메시지]\n"));
+    }
+
+    @Test
+    void summaryModeHasSummaryWithoutDiff() {
+        String prompt = builder("summary").build(RepositorySnapshot.fromUnifiedDiff(JAVA_DIFF, true), 3);
+
+        assertTrue(prompt.contains("### 구조적 변경 요약\n- OrderService.java: 메서드 추가 cancel(String) (OrderService)\n"));
+        assertFalse(prompt.contains("### Git Diff"));
+    }
+
+    @Test
+    void hybridModeKeepsSmallDiffWhole() {
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(JAVA_DIFF, true);
+        String prompt = builder("hybrid").build(snapshot, List.of("OrderService.java:41 OrderService"), 3);
+
+        assertTrue(prompt.contains("### 구조적 변경 요약\n"));
+        assertTrue(prompt.contains("### 변경 위치 (파일:줄 감싸는 클래스 > 메서드)\n- OrderService.java:41 OrderService\n"));
+        assertEquals(snapshot.diff(), embeddedDiff(prompt));
+        assertFalse(prompt.contains(OMITTED));
+    }
+
+    @Test
+    void hybridModeCutsDiffAtUtf8BytesOnLineBoundary() {
+        // 한 글자 3바이트: 문자 수로 자르면 한도의 세 배까지 들어감
+        StringBuilder diff = new StringBuilder(fileDiff("src/A.java", 0));
+        for (int i = 0; diff.toString().getBytes(StandardCharsets.UTF_8).length <= 32 * 1024; i++) {
+            diff.append("+// 변경 내용 설명 ").append(i).append('\n');
+        }
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(diff.toString(), true);
+        String embedded = embeddedDiff(builder("hybrid").build(snapshot, 3));
+
+        int bytes = embedded.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(bytes <= 16384, "bytes=" + bytes);
+        assertTrue(bytes > 16384 - 64, "bytes=" + bytes);
+        // 잘린 앞부분은 줄 단위
+        assertTrue(snapshot.diff().startsWith(embedded + "\n"));
+        assertTrue(builder("hybrid").build(snapshot, 3).contains(OMITTED));
+    }
+
+    @Test
+    void hybridModeDoesNotCutDiffAtExactLimit() {
+        StringBuilder diff = new StringBuilder(fileDiff("src/A.java", 0));
+        while (diff.length() < 16384 - 8) diff.append("+x\n");
+        // 스냅샷은 마지막 줄 뒤에 줄바꿈을 붙임
+        diff.append("+".repeat(16384 - 1 - diff.length()));
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(diff.toString(), true);
+        assertEquals(16384, snapshot.diff().getBytes(StandardCharsets.UTF_8).length);
+
+        String prompt = builder("hybrid").build(snapshot, 3);
+        assertEquals(snapshot.diff(), embeddedDiff(prompt));
+        assertFalse(prompt.contains(OMITTED));
+    }
+
+    @Test
+    void summaryIsCappedAtMaxSummaryLines() {
+        StringBuilder diff = new StringBuilder();
+        for (int i = 0; i < 5; i++) diff.append(fileDiff("docs/note" + i + ".md", 1));
+        String prompt = new CommitPromptBuilder(new GitDiffParser(), "summary", 16384, 2)
+                .build(RepositorySnapshot.fromUnifiedDiff(diff.toString(), true), 3);
+
+        assertTrue(prompt.contains("- docs/note0.md: +1/-0줄\n- docs/note1.md: +1/-0줄\n- ... 외 3건\n"));
+        assertFalse(prompt.contains("note2.md: +1"));
+    }
+
+    @Test
+    void reducePromptUsesChunkSummariesInsteadOfDiff() {
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(JAVA_DIFF, true);
+        String prompt = builder("hybrid").buildReduce(snapshot, List.of("service: 주문 취소 추가", "docs: 설명 보완"), 2);
+
+        assertTrue(prompt.contains("아래 모듈별 변경 요약을 분석해"));
+        assertTrue(prompt.contains("### 모듈별 변경 요약\n- service: 주문 취소 추가\n- docs: 설명 보완\n\n"));
+        assertTrue(prompt.contains("- M src/main/java/com/example/OrderService.java (+3/-0)\n"));
+        assertFalse(prompt.contains("### Git Diff"));
+        assertFalse(prompt.contains("### 구조적 변경 요약"));
+        assertTrue(prompt.endsWith("1. [커밋메시지]\n2. [커밋메시지]\n"));
+    }
+
+    @Test
+    void templateVersionIsPinned() {
+        // 캐시 키의 일부: 바뀌면 기존 캐시 항목(디스크 포함)이 모두 무효가 되므로 의도한 변경일 때만 고칠 것
+        assertEquals("v1/HYBRID/16384/200", builder("hybrid").templateVersion());
+        assertEquals("v1/RAW/16384/200", builder(" raw ").templateVersion());
+        assertNotEquals(builder("hybrid").templateVersion(),
+                new CommitPromptBuilder(new GitDiffParser(), "hybrid", 8192, 200).templateVersion());
+    }
+}
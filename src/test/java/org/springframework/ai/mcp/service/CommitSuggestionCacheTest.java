@@ -0,0 +1,156 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommitSuggestionCacheTest {
+    private static final List<String> SUGGESTIONS = List.of("feat(cache): 디스크 캐시 추가", "fix(cache): 만료 처리 수정");
+
+    @TempDir
+    File gitDir;
+
+    private static CommitSuggestionCache memoryOnly(int maxEntries, Duration ttl) {
+        return new CommitSuggestionCache(new SimpleMeterRegistry(), true, maxEntries, ttl, false, Duration.ofDays(7), 1000);
+    }
+
+    private static CommitSuggestionCache withDisk(Duration diskTtl, int diskMaxEntries) {
+        return new CommitSuggestionCache(new SimpleMeterRegistry(), true, 256, Duration.ofMinutes(30), true, diskTtl, diskMaxEntries);
+    }
+
+    private Path cacheDir() {
+        return gitDir.toPath().resolve("mcp-commit-cache");
+    }
+
+    private List<String> cacheFiles() throws IOException {
+        if (!Files.isDirectory(cacheDir())) return List.of();
+        try (Stream<Path> files = Files.list(cacheDir())) {
+            return files.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    // 파일 수정 시각을 age만큼 과거로
+    private void age(String name, Duration age) throws IOException {
+        Files.setLastModifiedTime(cacheDir().resolve(name), FileTime.fromMillis(System.currentTimeMillis() - age.toMillis()));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        CommitSuggestionCache cache = memoryOnly(2, Duration.ofMinutes(30));
+        CommitSuggestionCache.Scope scope = cache.scope(null);
+        scope.put("a", List.of("a"));
+        scope.put("b", List.of("b"));
+        // a를 최근 사용으로 → 다음 저장 시 b가 밀려남
+        assertEquals(Optional.of(List.of("a")), scope.get("a"));
+        scope.put("c", List.of("c"));
+
+        assertTrue(scope.get("a").isPresent());
+        assertFalse(scope.get("b").isPresent());
+        assertTrue(scope.get("c").isPresent());
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws Exception {
+        CommitSuggestionCache cache = memoryOnly(16, Duration.ofMillis(1));
+        CommitSuggestionCache.Scope scope = cache.scope(null);
+        scope.put("a", SUGGESTIONS);
+        Thread.sleep(20);
+
+        assertFalse(scope.get("a").isPresent());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void scopesDoNotShareMemoryEntries() {
+        CommitSuggestionCache cache = memoryOnly(16, Duration.ofMinutes(30));
+        cache.scope(null).put("a", SUGGESTIONS);
+
+        assertFalse(cache.scope(null).get("a").isPresent());
+    }
+
+    @Test
+    void diskEntrySurvivesNewInstance() {
+        withDisk(Duration.ofDays(7), 1000).scope(gitDir).put("k-3", List.of("feat: 첫 줄\n둘째 줄", "fix: 수정"));
+
+        CommitSuggestionCache restarted = withDisk(Duration.ofDays(7), 1000);
+        CommitSuggestionCache.Scope scope = restarted.scope(gitDir);
+        // 줄바꿈은 공백으로 정규화되어 저장됨
+        assertEquals(Optional.of(List.of("feat: 첫 줄 둘째 줄", "fix: 수정")), scope.get("k-3"));
+        assertEquals(1, restarted.hits());
+        assertEquals(0, restarted.misses());
+    }
+
+    @Test
+    void expiredDiskEntryIsDeletedOnRead() throws Exception {
+        withDisk(Duration.ofDays(7), 1000).scope(gitDir).put("k-3", SUGGESTIONS);
+        // 첫 줄(저장 시각)이 TTL보다 오래됨
+        Path file = cacheDir().resolve("k-3.txt");
+        List<String> lines = Files.readAllLines(file);
+        Files.write(file, Stream.concat(
+                Stream.of(Long.toString(System.currentTimeMillis() - Duration.ofDays(8).toMillis())),
+                lines.stream().skip(1)).toList());
+
+        assertFalse(withDisk(Duration.ofDays(7), 1000).scope(gitDir).get("k-3").isPresent());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void sweepRemovesExpiredAndOldestOverLimit() throws Exception {
+        CommitSuggestionCache writer = withDisk(Duration.ofDays(7), 1000);
+        CommitSuggestionCache.Scope scope = writer.scope(gitDir);
+        for (String key : List.of("a", "b", "c", "d")) scope.put(key, SUGGESTIONS);
+        Files.writeString(cacheDir().resolve("e123.tmp"), "1");
+        age("a.txt", Duration.ofDays(8));
+        age("e123.tmp", Duration.ofDays(8));
+        age("b.txt", Duration.ofHours(3));
+        age("c.txt", Duration.ofHours(2));
+        age("d.txt", Duration.ofHours(1));
+
+        withDisk(Duration.ofDays(7), 2).sweepDisk(gitDir);
+
+        // 만료된 a와 임시 파일, 한도(2개)를 넘는 가장 오래된 b가 지워짐
+        assertEquals(List.of("c.txt", "d.txt"), cacheFiles());
+    }
+
+    @Test
+    void openingScopeSweepsInBackground() throws Exception {
+        withDisk(Duration.ofDays(7), 1000).scope(gitDir).put("old", SUGGESTIONS);
+        age("old.txt", Duration.ofDays(8));
+
+        withDisk(Duration.ofDays(7), 1000).scope(gitDir);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!cacheFiles().isEmpty() && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(List.of(), cacheFiles());
+    }
+
+    @Test
+    void keyDependsOnSnapshotModelAndTemplate() {
+        CommitSuggestionCache cache = memoryOnly(16, Duration.ofMinutes(30));
+        RepositorySnapshot snapshot = RepositorySnapshot.fromUnifiedDiff(TestDiffs.fileDiff("src/A.java", 2), true);
+        String key = cache.snapshotKey(snapshot, "m", "v1");
+
+        assertEquals(key, cache.snapshotKey(RepositorySnapshot.fromUnifiedDiff(TestDiffs.fileDiff("src/A.java", 2), true), "m", "v1"));
+        assertNotEquals(key, cache.snapshotKey(snapshot, "other", "v1"));
+        assertNotEquals(key, cache.snapshotKey(snapshot, "m", "v2"));
+        assertNotEquals(key, cache.snapshotKey(RepositorySnapshot.fromUnifiedDiff(TestDiffs.fileDiff("src/A.java", 2), false), "m", "v1"));
+        assertEquals(key + "-3", CommitSuggestionCache.key(key, 3));
+    }
+}
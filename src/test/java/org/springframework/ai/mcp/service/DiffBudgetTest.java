@@ -0,0 +1,132 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.ai.mcp.service.TestDiffs.fileDiff;
+
+class DiffBudgetTest {
+
+    private static RepositorySnapshot collect(DiffBudget budget, String diff) {
+        SnapshotCollector collector = new SnapshotCollector(budget, true);
+        diff.lines().forEach(collector);
+        return collector.build();
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new DiffBudget(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DiffBudget(1, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DiffBudget(1, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DiffBudget(1, 1, 1, -1));
+    }
+
+    @Test
+    void unlimitedKeepsWholeDiff() {
+        String diff = fileDiff("src/A.java", 3) + fileDiff("src/B.java", 2);
+
+        RepositorySnapshot snapshot = collect(DiffBudget.UNLIMITED, diff);
+
+        assertEquals(diff, snapshot.diff());
+        assertFalse(snapshot.truncated());
+        assertEquals(List.of(new RepositorySnapshot.FileChange('M', "src/A.java", 3, 0),
+                new RepositorySnapshot.FileChange('M', "src/B.java", 2, 0)), snapshot.changes());
+    }
+
+    @Test
+    void maxFileLinesCutsOneFileButCountsAllChanges() {
+        RepositorySnapshot snapshot = collect(new DiffBudget(Long.MAX_VALUE, Integer.MAX_VALUE, 7, 1000),
+                fileDiff("src/A.java", 10));
+
+        assertTrue(snapshot.truncated());
+        // 헤더 5줄 + 변경 2줄 + 생략 안내
+        List<String> lines = snapshot.diff().lines().toList();
+        assertEquals(8, lines.size());
+        assertEquals("+line 1", lines.get(6));
+        assertEquals("... (이하 8줄 생략, 전체 +10/-0)", lines.get(7));
+        assertEquals(10, snapshot.changes().get(0).added());
+    }
+
+    @Test
+    void maxLinesOmitsFilesThatNoLongerFit() {
+        // A.java가 정확히 7줄을 채움
+        RepositorySnapshot snapshot = collect(new DiffBudget(Long.MAX_VALUE, 7, Integer.MAX_VALUE, 1000),
+                fileDiff("src/A.java", 2) + fileDiff("src/B.java", 2));
+
+        assertTrue(snapshot.truncated());
+        assertTrue(snapshot.diff().startsWith(fileDiff("src/A.java", 2)));
+        assertFalse(snapshot.diff().contains("src/B.java"));
+        assertTrue(snapshot.diff().endsWith("... (diff 크기 제한으로 1개 파일 내용 생략)\n"));
+        assertEquals(List.of("src/A.java", "src/B.java"), snapshot.files());
+    }
+
+    @Test
+    void maxBytesIsMeasuredInUtf8() {
+        String diff = fileDiff("src/A.java", 0).replace("@@ -1,0 +1,0 @@\n", "@@ -1,0 +1,1 @@\n") + "+한글\n";
+        long headerBytes = SnapshotCollector.utf8Length(fileDiff("src/A.java", 0));
+
+        // "+한글\n"은 8바이트 (문자 수로는 4)
+        RepositorySnapshot fits = collect(new DiffBudget(headerBytes + 8, Integer.MAX_VALUE, Integer.MAX_VALUE, 1000), diff);
+        RepositorySnapshot cut = collect(new DiffBudget(headerBytes + 7, Integer.MAX_VALUE, Integer.MAX_VALUE, 1000), diff);
+
+        assertEquals(diff, fits.diff());
+        assertTrue(cut.truncated());
+        assertFalse(cut.diff().contains("+한글"));
+    }
+
+    @Test
+    void longLinesAreCutAtCharacterBoundary() {
+        String diff = fileDiff("src/A.java", 0).replace("@@ -1,0 +1,0 @@\n", "@@ -1,0 +1,1 @@\n") + "+" + "가".repeat(20) + "\n";
+
+        // 38바이트 = "+" 1 + 한글 12자(36), 13번째 글자는 일부만 들어가므로 뺌 (헤더는 모두 38바이트 이하)
+        RepositorySnapshot snapshot = collect(new DiffBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 38), diff);
+
+        assertTrue(snapshot.diff().endsWith("\n+" + "가".repeat(12) + " …\n"));
+        assertEquals(1, snapshot.changes().get(0).added());
+    }
+
+    @Test
+    void longHeaderLinesAreNotCut() {
+        String path = "src/" + "deeply/nested/".repeat(5) + "Service.java";
+        String renamed = "diff --git a/src/Old.java b/" + path + "\n"
+                + "similarity index 90%\n"
+                + "rename from src/Old.java\n"
+                + "rename to " + path + "\n"
+                + "--- a/src/Old.java\n"
+                + "+++ b/" + path + "\n"
+                + "@@ -1,1 +1,1 @@\n"
+                + "+" + "x".repeat(60) + "\n";
+        String diff = renamed + fileDiff(path.replace("Service", "Other"), 1);
+
+        // 경로(80바이트 이상)보다 짧은 줄 길이 한도
+        RepositorySnapshot snapshot = collect(new DiffBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 40), diff);
+
+        assertEquals(List.of(new RepositorySnapshot.FileChange('R', path, 1, 0),
+                new RepositorySnapshot.FileChange('M', path.replace("Service", "Other"), 1, 0)), snapshot.changes());
+        assertTrue(snapshot.diff().contains("rename to " + path + "\n"));
+        assertTrue(snapshot.diff().contains("+++ b/" + path + "\n"));
+        // 본문은 그대로 잘림
+        assertTrue(snapshot.diff().contains("\n+" + "x".repeat(39) + " …\n"));
+    }
+
+    @Test
+    void truncateUtf8KeepsSurrogatePairs() {
+        assertEquals("a", SnapshotCollector.truncateUtf8("a😀", 4));
+        assertEquals("a😀", SnapshotCollector.truncateUtf8("a😀", 5));
+        assertEquals(5, SnapshotCollector.utf8Length("a😀"));
+    }
+
+    @Test
+    void lockFilesAreSummarized() {
+        RepositorySnapshot snapshot = collect(DiffBudget.UNLIMITED, fileDiff("package-lock.json", 50));
+
+        assertTrue(snapshot.truncated());
+        assertEquals("diff --git a/package-lock.json b/package-lock.json\n"
+                + "... (생성/잠금 파일로 내용 생략, +50/-0)\n", snapshot.diff());
+    }
+}
@@ -0,0 +1,196 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 저장소는 .git 디렉터리만 있는 빈 디렉터리 (process 엔진은 열 때 git을 실행하지 않음)
+ */
+class GitRepositoriesTest {
+
+    @TempDir
+    Path dir;
+
+    private GitRepositories repositories;
+
+    @AfterEach
+    void tearDown() {
+        if (repositories != null) repositories.shutdown();
+    }
+
+    private GitRepositories repositories(int maxActive, Path... allowedRoots) {
+        CommitSuggestionCache cache = new CommitSuggestionCache(new SimpleMeterRegistry(), true, 16, Duration.ofMinutes(30),
+                false, Duration.ofDays(7), 1000);
+        List<String> allowed = new ArrayList<>();
+        for (Path root : allowedRoots) allowed.add(root.toString());
+        repositories = new GitRepositories(cache, "process", Duration.ofSeconds(10), Duration.ofSeconds(10), 1 << 20,
+                maxActive, 1, String.join(",", allowed));
+        return repositories;
+    }
+
+    private Path repo(String name) throws IOException {
+        Path root = dir.resolve(name);
+        Files.createDirectories(root.resolve(".git"));
+        Files.createDirectories(root.resolve("src/main"));
+        return root;
+    }
+
+    private static File canonical(Path path) throws IOException {
+        return path.toFile().getCanonicalFile();
+    }
+
+    @Test
+    void resolvesOnlyRepositoriesUnderAllowedRoots() throws Exception {
+        Path allowed = Files.createDirectories(dir.resolve("allowed"));
+        Path inside = repo("allowed/app");
+        // 이름만 같은 접두사인 형제 디렉터리는 허용 경로 아래가 아님
+        Path sibling = repo("allowed-evil");
+        Path outside = repo("other");
+        GitRepositories repositories = repositories(4, allowed);
+
+        assertEquals(canonical(inside), repositories.resolveRoot(inside.resolve("src/main").toString()));
+        assertEquals(canonical(inside), repositories.resolveRoot(inside.toString()));
+        assertThrows(IllegalArgumentException.class, () -> repositories.resolveRoot(sibling.toString()));
+        assertThrows(IllegalArgumentException.class, () -> repositories.resolveRoot(outside.toString()));
+        // ..로 허용 경로를 빠져나가도 정규 경로로 판단
+        assertThrows(IllegalArgumentException.class,
+                () -> repositories.resolveRoot(allowed.resolve("../other").toString()));
+    }
+
+    @Test
+    void rejectsPathOutsideAnyRepository() throws Exception {
+        Path plain = Files.createDirectories(dir.resolve("plain"));
+        GitRepositories repositories = repositories(4, dir);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> repositories.resolveRoot(plain.toString()));
+        assertTrue(e.getMessage().startsWith("git 저장소가 아닙니다"));
+        // 실패한 경로는 캐시하지 않으므로 나중에 저장소가 되면 바로 해석됨
+        Files.createDirectories(plain.resolve(".git"));
+        assertEquals(canonical(plain), repositories.resolveRoot(plain.toString()));
+    }
+
+    @Test
+    void blankPathIsDefaultRootWithoutAllowList() {
+        GitRepositories repositories = repositories(4);
+
+        assertEquals(repositories.stats().defaultRoot(), repositories.resolveRoot(null).getPath());
+        assertEquals(repositories.stats().defaultRoot(), repositories.resolveRoot(" ").getPath());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxActive() throws Exception {
+        Path a = repo("a");
+        Path b = repo("b");
+        Path c = repo("c");
+        GitRepositories repositories = repositories(2, dir);
+
+        GitRepositories.Repo repoA = repositories.acquire(a.toString());
+        repoA.release();
+        GitRepositories.Repo repoB = repositories.acquire(b.toString());
+        repoB.release();
+        // a를 다시 써서 b가 가장 오래 안 쓴 저장소가 됨
+        assertSame(repoA, repositories.acquire(a.toString()));
+        repoA.release();
+        repositories.acquire(c.toString()).release();
+
+        assertTrue(repoB.closed());
+        assertFalse(repoA.closed());
+        GitRepositories.RepositoryStats stats = repositories.stats();
+        assertEquals(2, stats.active());
+        assertEquals(3, stats.opened());
+        assertEquals(1, stats.evictions());
+    }
+
+    @Test
+    void evictedRepositoryInUseClosesOnLastRelease() throws Exception {
+        Path a = repo("a");
+        Path b = repo("b");
+        GitRepositories repositories = repositories(1, dir);
+
+        GitRepositories.Repo first = repositories.acquire(a.toString());
+        GitRepositories.Repo second = repositories.acquire(a.toString());
+        repositories.acquire(b.toString()).release();
+
+        // 정리 대상이지만 두 요청이 쓰는 중
+        assertFalse(first.closed());
+        first.release();
+        assertFalse(second.closed());
+        second.release();
+        assertTrue(second.closed());
+    }
+
+    @Test
+    void acquireAfterEvictionOpensNewState() throws Exception {
+        Path a = repo("a");
+        Path b = repo("b");
+        GitRepositories repositories = repositories(1, dir);
+
+        GitRepositories.Repo old = repositories.acquire(a.toString());
+        repositories.acquire(b.toString()).release();
+        GitRepositories.Repo reopened = repositories.acquire(a.toString());
+
+        // 정리 중인(아직 사용 중인) 상태를 다시 나눠 주지 않음
+        assertNotSame(old, reopened);
+        assertFalse(reopened.closed());
+        old.release();
+        reopened.release();
+        assertTrue(old.closed());
+        assertFalse(reopened.closed());
+    }
+
+    @Test
+    void concurrentAcquireNeverReturnsClosedRepository() throws Exception {
+        List<Path> roots = List.of(repo("a"), repo("b"), repo("c"));
+        // 활성 저장소 1개: 거의 모든 acquire가 다른 요청의 저장소를 정리함
+        GitRepositories repositories = repositories(1, dir);
+        AtomicInteger closedOnAcquire = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            Thread.ofVirtual().start(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        GitRepositories.Repo repo = repositories.acquire(roots.get((offset + i) % roots.size()).toString());
+                        if (repo.closed()) closedOnAcquire.incrementAndGet();
+                        Thread.yield();
+                        if (repo.closed()) closedOnAcquire.incrementAndGet();
+                        repo.release();
+                    }
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, errors.get());
+        assertEquals(0, closedOnAcquire.get());
+        assertEquals(1, repositories.stats().active());
+        assertEquals(repositories.stats().opened() - 1, repositories.stats().evictions());
+    }
+}
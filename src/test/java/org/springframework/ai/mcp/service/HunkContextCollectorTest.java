@@ -0,0 +1,139 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.service.HunkContextCollector.Hunk;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HunkContextCollectorTest {
+    private static final String OLD = "1111111";
+    private static final String NEW = "2222222";
+    private static final String ZERO = "0000000";
+
+    private final HunkContextCollector collector = new HunkContextCollector(true, 80, 1 << 20);
+
+    @Test
+    void recordsEachChangeRunWithPostImageLine() {
+        String diff = """
+                diff --git a/src/A.java b/src/A.java
+                index 1111111..2222222 100644
+                --- a/src/A.java
+                +++ b/src/A.java
+                @@ -10,7 +10,8 @@ public class A {
+                 ctx 10
+                -old 11
+                +new 11
+                +new 12
+                 ctx 13
+                 ctx 14
+                +new 15
+                 ctx 16
+                """;
+
+        assertEquals(List.of(new Hunk("src/A.java", NEW, true, 11), new Hunk("src/A.java", NEW, true, 15)),
+                collector.parse(diff));
+    }
+
+    @Test
+    void deletionOnlyHunkUsesPreImage() {
+        String diff = """
+                diff --git a/src/A.java b/src/A.java
+                index 1111111..2222222 100644
+                --- a/src/A.java
+                +++ b/src/A.java
+                @@ -20,3 +20,0 @@
+                -gone 20
+                -gone 21
+                -gone 22
+                """;
+
+        assertEquals(List.of(new Hunk("src/A.java", OLD, false, 20)), collector.parse(diff));
+    }
+
+    @Test
+    void newAndDeletedFiles() {
+        String diff = """
+                diff --git a/src/New.java b/src/New.java
+                new file mode 100644
+                index 0000000..2222222
+                --- /dev/null
+                +++ b/src/New.java
+                @@ -0,0 +1,2 @@
+                +a
+                +b
+                diff --git a/src/Old.java b/src/Old.java
+                deleted file mode 100644
+                index 1111111..0000000
+                --- a/src/Old.java
+                +++ /dev/null
+                @@ -1,2 +0,0 @@
+                -a
+                -b
+                """;
+
+        assertEquals(List.of(new Hunk("src/New.java", NEW, true, 1), new Hunk("src/Old.java", OLD, false, 1)),
+                collector.parse(diff));
+    }
+
+    @Test
+    void singleLineHunkHeaderWithoutCounts() {
+        String diff = """
+                diff --git a/a.txt b/a.txt
+                index 1111111..2222222 100644
+                --- a/a.txt
+                +++ b/a.txt
+                @@ -3 +3 @@
+                -x
+                +y
+                """;
+
+        assertEquals(List.of(new Hunk("a.txt", NEW, true, 3)), collector.parse(diff));
+    }
+
+    @Test
+    void skipsFilesWithoutIndexLine() {
+        // mode만 바뀐 파일, 바이너리 파일은 hunk도 blob id도 없음
+        String diff = """
+                diff --git a/run.sh b/run.sh
+                old mode 100644
+                new mode 100755
+                diff --git a/logo.png b/logo.png
+                index 1111111..2222222 100644
+                Binary files a/logo.png and b/logo.png differ
+                diff --git a/b.txt b/b.txt
+                --- a/b.txt
+                +++ b/b.txt
+                @@ -1 +1 @@
+                -x
+                +y
+                """;
+
+        assertEquals(List.of(), collector.parse(diff));
+    }
+
+    @Test
+    void stopsAtMaxHunks() {
+        StringBuilder diff = new StringBuilder("""
+                diff --git a/a.txt b/a.txt
+                index 1111111..2222222 100644
+                --- a/a.txt
+                +++ b/a.txt
+                @@ -1,10 +1,10 @@
+                """);
+        for (int i = 1; i <= 5; i++) {
+            diff.append("-old ").append(i).append("\n+new ").append(i).append("\n ctx\n");
+        }
+
+        List<Hunk> hunks = new HunkContextCollector(true, 3, 1 << 20).parse(diff.toString());
+
+        assertEquals(List.of(1, 3, 5), hunks.stream().map(Hunk::line).toList());
+    }
+
+    @Test
+    void imageKeySeparatesPreAndPostImage() {
+        assertEquals(NEW + "+a.txt", new Hunk("a.txt", NEW, true, 1).imageKey());
+        assertEquals(ZERO + "-a.txt", new Hunk("a.txt", ZERO, false, 1).imageKey());
+    }
+}
@@ -0,0 +1,88 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.ai.mcp.service.TestDiffs.fileDiff;
+
+class MapReduceSummarizerTest {
+
+    @Test
+    void groupsAdjacentFilesOfSameDirectory() {
+        String a = fileDiff("src/a/A.java", 2);
+        String b = fileDiff("src/a/B.java", 2);
+        String c = fileDiff("src/c/C.java", 2);
+        String root = fileDiff("README.md", 1);
+
+        List<MapReduceSummarizer.Chunk> chunks = MapReduceSummarizer.split(root + a + b + c, 10_000);
+
+        assertEquals(List.of(
+                new MapReduceSummarizer.Chunk(".", List.of("README.md"), root),
+                new MapReduceSummarizer.Chunk("src/a", List.of("src/a/A.java", "src/a/B.java"), a + b),
+                new MapReduceSummarizer.Chunk("src/c", List.of("src/c/C.java"), c)), chunks);
+    }
+
+    @Test
+    void startsNewChunkWhenSameDirectoryExceedsChunkBytes() {
+        String a = fileDiff("src/A.java", 3);
+        String b = fileDiff("src/B.java", 3);
+
+        List<MapReduceSummarizer.Chunk> chunks = MapReduceSummarizer.split(a + b, a.length() + b.length() - 1);
+
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("src/A.java"), chunks.get(0).files());
+        assertEquals(List.of("src/B.java"), chunks.get(1).files());
+        assertEquals("src", chunks.get(1).module());
+    }
+
+    @Test
+    void cutsOversizedFileAtLineBoundary() {
+        String big = fileDiff("src/Big.java", 100);
+        // 한도 위치가 마침 줄바꿈이어도 그 줄바꿈까지 넣으면 넘침
+        int chunkBytes = big.indexOf('\n', 150);
+
+        List<MapReduceSummarizer.Chunk> chunks = MapReduceSummarizer.split(big, chunkBytes);
+
+        assertEquals(1, chunks.size());
+        String body = chunks.get(0).diff();
+        assertTrue(body.endsWith("\n... (이하 생략)\n"));
+        String kept = body.substring(0, body.length() - "... (이하 생략)\n".length());
+        assertTrue(SnapshotCollector.utf8Length(kept) <= chunkBytes);
+        assertTrue(big.startsWith(kept));
+    }
+
+    @Test
+    void chunkBytesIsMeasuredInUtf8() {
+        String header = fileDiff("src/Ko.java", 0);
+        // 한 줄 "+한글 변경\n"은 문자 7개, UTF-8 15바이트
+        String ko = header + "+한글 변경\n".repeat(40);
+        int chunkBytes = ko.length() + 10;
+
+        List<MapReduceSummarizer.Chunk> chunks = MapReduceSummarizer.split(ko, chunkBytes);
+
+        assertEquals(1, chunks.size());
+        String body = chunks.get(0).diff();
+        assertTrue(body.endsWith("\n... (이하 생략)\n"));
+        String kept = body.substring(0, body.length() - "... (이하 생략)\n".length());
+        assertTrue(SnapshotCollector.utf8Length(kept) <= chunkBytes);
+        assertTrue(ko.startsWith(kept));
+    }
+
+    @Test
+    void skipsTextBeforeFirstFileHeader() {
+        String a = fileDiff("A.java", 1);
+
+        List<MapReduceSummarizer.Chunk> chunks = MapReduceSummarizer.split("warning: something\n" + a, 10_000);
+
+        assertEquals(List.of(new MapReduceSummarizer.Chunk(".", List.of("A.java"), a)), chunks);
+    }
+
+    @Test
+    void returnsNoChunksWithoutFileHeaders() {
+        assertEquals(List.of(), MapReduceSummarizer.split("", 10_000));
+        assertEquals(List.of(), MapReduceSummarizer.split("not a diff\n", 10_000));
+    }
+}
@@ -0,0 +1,241 @@
+package org.springframework.ai.mcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.config.OllamaEndpoints;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OllamaEndpointBalancerTest {
+    private static final String A = "http://a:11434";
+    private static final String B = "http://b:11434";
+
+    /**
+     * 호출 수를 세고 behaviour대로 응답하는 엔드포인트
+     */
+    private static final class StubModel implements ChatModel {
+        final String name;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Supplier<ChatResponse> behaviour;
+
+        StubModel(String name) {
+            this.name = name;
+            this.behaviour = () -> response(name);
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            return behaviour.get();
+        }
+    }
+
+    private final StubModel a = new StubModel("a");
+    private final StubModel b = new StubModel("b");
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    private OllamaEndpointBalancer balancer(int weightA, int weightB, int ejectAfter, Duration ejectDuration) {
+        Map<OllamaEndpoints.Endpoint, ChatModel> models = new LinkedHashMap<>();
+        models.put(new OllamaEndpoints.Endpoint(A, weightA, Set.of()), a);
+        models.put(new OllamaEndpoints.Endpoint(B, weightB, Set.of()), b);
+        // 상태 확인을 시작하지 않으므로 능동 제외 없이 수동 제외만 적용됨
+        LLMHealthMonitor health = new LLMHealthMonitor(new OllamaEndpoints(A + "," + B), "m",
+                Duration.ofSeconds(15), Duration.ofSeconds(30), Duration.ofSeconds(2));
+        return new OllamaEndpointBalancer(models, health, new TokenTelemetry(new SimpleMeterRegistry(), 10), "m",
+                new OllamaEndpointBalancer.Settings(ejectAfter, ejectDuration, 0.3));
+    }
+
+    private OllamaEndpointBalancer balancer() {
+        return balancer(1, 1, 3, Duration.ofMinutes(1));
+    }
+
+    private static OllamaEndpointBalancer.EndpointStats stats(OllamaEndpointBalancer balancer, String url) {
+        return balancer.stats().endpoints().stream().filter(s -> s.url().equals(url)).findFirst().orElseThrow();
+    }
+
+    private static Supplier<ChatResponse> failing() {
+        return () -> {
+            throw new IllegalStateException("connection refused");
+        };
+    }
+
+    // started를 내리고 release될 때까지 대기
+    private static Supplier<ChatResponse> blocking(String text, CountDownLatch started, CountDownLatch release) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("I/O error: closed by interrupt", e);
+            }
+            return response(text);
+        };
+    }
+
+    private static Thread callAsync(OllamaEndpointBalancer balancer, AtomicReference<Object> result) {
+        Thread t = new Thread(() -> {
+            try {
+                result.set(balancer.call(new Prompt("diff")));
+            } catch (RuntimeException e) {
+                result.set(e);
+            }
+        });
+        t.start();
+        return t;
+    }
+
+    @Test
+    void prefersHigherWeightBeforeAnySamples() {
+        OllamaEndpointBalancer balancer = balancer(1, 2, 3, Duration.ofMinutes(1));
+
+        assertEquals("b", text(balancer.call(new Prompt("diff"))));
+        assertEquals(0, a.calls.get());
+    }
+
+    @Test
+    void routesAroundEndpointWithOutstandingRequest() throws Exception {
+        OllamaEndpointBalancer balancer = balancer();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        a.behaviour = blocking("a", started, release);
+
+        AtomicReference<Object> first = new AtomicReference<>();
+        Thread t = callAsync(balancer, first);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stats(balancer, A).outstanding());
+
+        assertEquals("b", text(balancer.call(new Prompt("diff"))));
+
+        release.countDown();
+        t.join(5000);
+        assertEquals("a", text((ChatResponse) first.get()));
+        assertEquals(0, stats(balancer, A).outstanding());
+    }
+
+    @Test
+    void failureDoublesLatencyAndRetriesOnOtherEndpoint() {
+        OllamaEndpointBalancer balancer = balancer();
+        balancer.call(new Prompt("diff"));
+        double before = stats(balancer, A).callEwmaMillis();
+        assertTrue(before > 0);
+
+        // b는 표본이 없어 a의 지연으로 보므로 동점 → 먼저 등록된 a
+        a.behaviour = failing();
+        assertEquals("b", text(balancer.call(new Prompt("diff"))));
+
+        assertEquals(2 * before, stats(balancer, A).callEwmaMillis(), 1e-9);
+        assertEquals(1, stats(balancer, A).failures());
+        assertEquals(1, balancer.stats().retries());
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailures() {
+        OllamaEndpointBalancer balancer = balancer(1, 1, 2, Duration.ofMinutes(1));
+        a.behaviour = failing();
+
+        balancer.call(new Prompt("diff"));
+        assertFalse(stats(balancer, A).ejected());
+        balancer.call(new Prompt("diff"));
+        assertTrue(stats(balancer, A).ejected());
+
+        // 제외되는 동안에는 a로 보내지 않음
+        for (int i = 0; i < 3; i++) balancer.call(new Prompt("diff"));
+        assertEquals(2, a.calls.get());
+        assertEquals(5, b.calls.get());
+        assertEquals(2, balancer.stats().retries());
+    }
+
+    @Test
+    void probationAllowsSingleTrialUntilSuccess() throws Exception {
+        OllamaEndpointBalancer balancer = balancer(1, 1, 1, Duration.ofMillis(1));
+        a.behaviour = failing();
+        balancer.call(new Prompt("diff"));
+        Thread.sleep(20);
+        assertFalse(stats(balancer, A).ejected());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        a.behaviour = blocking("a", started, release);
+        AtomicReference<Object> trial = new AtomicReference<>();
+        Thread t = callAsync(balancer, trial);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // 시험 요청이 끝나기 전에는 다른 요청을 받지 않음
+        assertEquals("b", text(balancer.call(new Prompt("diff"))));
+        assertEquals(2, a.calls.get());
+
+        release.countDown();
+        t.join(5000);
+        assertEquals("a", text((ChatResponse) trial.get()));
+    }
+
+    @Test
+    void failedTrialEjectsAgain() throws Exception {
+        OllamaEndpointBalancer balancer = balancer(1, 1, 1, Duration.ofMillis(1));
+        a.behaviour = failing();
+        balancer.call(new Prompt("diff"));
+        Thread.sleep(20);
+        assertFalse(stats(balancer, A).ejected());
+
+        balancer.call(new Prompt("diff"));
+        assertEquals(2, a.calls.get());
+        assertTrue(stats(balancer, A).ejected());
+    }
+
+    @Test
+    void interruptedCallIsNeitherPenalisedNorRetried() throws Exception {
+        OllamaEndpointBalancer balancer = balancer();
+        CountDownLatch started = new CountDownLatch(1);
+        a.behaviour = blocking("a", started, new CountDownLatch(1));
+
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread t = callAsync(balancer, result);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // RoutingChatModel이 hedge에 진 요청을 cancel(true)할 때와 같음
+        t.interrupt();
+        t.join(5000);
+
+        assertNotNull(result.get());
+        assertTrue(result.get() instanceof IllegalStateException);
+        assertEquals(0, b.calls.get());
+        assertEquals(0, balancer.stats().retries());
+        assertEquals(0, stats(balancer, A).failures());
+        assertEquals(0, stats(balancer, A).outstanding());
+    }
+
+    @Test
+    void cancellationCauseCountsAsCancelled() {
+        assertTrue(OllamaEndpointBalancer.cancelled(new IllegalStateException(new CancellationException())));
+        // read-timeout은 엔드포인트 실패
+        assertFalse(OllamaEndpointBalancer.cancelled(new IllegalStateException(new SocketTimeoutException("Read timed out"))));
+    }
+}
@@ -0,0 +1,237 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingChatModelTest {
+
+    /**
+     * 호출 수와 마지막 호출 시작 시각을 남기고 behaviour대로 응답하는 제공자
+     */
+    private static final class StubModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicLong lastStartNanos = new AtomicLong();
+        volatile Supplier<ChatResponse> behaviour;
+
+        StubModel(String name) {
+            this.behaviour = () -> response(name);
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            lastStartNanos.set(System.nanoTime());
+            calls.incrementAndGet();
+            return behaviour.get();
+        }
+    }
+
+    private final StubModel primary = new StubModel("primary");
+    private final StubModel secondary = new StubModel("secondary");
+    private RoutingChatModel router;
+
+    @AfterEach
+    void shutdown() {
+        if (router != null) router.shutdown();
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    // 표본이 모이기 전에는 hedge하지 않도록 초기 지연을 길게
+    private static RoutingChatModel.Settings settings(Duration openDuration) {
+        return new RoutingChatModel.Settings(Duration.ofSeconds(10), Duration.ofSeconds(10), true,
+                Duration.ofSeconds(10), Duration.ofMillis(1), 10, 0.5, 4, openDuration);
+    }
+
+    private void router(Duration openDuration) {
+        router = new RoutingChatModel("primary", primary, "secondary", secondary, settings(openDuration));
+    }
+
+    private static RoutingChatModel.ProviderStats stats(RoutingChatModel router, int index) {
+        return router.stats().providers().get(index);
+    }
+
+    private static Supplier<ChatResponse> failing() {
+        return () -> {
+            throw new IllegalStateException("connection refused");
+        };
+    }
+
+    private static Supplier<ChatResponse> delayed(String text, long millis) {
+        return () -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return response(text);
+        };
+    }
+
+    // 취소(interrupt)될 때까지 대기
+    private static Supplier<ChatResponse> hanging(CountDownLatch interrupted) {
+        return () -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("I/O error: closed by interrupt", e);
+            }
+            return response("late");
+        };
+    }
+
+    @Test
+    void breakerOpensAtFailureRateAndAllowsSingleTrialAfterOpenDuration() throws Exception {
+        RoutingChatModel.CircuitBreaker breaker = new RoutingChatModel.CircuitBreaker(settings(Duration.ofMillis(50)));
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertEquals(RoutingChatModel.CircuitBreaker.State.CLOSED, breaker.state());
+        // 4건 중 2건 실패 = 0.5
+        breaker.onFailure();
+        assertEquals(RoutingChatModel.CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allow());
+
+        Thread.sleep(80);
+        assertTrue(breaker.allow());
+        assertEquals(RoutingChatModel.CircuitBreaker.State.HALF_OPEN, breaker.state());
+        // 시험 호출이 끝나기 전에는 나머지 차단
+        assertFalse(breaker.allow());
+
+        breaker.onSuccess();
+        assertEquals(RoutingChatModel.CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allow());
+    }
+
+    @Test
+    void failedTrialReopensAndCancelledTrialFreesSlot() throws Exception {
+        RoutingChatModel.CircuitBreaker breaker = new RoutingChatModel.CircuitBreaker(settings(Duration.ofMillis(50)));
+        for (int i = 0; i < 4; i++) breaker.onFailure();
+        Thread.sleep(80);
+
+        assertTrue(breaker.allow());
+        breaker.onCancel();
+        assertTrue(breaker.allow());
+        breaker.onFailure();
+        assertEquals(RoutingChatModel.CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allow());
+    }
+
+    @Test
+    void breakerNeedsMinCallsBeforeOpening() {
+        RoutingChatModel.CircuitBreaker breaker = new RoutingChatModel.CircuitBreaker(settings(Duration.ofMinutes(1)));
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+
+        assertEquals(RoutingChatModel.CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allow());
+    }
+
+    @Test
+    void openPrimaryIsShortCircuitedUntilProbeSucceeds() throws Exception {
+        router(Duration.ofMillis(100));
+        primary.behaviour = failing();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("secondary", text(router.call(new Prompt("diff"))));
+        }
+        assertEquals("OPEN", stats(router, 0).breaker());
+
+        assertEquals("secondary", text(router.call(new Prompt("diff"))));
+        assertEquals(4, primary.calls.get());
+        assertEquals(1, router.stats().shortCircuits());
+
+        Thread.sleep(150);
+        primary.behaviour = () -> response("primary");
+        assertEquals("primary", text(router.call(new Prompt("diff"))));
+        assertEquals("CLOSED", stats(router, 0).breaker());
+    }
+
+    @Test
+    void openPrimaryWithoutSecondaryFails() {
+        router = new RoutingChatModel("primary", primary, null, null, settings(Duration.ofMinutes(1)));
+        primary.behaviour = failing();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> router.call(new Prompt("diff")));
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.call(new Prompt("diff")));
+        assertTrue(e.getMessage().contains("circuit open"));
+        assertEquals(4, primary.calls.get());
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        router(Duration.ofMinutes(1));
+
+        assertEquals("primary", text(router.call(new Prompt("diff"))));
+        assertEquals(0, secondary.calls.get());
+        assertEquals(0, router.stats().hedges());
+    }
+
+    @Test
+    void hedgesOnlyAfterPrimaryP95AndCancelsLoser() throws Exception {
+        router(Duration.ofMinutes(1));
+        primary.behaviour = delayed("primary", 50);
+        for (int i = 0; i < 20; i++) router.call(new Prompt("diff"));
+        assertEquals(0, secondary.calls.get());
+        double p95Millis = stats(router, 0).callP95Millis();
+        assertTrue(p95Millis >= 50, "p95=" + p95Millis);
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        primary.behaviour = hanging(interrupted);
+        long start = System.nanoTime();
+        assertEquals("secondary", text(router.call(new Prompt("diff"))));
+
+        // 보조 제공자는 주 제공자의 p95가 지난 뒤에야 시작
+        long hedgeAfterMillis = TimeUnit.NANOSECONDS.toMillis(secondary.lastStartNanos.get() - start);
+        assertTrue(hedgeAfterMillis >= (long) p95Millis, "hedge after " + hedgeAfterMillis + "ms, p95=" + p95Millis);
+        assertEquals(1, router.stats().hedges());
+        assertEquals(1, router.stats().hedgeWins());
+
+        // 진 쪽 요청은 interrupt되고 실패로 세지 않음
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, stats(router, 0).failures());
+        assertEquals("CLOSED", stats(router, 0).breaker());
+    }
+
+    @Test
+    void primaryWinningHedgeCancelsSecondary() throws Exception {
+        router(Duration.ofMinutes(1));
+        primary.behaviour = delayed("primary", 20);
+        for (int i = 0; i < 20; i++) router.call(new Prompt("diff"));
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        primary.behaviour = delayed("primary", 150);
+        secondary.behaviour = hanging(interrupted);
+        assertEquals("primary", text(router.call(new Prompt("diff"))));
+
+        assertEquals(1, router.stats().hedges());
+        assertEquals(0, router.stats().hedgeWins());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, stats(router, 1).failures());
+    }
+}
@@ -0,0 +1,245 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.CommitSuggestionResponse;
+import org.springframework.ai.mcp.service.LLMCommitMessageService.SuggestionListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 제안을 받은 순서대로 "index:message"로 기록
+     */
+    private static final class Recorder implements SuggestionListener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onSuggestion(int index, String message) {
+            events.add(index + ":" + message);
+        }
+
+        @Override
+        public void onReset() {
+            events.add("reset");
+        }
+    }
+
+    /**
+     * 첫 제안을 낸 뒤 release될 때까지 기다렸다가 나머지를 내는 생성
+     */
+    private static final class BlockingGeneration implements Function<SuggestionListener, CommitSuggestionResponse> {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final List<String> suggestions;
+
+        BlockingGeneration(List<String> suggestions) {
+            this.suggestions = suggestions;
+        }
+
+        @Override
+        public CommitSuggestionResponse apply(SuggestionListener listener) {
+            calls.incrementAndGet();
+            listener.onSuggestion(1, suggestions.get(0));
+            started.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 1; i < suggestions.size(); i++) {
+                listener.onSuggestion(i + 1, suggestions.get(i));
+            }
+            return new CommitSuggestionResponse(suggestions, "성공");
+        }
+    }
+
+    private void awaitJoined(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.joined() < expected) {
+            assertTrue(System.nanoTime() < deadline, "합류 대기 시간 초과");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void runsGenerationWhenNothingIsInFlight() {
+        Recorder listener = new Recorder();
+        CommitSuggestionResponse response = new CommitSuggestionResponse(List.of("feat: A"), "성공");
+
+        SingleFlight.Result result = singleFlight.run(KEY, 1, listener, l -> {
+            l.onSuggestion(1, "feat: A");
+            return response;
+        });
+
+        assertFalse(result.joined());
+        assertSame(response, result.response());
+        assertEquals(List.of("1:feat: A"), listener.events);
+    }
+
+    @Test
+    void joinerReceivesEarlierAndLaterSuggestionsWithinItsCount() throws Exception {
+        BlockingGeneration generation = new BlockingGeneration(List.of("feat: A", "fix: B", "docs: C"));
+        Recorder leaderListener = new Recorder();
+        Recorder joinerListener = new Recorder();
+
+        Future<SingleFlight.Result> leader = pool.submit(() -> singleFlight.run(KEY, 3, leaderListener, generation));
+        assertTrue(generation.started.await(5, TimeUnit.SECONDS));
+        Future<SingleFlight.Result> joiner = pool.submit(() -> singleFlight.run(KEY, 2, joinerListener, generation));
+        awaitJoined(1);
+        generation.release.countDown();
+
+        SingleFlight.Result leaderResult = leader.get(5, TimeUnit.SECONDS);
+        SingleFlight.Result joinerResult = joiner.get(5, TimeUnit.SECONDS);
+        assertEquals(1, generation.calls.get());
+        assertFalse(leaderResult.joined());
+        assertTrue(joinerResult.joined());
+        assertSame(leaderResult.response(), joinerResult.response());
+        assertEquals(List.of("1:feat: A", "2:fix: B", "3:docs: C"), leaderListener.events);
+        // 요청한 개수(2)까지만
+        assertEquals(List.of("1:feat: A", "2:fix: B"), joinerListener.events);
+    }
+
+    @Test
+    void largerRequestStartsItsOwnGeneration() throws Exception {
+        BlockingGeneration small = new BlockingGeneration(List.of("feat: A"));
+        Future<SingleFlight.Result> leader = pool.submit(() -> singleFlight.run(KEY, 1, SuggestionListener.NONE, small));
+        assertTrue(small.started.await(5, TimeUnit.SECONDS));
+
+        SingleFlight.Result larger = singleFlight.run(KEY, 3, SuggestionListener.NONE,
+                l -> new CommitSuggestionResponse(List.of("a", "b", "c"), "성공"));
+        small.release.countDown();
+
+        assertFalse(larger.joined());
+        assertEquals(List.of("a", "b", "c"), larger.response().suggestions());
+        assertFalse(leader.get(5, TimeUnit.SECONDS).joined());
+        assertEquals(0, singleFlight.joined());
+    }
+
+    @Test
+    void finishedFlightIsNotReused() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<SuggestionListener, CommitSuggestionResponse> generation = l -> {
+            calls.incrementAndGet();
+            return new CommitSuggestionResponse(List.of("feat: A"), "성공");
+        };
+
+        singleFlight.run(KEY, 1, SuggestionListener.NONE, generation);
+        SingleFlight.Result second = singleFlight.run(KEY, 1, SuggestionListener.NONE, generation);
+
+        assertFalse(second.joined());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void joinerSeesLeaderFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<SingleFlight.Result> leader = pool.submit(() -> singleFlight.run(KEY, 1, SuggestionListener.NONE, l -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("LLM 호출 실패");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<SingleFlight.Result> joiner = pool.submit(() -> singleFlight.run(KEY, 1, SuggestionListener.NONE,
+                l -> new CommitSuggestionResponse(List.of(), "호출되면 안 됨")));
+        awaitJoined(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals("LLM 호출 실패", leaderError.getCause().getMessage());
+        ExecutionException joinerError = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+        assertEquals("LLM 호출 실패", joinerError.getCause().getCause().getMessage());
+    }
+
+    @Test
+    void failingJoinerListenerDoesNotStopGeneration() throws Exception {
+        BlockingGeneration generation = new BlockingGeneration(List.of("feat: A", "fix: B"));
+        Recorder leaderListener = new Recorder();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        // 연결이 끊긴 SSE 클라이언트처럼 두 번째 제안부터 실패
+        SuggestionListener broken = (index, message) -> {
+            if (index > 1) throw new IllegalStateException("연결 끊김");
+            subscribed.countDown();
+        };
+
+        Future<SingleFlight.Result> leader = pool.submit(() -> singleFlight.run(KEY, 2, leaderListener, generation));
+        assertTrue(generation.started.await(5, TimeUnit.SECONDS));
+        Future<SingleFlight.Result> joiner = pool.submit(() -> singleFlight.run(KEY, 2, broken, generation));
+        // 이미 나온 첫 제안을 받았으면 구독된 것
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+        generation.release.countDown();
+
+        assertEquals(List.of("feat: A", "fix: B"), leader.get(5, TimeUnit.SECONDS).response().suggestions());
+        assertTrue(joiner.get(5, TimeUnit.SECONDS).joined());
+        assertEquals(List.of("1:feat: A", "2:fix: B"), leaderListener.events);
+    }
+
+    @Test
+    void slowJoinerDoesNotStallGeneration() throws Exception {
+        BlockingGeneration generation = new BlockingGeneration(List.of("feat: A", "fix: B", "docs: C"));
+        Recorder leaderListener = new Recorder();
+        CountDownLatch joinerBlocked = new CountDownLatch(1);
+        CountDownLatch unblockJoiner = new CountDownLatch(1);
+        List<String> joinerEvents = Collections.synchronizedList(new ArrayList<>());
+        // 역압이 걸린 SSE 클라이언트처럼 두 번째 제안에서 멈춤
+        SuggestionListener slow = (index, message) -> {
+            if (index == 2) {
+                joinerBlocked.countDown();
+                try {
+                    unblockJoiner.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            joinerEvents.add(index + ":" + message);
+        };
+
+        Future<SingleFlight.Result> leader = pool.submit(() -> singleFlight.run(KEY, 3, leaderListener, generation));
+        assertTrue(generation.started.await(5, TimeUnit.SECONDS));
+        Future<SingleFlight.Result> joiner = pool.submit(() -> singleFlight.run(KEY, 3, slow, generation));
+        awaitJoined(1);
+        generation.release.countDown();
+        assertTrue(joinerBlocked.await(5, TimeUnit.SECONDS));
+
+        // 합류한 요청이 멈춰 있어도 생성과 리더 전달은 끝남
+        assertEquals(List.of("feat: A", "fix: B", "docs: C"), leader.get(5, TimeUnit.SECONDS).response().suggestions());
+        assertEquals(List.of("1:feat: A", "2:fix: B", "3:docs: C"), leaderListener.events);
+        assertFalse(joiner.isDone());
+
+        unblockJoiner.countDown();
+        assertTrue(joiner.get(5, TimeUnit.SECONDS).joined());
+        assertEquals(List.of("1:feat: A", "2:fix: B", "3:docs: C"), joinerEvents);
+    }
+}
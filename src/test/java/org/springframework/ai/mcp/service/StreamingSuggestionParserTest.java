@@ -0,0 +1,61 @@
+package org.springframework.ai.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StreamingSuggestionParserTest {
+
+    @Test
+    void emitsEachNumberedLineWhenItsNewlineArrives() {
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+
+        assertEquals(List.of(), parser.accept("1. feat: 로그인"));
+        assertEquals(List.of(), parser.accept(" 추가"));
+        assertEquals(List.of("feat: 로그인 추가"), parser.accept("\n2. fix: "));
+        assertEquals(List.of("fix: 버그 수정", "docs: README"), parser.accept("버그 수정\n3. docs: README\n"));
+        assertEquals(List.of(), parser.finish());
+    }
+
+    @Test
+    void finishFlushesLastLineWithoutNewline() {
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+
+        assertEquals(List.of("feat: A"), parser.accept("1. feat: A\n2. fix: B"));
+        assertEquals(List.of("fix: B"), parser.finish());
+        assertEquals(List.of(), parser.finish());
+    }
+
+    @Test
+    void skipsLinesThatAreNotNumberedSuggestions() {
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+
+        List<String> suggestions = new ArrayList<>();
+        for (String chunk : List.of("다음은 제안입니다:\n", "\n", "1.   \n", "- feat: 목록 아님\n", "  2.  refactor: 정리  \n")) {
+            suggestions.addAll(parser.accept(chunk));
+        }
+
+        assertEquals(List.of("refactor: 정리"), suggestions);
+    }
+
+    @Test
+    void ignoresEmptyChunks() {
+        StreamingSuggestionParser parser = new StreamingSuggestionParser();
+
+        assertEquals(List.of(), parser.accept(null));
+        assertEquals(List.of(), parser.accept(""));
+        assertEquals(List.of(), parser.finish());
+    }
+
+    @Test
+    void parseLineRequiresNumberDotAndSpace() {
+        assertEquals("feat: A", StreamingSuggestionParser.parseLine("10. feat: A"));
+        assertNull(StreamingSuggestionParser.parseLine("1.feat: A"));
+        assertNull(StreamingSuggestionParser.parseLine("feat: A"));
+        assertNull(StreamingSuggestionParser.parseLine(""));
+    }
+}
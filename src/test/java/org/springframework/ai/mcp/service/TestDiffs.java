@@ -0,0 +1,26 @@
+package org.springframework.ai.mcp.service;
+
+/**
+ * 테스트용 git diff 조각
+ */
+final class TestDiffs {
+
+    private TestDiffs() {
+    }
+
+    /**
+     * 파일 하나에 "+line 0", "+line 1", ... 을 addedLines줄 추가한 diff (헤더 5줄)
+     */
+    static String fileDiff(String path, int addedLines) {
+        StringBuilder sb = new StringBuilder()
+                .append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+                .append("index 1111111..2222222 100644\n")
+                .append("--- a/").append(path).append('\n')
+                .append("+++ b/").append(path).append('\n')
+                .append("@@ -1,0 +1,").append(addedLines).append(" @@\n");
+        for (int i = 0; i < addedLines; i++) {
+            sb.append("+line ").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+}
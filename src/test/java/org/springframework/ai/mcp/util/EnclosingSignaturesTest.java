@@ -0,0 +1,118 @@
+package org.springframework.ai.mcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnclosingSignaturesTest {
+
+    private static final List<String> JAVA = """
+            package com.example;
+
+            @Service
+            public class OrderService {
+                private final Repo repo;
+
+                public Order place(String id, int qty) {
+                    if (qty <= 0) {
+                        throw new IllegalArgumentException();
+                    }
+
+                    return repo.save(new Order(id, qty));
+                }
+
+                static final class Inner implements Runnable {
+                    @Override
+                    public void run() {
+                        log.info("run");
+                    }
+                }
+            }
+            """.lines().toList();
+
+    private static int lineOf(List<String> lines, String text) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).contains(text)) return i;
+        }
+        throw new IllegalArgumentException(text);
+    }
+
+    @Test
+    void findsClassAndMethodAroundStatement() {
+        assertEquals(List.of("public class OrderService", "public Order place(String id, int qty)"),
+                EnclosingSignatures.of(JAVA, lineOf(JAVA, "throw new")));
+        assertEquals(List.of("public class OrderService", "public Order place(String id, int qty)"),
+                EnclosingSignatures.of(JAVA, lineOf(JAVA, "return repo.save")));
+    }
+
+    @Test
+    void followsNestedTypes() {
+        assertEquals(List.of("public class OrderService", "static final class Inner implements Runnable", "public void run()"),
+                EnclosingSignatures.of(JAVA, lineOf(JAVA, "log.info")));
+    }
+
+    @Test
+    void declarationLineStartsFromOuterDeclaration() {
+        assertEquals(List.of("public class OrderService"), EnclosingSignatures.of(JAVA, lineOf(JAVA, "public Order place")));
+        assertEquals(List.of(), EnclosingSignatures.of(JAVA, lineOf(JAVA, "public class OrderService")));
+    }
+
+    @Test
+    void worksForIndentationBasedLanguages() {
+        List<String> python = """
+                class Parser:
+                    def parse(self, text):
+                        for line in text:
+                            yield line
+                """.lines().toList();
+
+        assertEquals(List.of("class Parser", "def parse(self, text)"), EnclosingSignatures.of(python, 3));
+    }
+
+    @Test
+    void recognisesArrowFunctions() {
+        List<String> js = """
+                export const load = async (id) => {
+                  const res = await fetch(url(id));
+                  return res.json();
+                };
+                """.lines().toList();
+
+        assertEquals(List.of("export const load = async (id) =>"), EnclosingSignatures.of(js, 2));
+    }
+
+    @Test
+    void returnsEmptyForTopLevelOrOutOfRangeLines() {
+        assertEquals(List.of(), EnclosingSignatures.of(JAVA, 0));
+        assertEquals(List.of(), EnclosingSignatures.of(JAVA, -1));
+        assertEquals(List.of(), EnclosingSignatures.of(JAVA, JAVA.size()));
+    }
+
+    @Test
+    void clipsLongSignatures() {
+        String params = "String a".repeat(30);
+        List<String> lines = List.of("class A {", "    void m(" + params + ") {", "        call();", "    }", "}");
+
+        String method = EnclosingSignatures.of(lines, 2).get(1);
+
+        assertEquals(122, method.length());
+        assertTrue(method.endsWith(" …"));
+    }
+
+    @Test
+    void isDeclarationRejectsStatementsAndComments() {
+        assertTrue(EnclosingSignatures.isDeclaration("public static <T> List<T> copy(List<T> src) {"));
+        assertTrue(EnclosingSignatures.isDeclaration("fn main() {"));
+        assertTrue(EnclosingSignatures.isDeclaration("func (s *Server) Start() error {"));
+        assertFalse(EnclosingSignatures.isDeclaration("foo.bar(x);"));
+        assertFalse(EnclosingSignatures.isDeclaration("Order order = repo.find(id) {"));
+        assertFalse(EnclosingSignatures.isDeclaration("if (ready) {"));
+        assertFalse(EnclosingSignatures.isDeclaration("} else if (x) {"));
+        assertFalse(EnclosingSignatures.isDeclaration("// void commented(int x) {"));
+        assertFalse(EnclosingSignatures.isDeclaration("return compute(x);"));
+    }
+}
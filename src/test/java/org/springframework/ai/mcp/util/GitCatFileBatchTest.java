@@ -0,0 +1,122 @@
+package org.springframework.ai.mcp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 실제 git cat-file --batch 프로세스로 응답 파싱과 스트림 동기화를 확인한다 (PATH에 git 필요).
+ */
+class GitCatFileBatchTest {
+    private static final byte[] TEXT = "public class A {\n    void m() {}\n}\n".getBytes(StandardCharsets.UTF_8);
+    // 내용 중간의 줄바꿈/NUL과 마지막 줄바꿈 없음도 그대로 받아야 함
+    private static final byte[] BINARY = {'x', '\n', 0, (byte) 0xff, '\n', 'y'};
+
+    @TempDir
+    Path repo;
+
+    private GitCatFileBatch catFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        git(null, "init", "-q");
+        catFile = new GitCatFileBatch(repo.toFile(), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catFile.close();
+    }
+
+    private String git(byte[] stdin, String... args) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add("git");
+        cmd.addAll(List.of(args));
+        Process p = new ProcessBuilder(cmd).directory(repo.toFile()).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        try (OutputStream in = p.getOutputStream()) {
+            if (stdin != null) in.write(stdin);
+        }
+        String out = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertEquals(0, p.waitFor(), "git " + String.join(" ", args));
+        return out;
+    }
+
+    private String blob(byte[] content) throws Exception {
+        return git(content, "hash-object", "-w", "--stdin");
+    }
+
+    @Test
+    void readsBlobsThroughOneProcess() throws Exception {
+        String text = blob(TEXT);
+        String binary = blob(BINARY);
+
+        assertArrayEquals(TEXT, catFile.readBlob(text, 1024).orElseThrow());
+        assertArrayEquals(BINARY, catFile.readBlob(binary, 1024).orElseThrow());
+        assertArrayEquals(TEXT, catFile.readBlob(text, 1024).orElseThrow());
+
+        assertEquals(1, catFile.starts());
+        assertEquals(3, catFile.reads());
+        assertTrue(catFile.isRunning());
+    }
+
+    @Test
+    void missingObjectIsEmptyAndKeepsStreamInSync() throws Exception {
+        String text = blob(TEXT);
+
+        assertEquals(Optional.empty(), catFile.readBlob("0123456789abcdef0123456789abcdef01234567", 1024));
+        assertEquals(Optional.empty(), catFile.readBlob("no-such-ref", 1024));
+        assertArrayEquals(TEXT, catFile.readBlob(text, 1024).orElseThrow());
+        assertEquals(1, catFile.starts());
+    }
+
+    @Test
+    void skipsNonBlobAndOversizedContent() throws Exception {
+        String text = blob(TEXT);
+        Files.write(repo.resolve("A.java"), TEXT);
+        git(null, "add", "A.java");
+        String tree = git(null, "write-tree");
+
+        assertEquals(Optional.empty(), catFile.readBlob(tree, 1024));
+        assertEquals(Optional.empty(), catFile.readBlob(text, TEXT.length - 1));
+        // 건너뛴 내용 다음 응답도 제대로 읽혀야 함
+        assertArrayEquals(TEXT, catFile.readBlob(text, TEXT.length).orElseThrow());
+        assertEquals(1, catFile.starts());
+    }
+
+    @Test
+    void rejectsObjectNamesThatWouldBreakTheProtocol() throws Exception {
+        assertEquals(Optional.empty(), catFile.readBlob("", 1024));
+        assertEquals(Optional.empty(), catFile.readBlob("HEAD\nHEAD", 1024));
+        // 프로세스를 띄우지도 않음
+        assertEquals(0, catFile.starts());
+        assertFalse(catFile.isRunning());
+    }
+
+    @Test
+    void failsAfterClose() throws Exception {
+        String text = blob(TEXT);
+        catFile.readBlob(text, 1024);
+
+        catFile.close();
+
+        assertFalse(catFile.isRunning());
+        assertThrows(IOException.class, () -> catFile.readBlob(text, 1024));
+    }
+}
@@ -0,0 +1,171 @@
+package org.springframework.ai.mcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitDiffParserTest {
+
+    private final GitDiffParser parser = new GitDiffParser();
+
+    private static final String RENAME = """
+            diff --git a/src/main/java/com/example/OldName.java b/src/main/java/com/example/NewName.java
+            similarity index 90%
+            rename from src/main/java/com/example/OldName.java
+            rename to src/main/java/com/example/NewName.java
+            index 1111111..2222222 100644
+            --- a/src/main/java/com/example/OldName.java
+            +++ b/src/main/java/com/example/NewName.java
+            @@ -1,5 +1,5 @@
+             package com.example;
+            \s
+            -public class OldName {
+            +public class NewName {
+                 private final Repo repo;
+            """;
+
+    private static final String DELETION = """
+            diff --git a/src/main/java/com/example/Gone.java b/src/main/java/com/example/Gone.java
+            deleted file mode 100644
+            index 3333333..0000000
+            --- a/src/main/java/com/example/Gone.java
+            +++ /dev/null
+            @@ -1,7 +0,0 @@
+            -package com.example;
+            -
+            -public class Gone {
+            -    public void run(String input) {
+            -        log.info(input);
+            -    }
+            -}
+            """;
+
+    private static final String BINARY = """
+            diff --git a/docs/logo.png b/docs/logo.png
+            index 4444444..5555555 100644
+            Binary files a/docs/logo.png and b/docs/logo.png differ
+            """;
+
+    // hunk 헤더의 함수 문맥: 클래스가 있으면 그 클래스, 메서드만 있으면 한정하지 않음
+    private static final String FUNCTION_CONTEXT = """
+            diff --git a/src/main/java/com/example/OrderService.java b/src/main/java/com/example/OrderService.java
+            index 6666666..7777777 100644
+            --- a/src/main/java/com/example/OrderService.java
+            +++ b/src/main/java/com/example/OrderService.java
+            @@ -40,3 +40,6 @@ public class OrderService {
+                 private final Repo repo;
+            +    public Order cancel(String id) {
+            +        return repo.cancel(id);
+            +    }
+            @@ -90,3 +93,4 @@ public Order place(String id, int qty) {
+                     return repo.save(order);
+            +    private int retries = 3;
+                 }
+            @@ -120,3 +124,4 @@ static final class Inner implements Runnable {
+            +    public void run() {
+            """;
+
+    @Test
+    void renameUsesNewPathAndReportsBothClassNames() {
+        assertEquals(List.of("NewName.java: 클래스 추가 NewName", "NewName.java: 클래스 삭제 OldName"),
+                parser.summarize(RENAME));
+    }
+
+    @Test
+    void deletedFileReportsRemovedDeclarations() {
+        assertEquals(List.of("Gone.java: 클래스 삭제 Gone", "Gone.java: 메서드 삭제 run(String)"),
+                parser.summarize(DELETION));
+    }
+
+    @Test
+    void binaryFileHasOnlyLineCounts() {
+        assertEquals(List.of("docs/logo.png: +0/-0줄"), parser.summarize(BINARY));
+    }
+
+    @Test
+    void hunkHeaderContextQualifiesMembers() {
+        assertEquals(List.of(
+                "OrderService.java: 필드 추가 retries",
+                "OrderService.java: 메서드 추가 cancel(String) (OrderService)",
+                "OrderService.java: 메서드 추가 run() (Inner)"), parser.summarize(FUNCTION_CONTEXT));
+    }
+
+    @Test
+    void headerContextDoesNotReachPastHeaderLine() {
+        // 첫 헤더에는 "class "가 없으므로 다음 hunk 헤더의 클래스를 가져오면 안 됨
+        String diff = """
+                diff --git a/src/A.java b/src/A.java
+                --- a/src/A.java
+                +++ b/src/A.java
+                @@ -1,2 +1,3 @@ void helper() {
+                +    public void added() {
+                @@ -50,1 +51,1 @@ public class Later {
+                 }
+                """;
+
+        assertEquals(List.of("A.java: 메서드 추가 added()"), parser.summarize(diff));
+    }
+
+    @Test
+    void manyHunkHeadersWithoutContextStayLinear() {
+        // 헤더마다 diff 끝까지 "class "를 찾으면 입력 크기의 제곱으로 느려짐
+        StringBuilder sb = new StringBuilder("diff --git a/data.csv b/data.csv\n--- a/data.csv\n+++ b/data.csv\n");
+        for (int i = 0; i < 40_000; i++) {
+            sb.append("@@ -").append(i).append(" +").append(i).append(" @@\n-a,").append(i).append("\n+b,").append(i).append('\n');
+        }
+        String diff = sb.toString();
+
+        List<String> summary = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> parser.summarize(diff));
+        assertEquals(List.of("data.csv: +40000/-40000줄"), summary);
+    }
+
+    @Test
+    void multiFileDiffKeepsFileOrder() {
+        String diff = RENAME + DELETION + BINARY + FUNCTION_CONTEXT;
+
+        List<String> expected = new ArrayList<>();
+        for (String file : List.of(RENAME, DELETION, BINARY, FUNCTION_CONTEXT)) {
+            expected.addAll(parser.summarize(file));
+        }
+        assertEquals(expected, parser.summarize(diff));
+    }
+
+    @Test
+    void parallelPathMatchesPerFileResults() {
+        // 병렬 기준(16개 파일, 64K 문자) 이상
+        int files = 40;
+        String diff = SyntheticDiffs.javaDiff(files, 40);
+        assertTrue(diff.length() >= 64 * 1024);
+
+        List<String> expected = new ArrayList<>();
+        int start = 0;
+        for (int f = 1; f <= files; f++) {
+            int end = f == files ? diff.length() : diff.indexOf("\ndiff --git", start) + 1;
+            expected.addAll(parser.summarize(diff.substring(start, end)));
+            start = end;
+        }
+        assertEquals(expected, parser.summarize(diff));
+    }
+
+    @Test
+    void matchesLegacyParser() {
+        LegacyGitDiffParser legacy = new LegacyGitDiffParser();
+        List<String> inputs = List.of(
+                RENAME, DELETION, BINARY, FUNCTION_CONTEXT,
+                RENAME + DELETION + BINARY + FUNCTION_CONTEXT,
+                // 병렬 기준 미만 / 이상
+                SyntheticDiffs.javaDiff(3, 2),
+                SyntheticDiffs.javaDiff(40, 40),
+                SyntheticDiffs.ofSize(256 * 1024, 200));
+
+        for (String diff : inputs) {
+            assertEquals(legacy.summarize(diff), parser.summarize(diff));
+        }
+    }
+}
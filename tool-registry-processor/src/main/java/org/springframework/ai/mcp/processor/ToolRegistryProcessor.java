@@ -0,0 +1,152 @@
+package org.springframework.ai.mcp.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code @Tool} 메서드를 컴파일 시점에 모아 정적 도구 목록 클래스(-AtoolRegistryClass)를 생성한다.
+ * 목록에는 빈 타입과 메서드 시그니처만 담고, 이름/설명/입력 JSON 스키마는 런타임(ToolRegistry)에서
+ * Spring AI가 그 메서드로 만든다 (스키마 규칙을 여기서 따로 구현하면 Spring AI와 어긋날 수 있으므로).
+ * 도구 이름 중복과 public 여부는 컴파일 시 오류로 알린다.
+ */
+@SupportedAnnotationTypes(ToolRegistryProcessor.TOOL)
+@SupportedOptions(ToolRegistryProcessor.CLASS_OPTION)
+public final class ToolRegistryProcessor extends AbstractProcessor {
+    static final String TOOL = "org.springframework.ai.tool.annotation.Tool";
+    static final String CLASS_OPTION = "toolRegistryClass";
+
+    private final Map<String, ToolMethod> tools = new LinkedHashMap<>();
+    private boolean written;
+
+    private record ToolMethod(String beanType, String methodName, List<String> parameterTypes) {}
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                collect((ExecutableElement) element);
+            }
+        }
+        // @Tool은 직접 작성한 소스에만 있으므로 첫 라운드에서 모두 모인다 (마지막 라운드에 생성하면 컴파일되지 않음)
+        if (!annotations.isEmpty() && !written) {
+            write();
+        }
+        return false;
+    }
+
+    private void collect(ExecutableElement method) {
+        TypeElement bean = (TypeElement) method.getEnclosingElement();
+        if (!method.getModifiers().contains(Modifier.PUBLIC) || !bean.getModifiers().contains(Modifier.PUBLIC)
+                || method.getModifiers().contains(Modifier.STATIC)) {
+            error(method, "@Tool 메서드는 public 클래스의 public 인스턴스 메서드여야 합니다");
+            return;
+        }
+        // Spring AI와 같은 규칙: name이 비어 있으면 메서드 이름
+        String name = stringValue(annotation(method, TOOL), "name");
+        if (name.isEmpty()) name = method.getSimpleName().toString();
+
+        List<String> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(classLiteral(parameter.asType()));
+        }
+        ToolMethod previous = tools.put(name, new ToolMethod(bean.getQualifiedName().toString(),
+                method.getSimpleName().toString(), parameterTypes));
+        if (previous != null) {
+            error(method, "도구 이름 중복: " + name + " (" + previous.beanType() + "." + previous.methodName() + ")");
+        }
+    }
+
+    private void write() {
+        written = true;
+        String target = processingEnv.getOptions().get(CLASS_OPTION);
+        if (target == null || target.isBlank()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "-A" + CLASS_OPTION + " 옵션이 없어 도구 목록을 생성하지 않습니다");
+            return;
+        }
+        int dot = target.lastIndexOf('.');
+        String pkg = target.substring(0, dot);
+        String simpleName = target.substring(dot + 1);
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(pkg).append(";\n\n")
+           .append("import java.util.List;\n\n")
+           .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+           .append("final class ").append(simpleName).append(" {\n")
+           .append("    private ").append(simpleName).append("() {}\n\n")
+           .append("    static List<ToolRegistry.Entry> tools() {\n")
+           .append("        return List.of(");
+        String separator = "\n";
+        for (ToolMethod t : tools.values()) {
+            src.append(separator)
+               .append("                new ToolRegistry.Entry(").append(t.beanType()).append(".class, \"").append(t.methodName())
+               .append("\", List.of(").append(String.join(", ", t.parameterTypes())).append("))");
+            separator = ",\n";
+        }
+        src.append(");\n    }\n}\n");
+
+        Element[] origins = tools.values().stream().map(ToolMethod::beanType).distinct()
+                .map(type -> processingEnv.getElementUtils().getTypeElement(type)).toArray(Element[]::new);
+        try (Writer w = processingEnv.getFiler().createSourceFile(target, origins).openWriter()) {
+            w.write(src.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "도구 목록 생성 실패: " + e);
+        }
+    }
+
+    private static AnnotationMirror annotation(Element element, String type) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    // 명시적으로 지정된 값만 (기본값이면 빈 문자열)
+    private static String stringValue(AnnotationMirror mirror, String attribute) {
+        if (mirror == null) return "";
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : mirror.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(attribute)) return e.getValue().getValue().toString();
+        }
+        return "";
+    }
+
+    private String classLiteral(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName() + ".class";
+        }
+        return erased + ".class";
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}